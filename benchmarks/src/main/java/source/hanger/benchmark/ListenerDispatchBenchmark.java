@@ -0,0 +1,112 @@
+package source.hanger.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.agrona.concurrent.OneToOneConcurrentArrayQueue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import source.hanger.DeepFilterNetServiceInitializer;
+import source.hanger.buffer.AudioFrame;
+import source.hanger.buffer.AudioFramePool;
+import source.hanger.metrics.ProcessorCounters;
+import source.hanger.processor.agent.DeepFilterNetListenerAgent;
+import source.hanger.processor.agent.DeepFilterNetProcessingAgent;
+import source.hanger.processor.agent.IdleProfile;
+import source.hanger.processor.agent.ProcessorOutputGroup;
+import source.hanger.util.AudioFrameBatchListener;
+import source.hanger.util.AudioFrameListener;
+
+/**
+ * 单独测量监听侧的分发开销：基准线程扮演处理代理，向监听队列放入 {@code burst} 帧，
+ * 等待监听代理通过虚拟线程把它们全部交给回调后返回。
+ * <p>
+ * {@code batchListener=true} 时回调实现 {@link AudioFrameBatchListener}，整批数据拼接后一次回调；
+ * 否则逐帧回调。监听代理使用 {@code busy-spin}，避免空闲等待掩盖分发本身的开销。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-exports=java.base/jdk.internal.misc=ALL-UNNAMED")
+public class ListenerDispatchBenchmark {
+
+    private static final int FRAME_LENGTH = 480;
+    private static final String PROCESSOR_ID = "listener-dispatch-benchmark";
+
+    @Param({"1", "32"})
+    public int burst;
+
+    @Param({"false", "true"})
+    public boolean batchListener;
+
+    private final AtomicLong delivered = new AtomicLong();
+    private OneToOneConcurrentArrayQueue<AudioFrame> queue;
+    private AudioFramePool framePool;
+    private ProcessorCounters counters;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        DeepFilterNetServiceInitializer.initialize(IdleProfile.BUSY_SPIN);
+
+        final int bytesPerFrame = FRAME_LENGTH * DeepFilterNetProcessingAgent.AUDIO_FORMAT.getFrameSize();
+        queue = new OneToOneConcurrentArrayQueue<>(64);
+        framePool = new AudioFramePool(bytesPerFrame, 64 + DeepFilterNetListenerAgent.batchSize(), false);
+        counters = new ProcessorCounters(PROCESSOR_ID);
+
+        final AudioFrameListener listener = batchListener
+            ? new AudioFrameBatchListener() {
+                @Override
+                public void onDenoisedAudioFrame(byte[] audioBytes, int offset, int length) {
+                    delivered.incrementAndGet();
+                }
+
+                @Override
+                public void onDenoisedAudioFrames(byte[] audioBytes, int offset, int length, int frameCount) {
+                    delivered.addAndGet(frameCount);
+                }
+            }
+            : (audioBytes, offset, length) -> delivered.incrementAndGet();
+
+        DeepFilterNetListenerAgent.getInstance().registerProcessor(new ProcessorOutputGroup(
+            PROCESSOR_ID, listener, queue, new AtomicBoolean(false), () -> 0, counters));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        DeepFilterNetListenerAgent.getInstance().unregisterProcessor(PROCESSOR_ID);
+        counters.close();
+        DeepFilterNetServiceInitializer.shutdown();
+    }
+
+    @Benchmark
+    public long dispatch() {
+        final long target = delivered.get() + burst;
+        for (int i = 0; i < burst; i++) {
+            AudioFrame frame = framePool.acquire();
+            frame.length(frame.capacity());
+            frame.enqueueNanos(System.nanoTime());
+            while (!queue.offer(frame)) {
+                Thread.onSpinWait();
+            }
+        }
+        long current;
+        while ((current = delivered.get()) < target) {
+            Thread.onSpinWait();
+        }
+        return current;
+    }
+}
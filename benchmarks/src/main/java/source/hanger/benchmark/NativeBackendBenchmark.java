@@ -0,0 +1,74 @@
+package source.hanger.benchmark;
+
+import java.nio.FloatBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import source.hanger.backend.DeepFilterNetBackend;
+import source.hanger.backend.DeepFilterNetBackends;
+import source.hanger.backend.DeepFilterNetState;
+import source.hanger.model.DeepFilterNetModelManager;
+
+/**
+ * 对比 {@code jna}、{@code jna-direct}、{@code ffm} 三种后端在 48 kHz / 480 样本 hop 下的每次调用开销。
+ * <p>
+ * {@code setAttenLim} 几乎不做本地工作，测得的时间基本就是调用路径本身的开销；
+ * {@code processFrame} 则给出在真实推理中节省的比例。需要真实的 libdf 和模型，
+ * {@code ffm} 需要以 JDK 21 构建主工程 (FFM 后端类才会被编译进 jar)。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {
+    "--add-exports=java.base/jdk.internal.misc=ALL-UNNAMED",
+    "--enable-preview",
+    "--enable-native-access=ALL-UNNAMED"})
+public class NativeBackendBenchmark {
+
+    @Param({DeepFilterNetBackends.JNA, DeepFilterNetBackends.JNA_DIRECT, DeepFilterNetBackends.FFM})
+    public String backendName;
+
+    private DeepFilterNetState state;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        DeepFilterNetBackend backend = DeepFilterNetBackends.get(backendName);
+        if (!backend.name().equals(backendName)) {
+            throw new IllegalStateException("后端 " + backendName + " 不可用，实际加载: " + backend.name());
+        }
+        state = backend.create(DeepFilterNetModelManager.getModelPath(), 100.0f, null);
+        FloatBuffer input = state.inputFrame();
+        for (int i = 0; i < state.frameLength(); i++) {
+            input.put(i, (float)Math.sin(i * 0.05) * 0.25f);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        state.close();
+    }
+
+    @Benchmark
+    public void setAttenLim() {
+        state.setAttenLim(100.0f);
+    }
+
+    @Benchmark
+    public float processFrame() {
+        return state.processFrame();
+    }
+}
@@ -0,0 +1,78 @@
+package source.hanger.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import com.sun.jna.Memory;
+import com.sun.jna.Pointer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import source.hanger.jna.DeepFilterNetLibraryInitializer;
+import source.hanger.jna.DeepFilterNetNativeLib;
+import source.hanger.jna.NativeBinding;
+import source.hanger.model.DeepFilterNetModelManager;
+
+/**
+ * 对比接口代理映射与直接映射两种 JNA 绑定在 48 kHz / 480 样本 hop 下的每次调用开销。
+ * <p>
+ * {@code frameLength} 与 {@code setAttenLim} 几乎不做本地工作，测得的时间基本就是绑定本身的开销；
+ * {@code processFrame} 则给出在真实推理中节省的比例。需要真实的 libdf 和模型。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--add-exports=java.base/jdk.internal.misc=ALL-UNNAMED")
+public class NativeBindingBenchmark {
+
+    @Param({"INTERFACE", "DIRECT"})
+    public NativeBinding binding;
+
+    private DeepFilterNetNativeLib nativeLib;
+    private Pointer dfState;
+    private Memory inputMemory;
+    private Memory outputMemory;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        nativeLib = DeepFilterNetLibraryInitializer.getNativeLibraryInstance(binding);
+        dfState = nativeLib.df_create(DeepFilterNetModelManager.getModelPath(), 100.0f, null);
+        int frameLength = nativeLib.df_get_frame_length(dfState);
+        inputMemory = new Memory((long)frameLength * Float.BYTES);
+        outputMemory = new Memory((long)frameLength * Float.BYTES);
+        for (int i = 0; i < frameLength; i++) {
+            inputMemory.setFloat((long)i * Float.BYTES, (float)Math.sin(i * 0.05) * 0.25f);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        nativeLib.df_free(dfState);
+    }
+
+    @Benchmark
+    public int frameLength() {
+        return nativeLib.df_get_frame_length(dfState);
+    }
+
+    @Benchmark
+    public void setAttenLim() {
+        nativeLib.df_set_atten_lim(dfState, 100.0f);
+    }
+
+    @Benchmark
+    public float processFrame() {
+        return nativeLib.df_process_frame(dfState, inputMemory, outputMemory);
+    }
+}
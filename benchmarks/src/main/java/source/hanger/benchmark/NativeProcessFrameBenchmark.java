@@ -0,0 +1,90 @@
+package source.hanger.benchmark;
+
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.concurrent.TimeUnit;
+
+import com.sun.jna.Memory;
+import com.sun.jna.Pointer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import source.hanger.jna.DeepFilterNetLibraryInitializer;
+import source.hanger.jna.DeepFilterNetNativeLib;
+import source.hanger.model.DeepFilterNetModelManager;
+
+/**
+ * 对比 {@code df_process_frame} 的 {@code float[]} 路径（JNA 每次调用前后各复制一次数组）
+ * 与直接内存路径（输入输出位于长期持有的 {@link Memory}，PCM16 直接解码到原生内存）的每帧耗时 (ns/frame)。
+ * <p>
+ * 该基准调用真实的 libdf，需要在 classpath 中包含模型并能加载本地库，例如：
+ * {@code java -Djna.library.path=lib/linux/x86_64 -jar target/benchmarks.jar NativeProcessFrameBenchmark}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--add-exports=java.base/jdk.internal.misc=ALL-UNNAMED")
+public class NativeProcessFrameBenchmark {
+
+    @Param({"array", "direct"})
+    public String path;
+
+    private DeepFilterNetNativeLib nativeLib;
+    private Pointer dfState;
+    private int frameLength;
+    private short[] pcm;
+
+    private float[] inputFloats;
+    private float[] outputFloats;
+    private Memory inputMemory;
+    private Memory outputMemory;
+    private FloatBuffer inputFrame;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        nativeLib = DeepFilterNetLibraryInitializer.getNativeLibraryInstance();
+        dfState = nativeLib.df_create(DeepFilterNetModelManager.getModelPath(), 100.0f, null);
+        frameLength = nativeLib.df_get_frame_length(dfState);
+
+        pcm = new short[frameLength];
+        for (int i = 0; i < frameLength; i++) {
+            pcm[i] = (short)(Math.sin(i * 0.05) * 8000 + (i % 7) * 300);
+        }
+        inputFloats = new float[frameLength];
+        outputFloats = new float[frameLength];
+        inputMemory = new Memory((long)frameLength * Float.BYTES);
+        outputMemory = new Memory((long)frameLength * Float.BYTES);
+        inputFrame = inputMemory.getByteBuffer(0, inputMemory.size()).order(ByteOrder.nativeOrder()).asFloatBuffer();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        nativeLib.df_free(dfState);
+    }
+
+    @Benchmark
+    public float processFrame() {
+        if ("array".equals(path)) {
+            for (int i = 0; i < frameLength; i++) {
+                inputFloats[i] = pcm[i] / 32768.0f;
+            }
+            return nativeLib.df_process_frame(dfState, inputFloats, outputFloats);
+        }
+        for (int i = 0; i < frameLength; i++) {
+            inputFrame.put(i, pcm[i] / 32768.0f);
+        }
+        return nativeLib.df_process_frame(dfState, inputMemory, outputMemory);
+    }
+}
@@ -0,0 +1,116 @@
+package source.hanger.benchmark;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.agrona.concurrent.UnsafeBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import source.hanger.codec.Pcm16Codec;
+import source.hanger.codec.ScalarPcm16Codec;
+import source.hanger.vector.VectorPcm16Codec;
+
+/**
+ * 测量一帧 PCM16 与 float 之间的转换开销。
+ * <p>
+ * {@code decodeHeapAbsolute} 等四个基准保留引入 {@link Pcm16Codec} 之前的逐样本写法 (堆内 ByteBuffer 绝对索引、
+ * 直接 ByteBuffer 相对读取、{@code MutableDirectBuffer} 写入，且编码无饱和) 作为对照；
+ * {@code codecDecode} / {@code codecEncode} 测量当前管线使用的编解码器，{@code codec} 参数选择实现。
+ * float 一侧使用与原生后端相同的直接 {@link FloatBuffer}。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {
+    "--add-exports=java.base/jdk.internal.misc=ALL-UNNAMED",
+    "--add-modules=jdk.incubator.vector"})
+public class PcmConversionBenchmark {
+
+    @Param({"480"})
+    public int frameLength;
+
+    @Param({"scalar", "vector"})
+    public String codecName;
+
+    private ByteBuffer heapPcm;
+    private ByteBuffer directPcm;
+    private UnsafeBuffer framePcm;
+    private FloatBuffer floats;
+    private Pcm16Codec codec;
+
+    @Setup
+    public void setup() {
+        heapPcm = ByteBuffer.allocate(frameLength * 2).order(ByteOrder.LITTLE_ENDIAN);
+        directPcm = ByteBuffer.allocateDirect(frameLength * 2).order(ByteOrder.LITTLE_ENDIAN);
+        framePcm = new UnsafeBuffer(new byte[frameLength * 2]);
+        floats = ByteBuffer.allocateDirect(frameLength * Float.BYTES).order(ByteOrder.nativeOrder()).asFloatBuffer();
+        codec = "vector".equals(codecName) ? new VectorPcm16Codec() : new ScalarPcm16Codec();
+        for (int i = 0; i < frameLength; i++) {
+            short s = (short)(Math.sin(i * 0.05) * 8000);
+            heapPcm.putShort(i * 2, s);
+            directPcm.putShort(i * 2, s);
+            floats.put(i, s / 32768.0f);
+        }
+    }
+
+    @Benchmark
+    public FloatBuffer decodeHeapAbsolute() {
+        for (int i = 0; i < frameLength; i++) {
+            floats.put(i, heapPcm.getShort(i * 2) / 32768.0f);
+        }
+        return floats;
+    }
+
+    @Benchmark
+    public FloatBuffer decodeDirectRelative() {
+        directPcm.clear();
+        for (int i = 0; i < frameLength; i++) {
+            floats.put(i, directPcm.getShort() / 32768.0f);
+        }
+        return floats;
+    }
+
+    @Benchmark
+    public ByteBuffer encodeHeapRelative() {
+        heapPcm.clear();
+        for (int i = 0; i < frameLength; i++) {
+            short s = (short)(floats.get(i) * 32768.0f);
+            heapPcm.putShort(s);
+        }
+        return heapPcm;
+    }
+
+    @Benchmark
+    public UnsafeBuffer encodeFrameBuffer() {
+        for (int i = 0; i < frameLength; i++) {
+            short s = (short)(floats.get(i) * 32768.0f);
+            framePcm.putShort(i * 2, s, ByteOrder.LITTLE_ENDIAN);
+        }
+        return framePcm;
+    }
+
+    @Benchmark
+    public FloatBuffer codecDecode() {
+        codec.decode(framePcm, 0, floats, 0, frameLength, 1.0f);
+        return floats;
+    }
+
+    @Benchmark
+    public UnsafeBuffer codecEncode() {
+        codec.encode(floats, 0, framePcm, 0, frameLength, 1.0f);
+        return framePcm;
+    }
+}
@@ -0,0 +1,85 @@
+package source.hanger.benchmark;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.agrona.BitUtil;
+import org.agrona.concurrent.OneToOneConcurrentArrayQueue;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.agrona.concurrent.ringbuffer.OneToOneRingBuffer;
+import org.agrona.concurrent.ringbuffer.RingBufferDescriptor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import source.hanger.buffer.AudioFrame;
+import source.hanger.buffer.AudioFramePool;
+import source.hanger.metrics.ProcessorCounters;
+import source.hanger.processor.agent.DeepFilterNetProcessingAgent;
+
+/**
+ * 测量 {@link DeepFilterNetProcessingAgent#doWork()} 稳态下每帧的分配量。
+ * <p>
+ * 运行方式：{@code java -jar target/benchmarks.jar ProcessingAgentAllocationBenchmark -prof gc}，
+ * 预热结束后 {@code gc.alloc.rate.norm} 应为 0 B/op。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {
+    "--add-exports=java.base/jdk.internal.misc=ALL-UNNAMED",
+    "--add-modules=jdk.incubator.vector"})
+public class ProcessingAgentAllocationBenchmark {
+
+    private static final int FRAME_LENGTH = 480;
+    private static final int MSG_TYPE_ID = DeepFilterNetProcessingAgent.MSG_TYPE_ID;
+    private static final int HEADER_LENGTH = DeepFilterNetProcessingAgent.MESSAGE_HEADER_LENGTH;
+
+    private OneToOneRingBuffer ringBuffer;
+    private OneToOneConcurrentArrayQueue<AudioFrame> listenerOutputQueue;
+    private DeepFilterNetProcessingAgent agent;
+    private UnsafeBuffer frame;
+
+    @Setup
+    public void setup() {
+        int bytesPerFrame = FRAME_LENGTH * DeepFilterNetProcessingAgent.AUDIO_FORMAT.getFrameSize();
+        int capacity = BitUtil.findNextPositivePowerOfTwo(bytesPerFrame * 16);
+        ringBuffer = new OneToOneRingBuffer(
+            new UnsafeBuffer(ByteBuffer.allocateDirect(capacity + RingBufferDescriptor.TRAILER_LENGTH)));
+        listenerOutputQueue = new OneToOneConcurrentArrayQueue<>(64);
+        agent = new DeepFilterNetProcessingAgent(
+            new StubDeepFilterNetBackend(FRAME_LENGTH).create(null, 100.0f, null), ringBuffer, listenerOutputQueue,
+            new AudioFramePool(bytesPerFrame, 96, false),
+            new AtomicBoolean(false), new ProcessorCounters("allocation-benchmark"));
+
+        frame = new UnsafeBuffer(new byte[HEADER_LENGTH + bytesPerFrame]);
+        for (int i = 0; i < FRAME_LENGTH; i++) {
+            frame.putShort(HEADER_LENGTH + i * 2, (short)(Math.sin(i * 0.05) * 8000));
+        }
+    }
+
+    /**
+     * 一次完整的帧周期：写入一帧带时间戳消息头的 PCM，驱动处理代理直到产出一帧，再模拟监听者释放该帧。
+     */
+    @Benchmark
+    public int frameCycle() throws Exception {
+        frame.putLong(0, System.nanoTime());
+        ringBuffer.write(MSG_TYPE_ID, frame, 0, frame.capacity());
+        AudioFrame output;
+        while ((output = listenerOutputQueue.poll()) == null) {
+            agent.doWork();
+        }
+        int length = output.length();
+        output.release();
+        return length;
+    }
+}
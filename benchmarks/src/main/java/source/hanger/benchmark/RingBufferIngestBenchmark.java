@@ -0,0 +1,97 @@
+package source.hanger.benchmark;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.agrona.MutableDirectBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import source.hanger.DeepFilterNetServiceInitializer;
+import source.hanger.backend.DeepFilterNetBackends;
+import source.hanger.model.DeepFilterNetModelManager;
+import source.hanger.processor.DeepFilterNetStreamProcessor;
+import source.hanger.processor.agent.IdleProfile;
+
+/**
+ * 测量把一块 PCM 写入输入 ring buffer 的开销 (申请消息、写消息头、复制数据、提交)：{@code processAudioFrame} 从
+ * {@link ByteBuffer} 直接复制到 ring buffer，{@code claimAndCommit} 由生产者直接写入申请到的 ring buffer 内存。
+ * <p>
+ * 处理器正常运行并由桩后端消费，ring buffer 足够大，通常不会因写满而让出；若消费跟不上，
+ * 得分中会包含等待时间，可结合 {@code df.processor.producer-full-spins} 计数器判断。
+ * {@code chunkBytes} 覆盖 10 ms 单帧 (960 字节) 与调用方一次递交多帧的情形。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {
+    "--add-exports=java.base/jdk.internal.misc=ALL-UNNAMED",
+    "--add-modules=jdk.incubator.vector",
+    "-Ddf.processing.workers=1"})
+public class RingBufferIngestBenchmark {
+
+    private static final int FRAME_LENGTH = 480;
+
+    @Param({"960", "3840"})
+    public int chunkBytes;
+
+    private DeepFilterNetStreamProcessor processor;
+    private ByteBuffer chunk;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        System.setProperty(DeepFilterNetModelManager.MODEL_PATH_PROPERTY, "stub-model.tar.gz");
+        DeepFilterNetBackends.setDefault(new StubDeepFilterNetBackend(FRAME_LENGTH));
+        DeepFilterNetServiceInitializer.initialize(IdleProfile.BUSY_SPIN);
+
+        processor = DeepFilterNetStreamProcessor.builder(100.0f, (audioBytes, offset, length) -> {
+            })
+            .ringBufferCapacity(1 << 20)
+            .listenerQueueCapacity(1024)
+            .idleProfile(IdleProfile.BUSY_SPIN)
+            .build();
+        processor.start();
+
+        chunk = ByteBuffer.allocate(chunkBytes);
+        for (int i = 0; i < chunkBytes / 2; i++) {
+            chunk.putShort(i * 2, (short)(Math.sin(i * 0.05) * 8000));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        processor.stop();
+        DeepFilterNetServiceInitializer.shutdown();
+    }
+
+    @Benchmark
+    public boolean processAudioFrame() {
+        chunk.clear();
+        return processor.processAudioFrame(chunk);
+    }
+
+    @Benchmark
+    public int claimAndCommit() {
+        final int index = processor.tryClaimInput(chunkBytes);
+        if (index >= 0) {
+            final MutableDirectBuffer buffer = processor.inputClaimBuffer();
+            for (int i = 0; i < chunkBytes; i += 2) {
+                buffer.putShort(index + i, (short)i);
+            }
+            processor.commitInput(index);
+        }
+        return index;
+    }
+}
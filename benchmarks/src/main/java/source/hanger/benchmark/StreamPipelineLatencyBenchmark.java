@@ -0,0 +1,93 @@
+package source.hanger.benchmark;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import source.hanger.DeepFilterNetServiceInitializer;
+import source.hanger.backend.DeepFilterNetBackends;
+import source.hanger.model.DeepFilterNetModelManager;
+import source.hanger.processor.DeepFilterNetStreamProcessor;
+import source.hanger.processor.agent.DeepFilterNetProcessingAgent;
+import source.hanger.processor.agent.IdleProfile;
+import source.hanger.util.AudioFrameListener;
+
+/**
+ * 测量不同 {@link IdleProfile} 下从 {@code processAudioFrame} 写入一帧到监听回调收到该帧的端到端延迟。
+ * <p>
+ * 处理与监听两级都使用同一配置；原生推理由桩后端代替，结果只反映管线本身的排队与唤醒开销。
+ * 每次调用都在上一帧回调之后才写入下一帧，因此测到的是空闲管线被唤醒的延迟，正是空闲策略影响最大的情形。
+ * 处理线程数固定为 1，避免 {@code busy-spin} 占满所有核。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {
+    "--add-exports=java.base/jdk.internal.misc=ALL-UNNAMED",
+    "--add-modules=jdk.incubator.vector",
+    "-Ddf.processing.workers=1"})
+public class StreamPipelineLatencyBenchmark {
+
+    private static final int FRAME_LENGTH = 480;
+
+    @Param({"BUSY_SPIN", "LOW_LATENCY", "BALANCED", "POWER_SAVING"})
+    public IdleProfile profile;
+
+    private final AtomicLong delivered = new AtomicLong();
+    private DeepFilterNetStreamProcessor processor;
+    private ByteBuffer frame;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        System.setProperty(DeepFilterNetModelManager.MODEL_PATH_PROPERTY, "stub-model.tar.gz");
+        DeepFilterNetBackends.setDefault(new StubDeepFilterNetBackend(FRAME_LENGTH));
+        DeepFilterNetServiceInitializer.initialize(profile);
+
+        AudioFrameListener listener = (audioBytes, offset, length) -> delivered.incrementAndGet();
+        processor = DeepFilterNetStreamProcessor.builder(100.0f, listener)
+            .ringBufferCapacity(1 << 16)
+            .listenerQueueCapacity(64)
+            .idleProfile(profile)
+            .build();
+        processor.start();
+
+        int bytesPerFrame = FRAME_LENGTH * DeepFilterNetProcessingAgent.AUDIO_FORMAT.getFrameSize();
+        frame = ByteBuffer.allocate(bytesPerFrame);
+        for (int i = 0; i < FRAME_LENGTH; i++) {
+            frame.putShort(i * 2, (short)(Math.sin(i * 0.05) * 8000));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        processor.stop();
+        DeepFilterNetServiceInitializer.shutdown();
+    }
+
+    @Benchmark
+    public long inputToCallback() {
+        final long target = delivered.get() + 1;
+        frame.clear();
+        processor.processAudioFrame(frame);
+        long current;
+        while ((current = delivered.get()) < target) {
+            Thread.onSpinWait();
+        }
+        return current;
+    }
+}
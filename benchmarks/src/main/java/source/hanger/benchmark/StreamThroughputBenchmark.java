@@ -0,0 +1,105 @@
+package source.hanger.benchmark;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import source.hanger.DeepFilterNetServiceInitializer;
+import source.hanger.backend.DeepFilterNetBackends;
+import source.hanger.model.DeepFilterNetModelManager;
+import source.hanger.processor.DeepFilterNetStreamProcessor;
+import source.hanger.processor.agent.DeepFilterNetProcessingAgent;
+import source.hanger.processor.agent.IdleProfile;
+
+/**
+ * 多路并发流的整体吞吐：每次调用向 {@code streams} 个处理器各写入一帧，
+ * 并保证在途帧数不超过 {@code streams * WINDOW_FRAMES}，使管线持续满载而监听队列不会溢出。
+ * <p>
+ * 得分为每秒完成的轮数，乘以 {@code streams} 即每秒处理的帧数 (每帧 10 ms 音频)。
+ * {@code inferenceNanos} 让桩后端每帧额外占用 CPU，模拟真实推理开销；为 0 时只反映 Java 侧的调度、复制与分发成本。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {
+    "--add-exports=java.base/jdk.internal.misc=ALL-UNNAMED",
+    "--add-modules=jdk.incubator.vector"})
+public class StreamThroughputBenchmark {
+
+    private static final int FRAME_LENGTH = 480;
+    private static final int WINDOW_FRAMES = 8;
+
+    @Param({"1", "16", "256"})
+    public int streams;
+
+    @Param({"0", "100000"})
+    public long inferenceNanos;
+
+    private final AtomicLong delivered = new AtomicLong();
+    private DeepFilterNetStreamProcessor[] processors;
+    private ByteBuffer frame;
+    private long sent;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        System.setProperty(DeepFilterNetModelManager.MODEL_PATH_PROPERTY, "stub-model.tar.gz");
+        DeepFilterNetBackends.setDefault(new StubDeepFilterNetBackend(FRAME_LENGTH, inferenceNanos));
+        DeepFilterNetServiceInitializer.initialize(IdleProfile.BALANCED);
+
+        processors = new DeepFilterNetStreamProcessor[streams];
+        for (int i = 0; i < streams; i++) {
+            processors[i] = DeepFilterNetStreamProcessor.builder(100.0f,
+                    (audioBytes, offset, length) -> delivered.incrementAndGet())
+                .ringBufferCapacity(1 << 14)
+                .listenerQueueCapacity(4 * WINDOW_FRAMES)
+                .idleProfile(IdleProfile.BALANCED)
+                .build();
+            processors[i].start();
+        }
+
+        int bytesPerFrame = FRAME_LENGTH * DeepFilterNetProcessingAgent.AUDIO_FORMAT.getFrameSize();
+        frame = ByteBuffer.allocate(bytesPerFrame);
+        for (int i = 0; i < FRAME_LENGTH; i++) {
+            frame.putShort(i * 2, (short)(Math.sin(i * 0.05) * 8000));
+        }
+        sent = 0;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        for (DeepFilterNetStreamProcessor processor : processors) {
+            processor.stop();
+        }
+        DeepFilterNetServiceInitializer.shutdown();
+    }
+
+    @Benchmark
+    public long round() {
+        for (DeepFilterNetStreamProcessor processor : processors) {
+            frame.clear();
+            processor.processAudioFrame(frame);
+        }
+        sent += streams;
+        final long allowedInFlight = (long)streams * WINDOW_FRAMES;
+        long current;
+        while ((current = delivered.get()) < sent - allowedInFlight) {
+            Thread.onSpinWait();
+        }
+        return current;
+    }
+}
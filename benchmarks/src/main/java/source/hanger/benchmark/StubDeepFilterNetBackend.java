@@ -0,0 +1,101 @@
+package source.hanger.benchmark;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+
+import source.hanger.backend.DeepFilterNetBackend;
+import source.hanger.backend.DeepFilterNetState;
+
+/**
+ * 不依赖真实模型的 {@link DeepFilterNetBackend} 桩实现：直接把输入复制到输出，
+ * 用于在没有 libdf 的机器上测量 Java 侧的开销。
+ * <p>
+ * 可选的 {@code inferenceNanos} 让每帧额外忙等指定时长，模拟真实推理占用的 CPU 时间，
+ * 以便在多路吞吐测试中观察调度与负载均衡的行为。
+ */
+public class StubDeepFilterNetBackend implements DeepFilterNetBackend {
+
+    private final int frameLength;
+    private final long inferenceNanos;
+
+    public StubDeepFilterNetBackend(int frameLength) {
+        this(frameLength, 0L);
+    }
+
+    public StubDeepFilterNetBackend(int frameLength, long inferenceNanos) {
+        this.frameLength = frameLength;
+        this.inferenceNanos = inferenceNanos;
+    }
+
+    @Override
+    public String name() {
+        return "stub";
+    }
+
+    @Override
+    public DeepFilterNetState create(String modelPath, float attenLim, String logLevel) {
+        return new StubState(frameLength, inferenceNanos);
+    }
+
+    private static final class StubState implements DeepFilterNetState {
+
+        private final int frameLength;
+        private final long inferenceNanos;
+        private final FloatBuffer inputFrame;
+        private final FloatBuffer outputFrame;
+
+        StubState(int frameLength, long inferenceNanos) {
+            this.frameLength = frameLength;
+            this.inferenceNanos = inferenceNanos;
+            this.inputFrame = ByteBuffer.allocateDirect(frameLength * Float.BYTES).order(ByteOrder.nativeOrder())
+                .asFloatBuffer();
+            this.outputFrame = ByteBuffer.allocateDirect(frameLength * Float.BYTES).order(ByteOrder.nativeOrder())
+                .asFloatBuffer();
+        }
+
+        @Override
+        public int frameLength() {
+            return frameLength;
+        }
+
+        @Override
+        public FloatBuffer inputFrame() {
+            return inputFrame;
+        }
+
+        @Override
+        public FloatBuffer outputFrame() {
+            return outputFrame;
+        }
+
+        @Override
+        public float processFrame() {
+            outputFrame.put(0, inputFrame, 0, frameLength);
+            if (inferenceNanos > 0) {
+                final long deadline = System.nanoTime() + inferenceNanos;
+                while (System.nanoTime() < deadline) {
+                    Thread.onSpinWait();
+                }
+            }
+            return 0.0f;
+        }
+
+        @Override
+        public void setAttenLim(float limDb) {
+        }
+
+        @Override
+        public void setPostFilterBeta(float beta) {
+        }
+
+        @Override
+        public boolean reset() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
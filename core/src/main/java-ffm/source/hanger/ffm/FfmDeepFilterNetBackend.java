@@ -0,0 +1,184 @@
+package source.hanger.ffm;
+
+import java.io.File;
+import java.lang.foreign.Arena;
+import java.lang.foreign.FunctionDescriptor;
+import java.lang.foreign.Linker;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SymbolLookup;
+import java.lang.invoke.MethodHandle;
+import java.nio.ByteBuffer;
+
+import lombok.extern.slf4j.Slf4j;
+import source.hanger.backend.DeepFilterNetBackend;
+import source.hanger.backend.DeepFilterNetFrameBatch;
+import source.hanger.backend.DeepFilterNetModel;
+import source.hanger.backend.DeepFilterNetState;
+import source.hanger.jna.DeepFilterNetLibraryInitializer;
+
+import static java.lang.foreign.ValueLayout.ADDRESS;
+import static java.lang.foreign.ValueLayout.JAVA_FLOAT;
+import static java.lang.foreign.ValueLayout.JAVA_LONG;
+
+/**
+ * 基于 Java Foreign Function &amp; Memory API 的后端：通过 downcall handle 调用 libdf，
+ * 输入输出帧是每个状态独立 {@link Arena} 中分配的 {@link MemorySegment}，调用时不经过 JNA 的参数封送。
+ * <p>
+ * JDK 21 中 FFM 仍为预览特性，本类只在 JDK 21 构建时编译 (见 pom.xml 中的 {@code ffm} profile)，
+ * 运行时需要 {@code --enable-preview --enable-native-access=ALL-UNNAMED}。
+ * 由 {@link source.hanger.backend.DeepFilterNetBackends} 通过反射加载。
+ */
+@Slf4j
+public final class FfmDeepFilterNetBackend implements DeepFilterNetBackend {
+
+    final MethodHandle dfCreate;
+    final MethodHandle dfGetFrameLength;
+    final MethodHandle dfProcessFrame;
+    final MethodHandle dfFree;
+    final MethodHandle dfSetAttenLim;
+    final MethodHandle dfSetPostFilterBeta;
+    // 以下为可选符号，旧版 libdf 没有时为 null
+    final MethodHandle dfReset;
+    final MethodHandle dfModelLoad;
+    final MethodHandle dfCreateFromModel;
+    final MethodHandle dfModelFree;
+    final MethodHandle dfCreateCh;
+    final MethodHandle dfCreateFromModelCh;
+    final MethodHandle dfProcessFrames;
+
+    public FfmDeepFilterNetBackend() {
+        File libraryFile = DeepFilterNetLibraryInitializer.findNativeLibraryFile();
+        SymbolLookup lookup = libraryFile != null
+            ? SymbolLookup.libraryLookup(libraryFile.toPath(), Arena.global())
+            : SymbolLookup.libraryLookup(System.mapLibraryName("df"), Arena.global());
+        log.info("DF_LOG: FFM 后端已加载本地库: {}",
+            libraryFile != null ? libraryFile.getAbsolutePath() : System.mapLibraryName("df"));
+
+        Linker linker = Linker.nativeLinker();
+        this.dfCreate = downcall(linker, lookup, "df_create",
+            FunctionDescriptor.of(ADDRESS, ADDRESS, JAVA_FLOAT, ADDRESS));
+        // usize 在 64 位平台上对应 JAVA_LONG
+        this.dfGetFrameLength = downcall(linker, lookup, "df_get_frame_length",
+            FunctionDescriptor.of(JAVA_LONG, ADDRESS));
+        this.dfProcessFrame = downcall(linker, lookup, "df_process_frame",
+            FunctionDescriptor.of(JAVA_FLOAT, ADDRESS, ADDRESS, ADDRESS));
+        this.dfFree = downcall(linker, lookup, "df_free",
+            FunctionDescriptor.ofVoid(ADDRESS));
+        this.dfSetAttenLim = downcall(linker, lookup, "df_set_atten_lim",
+            FunctionDescriptor.ofVoid(ADDRESS, JAVA_FLOAT));
+        this.dfSetPostFilterBeta = downcall(linker, lookup, "df_set_post_filter_beta",
+            FunctionDescriptor.ofVoid(ADDRESS, JAVA_FLOAT));
+        this.dfReset = optionalDowncall(linker, lookup, "df_reset",
+            FunctionDescriptor.ofVoid(ADDRESS));
+        this.dfModelLoad = optionalDowncall(linker, lookup, "df_model_load",
+            FunctionDescriptor.of(ADDRESS, ADDRESS, JAVA_LONG));
+        this.dfCreateFromModel = optionalDowncall(linker, lookup, "df_create_from_model",
+            FunctionDescriptor.of(ADDRESS, ADDRESS, JAVA_FLOAT, ADDRESS));
+        this.dfModelFree = optionalDowncall(linker, lookup, "df_model_free",
+            FunctionDescriptor.ofVoid(ADDRESS));
+        this.dfCreateCh = optionalDowncall(linker, lookup, "df_create_ch",
+            FunctionDescriptor.of(ADDRESS, ADDRESS, JAVA_LONG, JAVA_FLOAT, ADDRESS));
+        this.dfCreateFromModelCh = optionalDowncall(linker, lookup, "df_create_from_model_ch",
+            FunctionDescriptor.of(ADDRESS, ADDRESS, JAVA_LONG, JAVA_FLOAT, ADDRESS));
+        this.dfProcessFrames = optionalDowncall(linker, lookup, "df_process_frames",
+            FunctionDescriptor.of(JAVA_LONG, ADDRESS, JAVA_LONG, ADDRESS, ADDRESS, ADDRESS));
+    }
+
+    private static MethodHandle optionalDowncall(Linker linker, SymbolLookup lookup, String name,
+        FunctionDescriptor descriptor) {
+        return lookup.find(name).map(symbol -> linker.downcallHandle(symbol, descriptor)).orElse(null);
+    }
+
+    private static MethodHandle downcall(Linker linker, SymbolLookup lookup, String name,
+        FunctionDescriptor descriptor) {
+        MemorySegment symbol = lookup.find(name)
+            .orElseThrow(() -> new UnsatisfiedLinkError("libdf 中未找到符号: " + name));
+        return linker.downcallHandle(symbol, descriptor);
+    }
+
+    @Override
+    public String name() {
+        return "ffm";
+    }
+
+    @Override
+    public DeepFilterNetState create(String modelPath, float attenLim, String logLevel) {
+        MemorySegment dfState;
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment path = arena.allocateUtf8String(modelPath);
+            MemorySegment level = logLevel == null ? MemorySegment.NULL : arena.allocateUtf8String(logLevel);
+            dfState = (MemorySegment)dfCreate.invokeExact(path, attenLim, level);
+        } catch (Throwable e) {
+            throw new IllegalStateException("DF_ERROR: 调用 df_create 失败: " + e.getMessage(), e);
+        }
+        if (dfState.address() == 0) {
+            throw new IllegalStateException("DF_ERROR: 无法创建 DeepFilterNet 状态。请检查模型路径或日志。");
+        }
+        return new FfmDeepFilterNetState(this, dfState, 1);
+    }
+
+    @Override
+    public DeepFilterNetState create(String modelPath, int channels, float attenLim, String logLevel) {
+        if (channels == 1) {
+            return create(modelPath, attenLim, logLevel);
+        }
+        if (dfCreateCh == null) {
+            throw new UnsupportedOperationException("DF_ERROR: 当前 libdf 不支持多声道 (缺少 df_create_ch)");
+        }
+        MemorySegment dfState;
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment path = arena.allocateUtf8String(modelPath);
+            MemorySegment level = logLevel == null ? MemorySegment.NULL : arena.allocateUtf8String(logLevel);
+            dfState = (MemorySegment)dfCreateCh.invokeExact(path, (long)channels, attenLim, level);
+        } catch (Throwable e) {
+            throw new IllegalStateException("DF_ERROR: 调用 df_create_ch 失败: " + e.getMessage(), e);
+        }
+        if (dfState.address() == 0) {
+            throw new IllegalStateException("DF_ERROR: 无法创建 DeepFilterNet 状态。请检查模型路径或日志。");
+        }
+        return new FfmDeepFilterNetState(this, dfState, channels);
+    }
+
+    @Override
+    public boolean supportsBatchProcessing() {
+        return dfProcessFrames != null;
+    }
+
+    @Override
+    public DeepFilterNetFrameBatch newFrameBatch(int maxStates, int maxSamples) {
+        if (!supportsBatchProcessing()) {
+            return DeepFilterNetBackend.super.newFrameBatch(maxStates, maxSamples);
+        }
+        return new FfmDeepFilterNetFrameBatch(this, maxStates, maxSamples);
+    }
+
+    @Override
+    public boolean supportsModelLoading() {
+        return dfModelLoad != null && dfCreateFromModel != null && dfModelFree != null;
+    }
+
+    @Override
+    public DeepFilterNetModel loadModel(ByteBuffer modelBytes) {
+        if (!supportsModelLoading()) {
+            throw new UnsupportedOperationException("DF_ERROR: 当前 libdf 不支持 df_model_load");
+        }
+        MemorySegment dfModel;
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment data;
+            if (modelBytes.isDirect()) {
+                // 内存映射的模型文件直接传递地址，不复制
+                data = MemorySegment.ofBuffer(modelBytes);
+            } else {
+                data = arena.allocate(Math.max(1, modelBytes.remaining()));
+                data.copyFrom(MemorySegment.ofBuffer(modelBytes));
+            }
+            dfModel = (MemorySegment)dfModelLoad.invokeExact(data, (long)modelBytes.remaining());
+        } catch (Throwable e) {
+            throw new IllegalStateException("DF_ERROR: 调用 df_model_load 失败: " + e.getMessage(), e);
+        }
+        if (dfModel.address() == 0) {
+            throw new IllegalStateException("DF_ERROR: 无法从内存加载 DeepFilterNet 模型。请检查模型文件是否完整。");
+        }
+        return new FfmDeepFilterNetModel(this, dfModel);
+    }
+}
@@ -0,0 +1,125 @@
+package source.hanger.ffm;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+
+import source.hanger.backend.DeepFilterNetFrameBatch;
+import source.hanger.backend.DeepFilterNetState;
+
+import static java.lang.foreign.ValueLayout.ADDRESS;
+import static java.lang.foreign.ValueLayout.JAVA_FLOAT;
+
+/**
+ * FFM 后端的批次：状态地址数组、输入输出块和局部信噪比分配在批次自己的共享 {@link Arena} 中，
+ * 随 {@link #close()} 一并释放。
+ */
+final class FfmDeepFilterNetFrameBatch implements DeepFilterNetFrameBatch {
+
+    private static final long FRAME_ALIGNMENT = 64; // 与状态的输入输出帧一样按缓存行对齐
+
+    private final FfmDeepFilterNetBackend backend;
+    private final Arena arena;
+    private final int maxStates;
+    private final MemorySegment statePointers;
+    private final MemorySegment inputSegment;
+    private final MemorySegment outputSegment;
+    private final MemorySegment lsnrSegment;
+    private final FloatBuffer inputFrames;
+    private final FloatBuffer outputFrames;
+    private int size;
+    private int usedSamples;
+
+    FfmDeepFilterNetFrameBatch(FfmDeepFilterNetBackend backend, int maxStates, int maxSamples) {
+        if (maxStates < 1 || maxSamples < 1) {
+            throw new IllegalArgumentException(
+                "DF_ERROR: 批次容量必须为正数: maxStates=" + maxStates + ", maxSamples=" + maxSamples);
+        }
+        this.backend = backend;
+        this.maxStates = maxStates;
+        this.arena = Arena.ofShared();
+        this.statePointers = arena.allocate(ADDRESS.byteSize() * maxStates, ADDRESS.byteAlignment());
+        this.inputSegment = arena.allocate(JAVA_FLOAT.byteSize() * maxSamples, FRAME_ALIGNMENT);
+        this.outputSegment = arena.allocate(JAVA_FLOAT.byteSize() * maxSamples, FRAME_ALIGNMENT);
+        this.lsnrSegment = arena.allocate(JAVA_FLOAT.byteSize() * maxStates, JAVA_FLOAT.byteAlignment());
+        this.inputFrames = inputSegment.asByteBuffer().order(ByteOrder.nativeOrder()).asFloatBuffer();
+        this.outputFrames = outputSegment.asByteBuffer().order(ByteOrder.nativeOrder()).asFloatBuffer();
+    }
+
+    @Override
+    public int maxStates() {
+        return maxStates;
+    }
+
+    @Override
+    public int maxSamples() {
+        return inputFrames.capacity();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public FloatBuffer inputFrames() {
+        return inputFrames;
+    }
+
+    @Override
+    public FloatBuffer outputFrames() {
+        return outputFrames;
+    }
+
+    @Override
+    public int add(DeepFilterNetState state) {
+        if (!(state.unwrap() instanceof FfmDeepFilterNetState ffmState) || !ffmState.belongsTo(backend)) {
+            throw new IllegalArgumentException("DF_ERROR: 批次只能处理同一 FFM 后端创建的状态");
+        }
+        final int samples = ffmState.channels() * ffmState.frameLength();
+        if (size == maxStates || usedSamples + samples > inputFrames.capacity()) {
+            return -1;
+        }
+        final int offset = usedSamples;
+        statePointers.setAtIndex(ADDRESS, size, ffmState.nativeState());
+        size++;
+        usedSamples += samples;
+        return offset;
+    }
+
+    @Override
+    public void process() {
+        if (size == 0) {
+            return;
+        }
+        final long processed;
+        try {
+            processed = (long)backend.dfProcessFrames.invokeExact(statePointers, (long)size, inputSegment,
+                outputSegment, lsnrSegment);
+        } catch (Throwable e) {
+            throw new IllegalStateException("DF_ERROR: 调用 df_process_frames 失败: " + e.getMessage(), e);
+        }
+        if (processed != usedSamples) {
+            throw new IllegalStateException(
+                "DF_ERROR: df_process_frames 读取了 " + processed + " 个样本，预期 " + usedSamples);
+        }
+    }
+
+    @Override
+    public float lsnr(int index) {
+        return lsnrSegment.getAtIndex(JAVA_FLOAT, index);
+    }
+
+    @Override
+    public void clear() {
+        size = 0;
+        usedSamples = 0;
+    }
+
+    @Override
+    public void close() {
+        clear();
+        arena.close();
+    }
+}
@@ -0,0 +1,77 @@
+package source.hanger.ffm;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+
+import source.hanger.backend.DeepFilterNetModel;
+import source.hanger.backend.DeepFilterNetState;
+
+/**
+ * FFM 后端的共享模型，持有 {@code df_model_load} 返回的 {@code DFModel} 地址。
+ */
+final class FfmDeepFilterNetModel implements DeepFilterNetModel {
+
+    private final FfmDeepFilterNetBackend backend;
+    private MemorySegment dfModel;
+
+    FfmDeepFilterNetModel(FfmDeepFilterNetBackend backend, MemorySegment dfModel) {
+        this.backend = backend;
+        this.dfModel = dfModel;
+    }
+
+    @Override
+    public synchronized DeepFilterNetState createState(float attenLim, String logLevel) {
+        if (dfModel.address() == 0) {
+            throw new IllegalStateException("DF_ERROR: 模型已关闭");
+        }
+        MemorySegment dfState;
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment level = logLevel == null ? MemorySegment.NULL : arena.allocateUtf8String(logLevel);
+            dfState = (MemorySegment)backend.dfCreateFromModel.invokeExact(dfModel, attenLim, level);
+        } catch (Throwable e) {
+            throw new IllegalStateException("DF_ERROR: 调用 df_create_from_model 失败: " + e.getMessage(), e);
+        }
+        if (dfState.address() == 0) {
+            throw new IllegalStateException("DF_ERROR: 无法创建 DeepFilterNet 状态。");
+        }
+        return new FfmDeepFilterNetState(backend, dfState, 1);
+    }
+
+    @Override
+    public synchronized DeepFilterNetState createState(float attenLim, int channels, String logLevel) {
+        if (channels == 1) {
+            return createState(attenLim, logLevel);
+        }
+        if (backend.dfCreateFromModelCh == null) {
+            throw new UnsupportedOperationException("DF_ERROR: 当前 libdf 不支持多声道 (缺少 df_create_from_model_ch)");
+        }
+        if (dfModel.address() == 0) {
+            throw new IllegalStateException("DF_ERROR: 模型已关闭");
+        }
+        MemorySegment dfState;
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment level = logLevel == null ? MemorySegment.NULL : arena.allocateUtf8String(logLevel);
+            dfState = (MemorySegment)backend.dfCreateFromModelCh.invokeExact(dfModel, (long)channels, attenLim,
+                level);
+        } catch (Throwable e) {
+            throw new IllegalStateException("DF_ERROR: 调用 df_create_from_model_ch 失败: " + e.getMessage(), e);
+        }
+        if (dfState.address() == 0) {
+            throw new IllegalStateException("DF_ERROR: 无法创建 " + channels + " 声道的 DeepFilterNet 状态。");
+        }
+        return new FfmDeepFilterNetState(backend, dfState, channels);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (dfModel.address() != 0) {
+            try {
+                backend.dfModelFree.invokeExact(dfModel);
+            } catch (Throwable e) {
+                throw new IllegalStateException("DF_ERROR: 调用 df_model_free 失败: " + e.getMessage(), e);
+            } finally {
+                dfModel = MemorySegment.NULL;
+            }
+        }
+    }
+}
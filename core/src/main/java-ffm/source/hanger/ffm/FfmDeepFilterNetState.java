@@ -0,0 +1,135 @@
+package source.hanger.ffm;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+
+import source.hanger.backend.DeepFilterNetState;
+
+import static java.lang.foreign.ValueLayout.JAVA_FLOAT;
+
+/**
+ * FFM 后端的状态。输入输出帧分配在每个状态独立的共享 {@link Arena} 中
+ * (状态会在创建线程、处理线程和释放线程之间交接，因此不能使用 confined arena)，随 {@link #close()} 一并释放。
+ */
+final class FfmDeepFilterNetState implements DeepFilterNetState {
+
+    private static final long FRAME_ALIGNMENT = 64; // 按缓存行对齐，便于原生侧向量化读取
+
+    private final FfmDeepFilterNetBackend backend;
+    private final Arena arena;
+    private final int frameLength;
+    private final int channels;
+    private final MemorySegment inputSegment;
+    private final MemorySegment outputSegment;
+    private final FloatBuffer inputFrame;
+    private final FloatBuffer outputFrame;
+    private MemorySegment dfState;
+
+    FfmDeepFilterNetState(FfmDeepFilterNetBackend backend, MemorySegment dfState, int channels) {
+        this.backend = backend;
+        this.dfState = dfState;
+        try {
+            this.frameLength = Math.toIntExact((long)backend.dfGetFrameLength.invokeExact(dfState));
+        } catch (Throwable e) {
+            throw new IllegalStateException("DF_ERROR: 调用 df_get_frame_length 失败: " + e.getMessage(), e);
+        }
+        this.channels = channels;
+        this.arena = Arena.ofShared();
+        this.inputSegment = arena.allocate(JAVA_FLOAT.byteSize() * channels * frameLength, FRAME_ALIGNMENT);
+        this.outputSegment = arena.allocate(JAVA_FLOAT.byteSize() * channels * frameLength, FRAME_ALIGNMENT);
+        this.inputFrame = inputSegment.asByteBuffer().order(ByteOrder.nativeOrder()).asFloatBuffer();
+        this.outputFrame = outputSegment.asByteBuffer().order(ByteOrder.nativeOrder()).asFloatBuffer();
+    }
+
+    @Override
+    public int frameLength() {
+        return frameLength;
+    }
+
+    @Override
+    public int channels() {
+        return channels;
+    }
+
+    @Override
+    public FloatBuffer inputFrame() {
+        return inputFrame;
+    }
+
+    @Override
+    public FloatBuffer outputFrame() {
+        return outputFrame;
+    }
+
+    /**
+     * 原生 {@code DFState} 地址，供 {@link FfmDeepFilterNetFrameBatch} 使用。
+     *
+     * @throws IllegalStateException 如果状态已关闭。
+     */
+    MemorySegment nativeState() {
+        if (dfState.address() == 0) {
+            throw new IllegalStateException("DF_ERROR: 状态已关闭");
+        }
+        return dfState;
+    }
+
+    boolean belongsTo(FfmDeepFilterNetBackend backend) {
+        return this.backend == backend;
+    }
+
+    @Override
+    public float processFrame() {
+        try {
+            return (float)backend.dfProcessFrame.invokeExact(dfState, inputSegment, outputSegment);
+        } catch (Throwable e) {
+            throw new IllegalStateException("DF_ERROR: 调用 df_process_frame 失败: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void setAttenLim(float limDb) {
+        try {
+            backend.dfSetAttenLim.invokeExact(dfState, limDb);
+        } catch (Throwable e) {
+            throw new IllegalStateException("DF_ERROR: 调用 df_set_atten_lim 失败: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void setPostFilterBeta(float beta) {
+        try {
+            backend.dfSetPostFilterBeta.invokeExact(dfState, beta);
+        } catch (Throwable e) {
+            throw new IllegalStateException("DF_ERROR: 调用 df_set_post_filter_beta 失败: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public boolean reset() {
+        if (backend.dfReset == null) {
+            return false;
+        }
+        try {
+            backend.dfReset.invokeExact(dfState);
+        } catch (Throwable e) {
+            throw new IllegalStateException("DF_ERROR: 调用 df_reset 失败: " + e.getMessage(), e);
+        }
+        return true;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (dfState.address() != 0) {
+            try {
+                backend.dfFree.invokeExact(dfState);
+            } catch (Throwable e) {
+                throw new IllegalStateException("DF_ERROR: 调用 df_free 失败: " + e.getMessage(), e);
+            } finally {
+                dfState = MemorySegment.NULL;
+                arena.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package source.hanger.vector;
+
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+import org.agrona.DirectBuffer;
+import org.agrona.MutableDirectBuffer;
+import source.hanger.codec.Pcm16Codec;
+import source.hanger.codec.ScalarPcm16Codec;
+
+/**
+ * 基于 {@code jdk.incubator.vector} 的 {@link Pcm16Codec}。
+ * <p>
+ * PCM 字节与 float 样本先批量复制到实例内的暂存数组 (Agrona / NIO 的批量复制即内存拷贝)，
+ * 再按平台首选宽度的 {@link FloatVector} 逐段转换：解码为 byte 向量重解释为 short 后扩宽为 float 并乘以比例；
+ * 编码为乘以比例后用 {@code max}/{@code min} 饱和，再收窄为 short。不足一个向量的尾部逐样本处理。
+ * <p>
+ * 多声道交错数据同样整段向量转换：解码先把交错 PCM 转成交错 float，再按步长拆到各声道平面；
+ * 编码先把各声道平面按步长交错到暂存数组，再整段向量转换。拆分 / 交错只是暂存数组上的标量拷贝。
+ * <p>
+ * 向量的 byte 重解释按小端进行，因此只在小端平台上启用；本类只在构建时编译 {@code src/main/java-vector}
+ * (见 pom.xml 中的 {@code vector} profile)，运行时需要 {@code --add-modules jdk.incubator.vector}，
+ * 由 {@link source.hanger.codec.Pcm16Codecs} 通过反射加载。
+ */
+public final class VectorPcm16Codec implements Pcm16Codec {
+
+    private static final VectorSpecies<Float> FLOAT_SPECIES = FloatVector.SPECIES_PREFERRED;
+    // short 与 byte 向量的位宽为 float 的一半，使三者的 short / float 通道数一致
+    private static final VectorShape HALF_SHAPE = VectorShape.forBitSize(FLOAT_SPECIES.vectorBitSize() / 2);
+    private static final VectorSpecies<Short> SHORT_SPECIES = VectorSpecies.of(short.class, HALF_SHAPE);
+    private static final VectorSpecies<Byte> BYTE_SPECIES = VectorSpecies.of(byte.class, HALF_SHAPE);
+    private static final int INITIAL_SAMPLES = 1024;
+
+    private byte[] pcmScratch = new byte[INITIAL_SAMPLES * 2];
+    private float[] floatScratch = new float[INITIAL_SAMPLES];
+
+    public VectorPcm16Codec() {
+        if (ByteOrder.nativeOrder() != ByteOrder.LITTLE_ENDIAN) {
+            throw new UnsupportedOperationException("向量化 PCM 编解码器仅支持小端平台");
+        }
+    }
+
+    @Override
+    public String name() {
+        return "vector-" + FLOAT_SPECIES.vectorBitSize();
+    }
+
+    @Override
+    public void decode(DirectBuffer src, int srcIndex, FloatBuffer dst, int dstIndex, int samples, float gain) {
+        ensureCapacity(samples);
+        src.getBytes(srcIndex, pcmScratch, 0, samples * 2);
+        decodeScratch(samples, gain / 32768.0f);
+        dst.put(dstIndex, floatScratch, 0, samples);
+    }
+
+    @Override
+    public void encode(FloatBuffer src, int srcIndex, MutableDirectBuffer dst, int dstIndex, int samples, float gain) {
+        ensureCapacity(samples);
+        src.get(srcIndex, floatScratch, 0, samples);
+        encodeScratch(samples, gain * 32768.0f);
+        dst.putBytes(dstIndex, pcmScratch, 0, samples * 2);
+    }
+
+    @Override
+    public void decodeInterleaved(DirectBuffer src, int srcIndex, FloatBuffer dst, int dstIndex, int frames,
+        int channels, float gain) {
+        if (channels == 1) {
+            decode(src, srcIndex, dst, dstIndex, frames, gain);
+            return;
+        }
+        final int samples = frames * channels;
+        ensureCapacity(samples);
+        src.getBytes(srcIndex, pcmScratch, 0, samples * 2);
+        decodeScratch(samples, gain / 32768.0f);
+        final float[] floats = floatScratch;
+        for (int c = 0; c < channels; c++) {
+            final int plane = dstIndex + c * frames;
+            for (int i = 0, j = c; i < frames; i++, j += channels) {
+                dst.put(plane + i, floats[j]);
+            }
+        }
+    }
+
+    @Override
+    public void encodeInterleaved(FloatBuffer src, int srcIndex, MutableDirectBuffer dst, int dstIndex, int frames,
+        int channels, float gain) {
+        if (channels == 1) {
+            encode(src, srcIndex, dst, dstIndex, frames, gain);
+            return;
+        }
+        final int samples = frames * channels;
+        ensureCapacity(samples);
+        final float[] floats = floatScratch;
+        for (int c = 0; c < channels; c++) {
+            final int plane = srcIndex + c * frames;
+            for (int i = 0, j = c; i < frames; i++, j += channels) {
+                floats[j] = src.get(plane + i);
+            }
+        }
+        encodeScratch(samples, gain * 32768.0f);
+        dst.putBytes(dstIndex, pcmScratch, 0, samples * 2);
+    }
+
+    /**
+     * 把 {@code pcmScratch} 中的前 {@code samples} 个小端 PCM16 样本转换到 {@code floatScratch}。
+     */
+    private void decodeScratch(int samples, float scale) {
+        final byte[] pcm = pcmScratch;
+        final float[] floats = floatScratch;
+        final int upperBound = FLOAT_SPECIES.loopBound(samples);
+        int i = 0;
+        for (; i < upperBound; i += FLOAT_SPECIES.length()) {
+            ShortVector shorts = ByteVector.fromArray(BYTE_SPECIES, pcm, i * 2).reinterpretAsShorts();
+            ((FloatVector)shorts.castShape(FLOAT_SPECIES, 0)).mul(scale).intoArray(floats, i);
+        }
+        for (; i < samples; i++) {
+            floats[i] = (short)((pcm[i * 2] & 0xff) | (pcm[i * 2 + 1] << 8)) * scale;
+        }
+    }
+
+    /**
+     * 把 {@code floatScratch} 中的前 {@code samples} 个样本饱和编码到 {@code pcmScratch}。
+     */
+    private void encodeScratch(int samples, float scale) {
+        final byte[] pcm = pcmScratch;
+        final float[] floats = floatScratch;
+        final int upperBound = FLOAT_SPECIES.loopBound(samples);
+        int i = 0;
+        for (; i < upperBound; i += FLOAT_SPECIES.length()) {
+            FloatVector scaled = FloatVector.fromArray(FLOAT_SPECIES, floats, i).mul(scale)
+                .max(-32768.0f).min(32767.0f);
+            ((ShortVector)scaled.castShape(SHORT_SPECIES, 0)).reinterpretAsBytes().intoArray(pcm, i * 2);
+        }
+        for (; i < samples; i++) {
+            short s = ScalarPcm16Codec.saturate(floats[i] * scale);
+            pcm[i * 2] = (byte)s;
+            pcm[i * 2 + 1] = (byte)(s >> 8);
+        }
+    }
+
+    private void ensureCapacity(int samples) {
+        if (floatScratch.length < samples) {
+            floatScratch = new float[samples];
+            pcmScratch = new byte[samples * 2];
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package source.hanger;
+
+import lombok.extern.slf4j.Slf4j;
+import org.agrona.concurrent.AgentRunner;
+import source.hanger.backend.DeepFilterNetStatePools;
+import source.hanger.processor.agent.DeepFilterNetListenerAgent;
+import source.hanger.processor.agent.DeepFilterNetProcessingAgentPool;
+import source.hanger.processor.agent.IdleProfile;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+@Slf4j
+public class DeepFilterNetServiceInitializer {
+
+    private static volatile AgentRunner listenerAgentRunner = null;
+    // 每种空闲策略一个共享处理线程池，首次使用时创建
+    private static final Map<IdleProfile, DeepFilterNetProcessingAgentPool> processingAgentPools =
+        new EnumMap<>(IdleProfile.class);
+    private static final Object lock = new Object();
+
+    private DeepFilterNetServiceInitializer() {
+        // Prevent instantiation
+    }
+
+    /**
+     * 初始化共享服务，监听线程的空闲策略取自系统属性 {@value IdleProfile#LISTENER_PROPERTY}。
+     */
+    public static void initialize() {
+        initialize(IdleProfile.fromSystemProperty(IdleProfile.LISTENER_PROPERTY));
+    }
+
+    /**
+     * 以指定的监听线程空闲策略初始化共享服务。服务已初始化时该参数被忽略。
+     */
+    public static void initialize(IdleProfile listenerIdleProfile) {
+        if (listenerAgentRunner == null) {
+            synchronized (lock) {
+                if (listenerAgentRunner == null) {
+                    log.info("DF_LOG: Initializing DeepFilterNetServiceInitializer.");
+                    listenerAgentRunner = DeepFilterNetListenerAgent.startAgentRunner(listenerIdleProfile);
+                    // 在后台预热配置的状态池，之后建立的处理器直接借用已加载模型的状态
+                    DeepFilterNetStatePools.prewarmConfigured();
+                    // 注册一个 JVM 关闭钩子，确保在应用程序关闭时优雅关闭 AgentRunner
+                    Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                        synchronized (lock) {
+                            closeProcessingAgentPools();
+                        }
+                        if (listenerAgentRunner != null) {
+                            log.info("DF_LOG: Shutting down DeepFilterNetListenerAgent AgentRunner via shutdown hook.");
+                            listenerAgentRunner.close();
+                            // AgentRunner.close() 会尝试优雅关闭，但没有 awaitTermination 方法
+                            // 依赖 DeepFilterNetListenerAgent.onClose() 中停止各流消费线程的逻辑
+                        }
+                    }, "dfnet-listener-agent-shutdown-hook"));
+                    log.info("DF_LOG: DeepFilterNetServiceInitializer initialization complete.");
+                }
+            }
+        }
+    }
+
+    public static void shutdown() {
+        if (listenerAgentRunner != null) {
+            synchronized (lock) {
+                if (listenerAgentRunner != null) {
+                    closeProcessingAgentPools();
+                    DeepFilterNetStatePools.closeAll();
+                    log.info("DF_LOG: Explicitly shutting down DeepFilterNetListenerAgent AgentRunner.");
+                    listenerAgentRunner.close();
+                    listenerAgentRunner = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * 获取默认空闲策略 (系统属性 {@value IdleProfile#PROCESSING_PROPERTY}) 的共享处理代理线程池。
+     *
+     * @throws IllegalStateException 如果服务尚未初始化。
+     */
+    public static DeepFilterNetProcessingAgentPool getProcessingAgentPool() {
+        return getProcessingAgentPool(IdleProfile.fromSystemProperty(IdleProfile.PROCESSING_PROPERTY));
+    }
+
+    /**
+     * 获取指定空闲策略的共享处理代理线程池，首次调用时创建。
+     *
+     * @throws IllegalStateException 如果服务尚未初始化。
+     */
+    public static DeepFilterNetProcessingAgentPool getProcessingAgentPool(IdleProfile idleProfile) {
+        synchronized (lock) {
+            if (listenerAgentRunner == null) {
+                throw new IllegalStateException("DF_ERROR: DeepFilterNetServiceInitializer 尚未初始化。");
+            }
+            return processingAgentPools.computeIfAbsent(idleProfile,
+                profile -> new DeepFilterNetProcessingAgentPool(
+                    DeepFilterNetProcessingAgentPool.defaultWorkerCount(), profile));
+        }
+    }
+
+    private static void closeProcessingAgentPools() {
+        for (DeepFilterNetProcessingAgentPool pool : processingAgentPools.values()) {
+            pool.close();
+        }
+        processingAgentPools.clear();
+    }
+
+    // 提供一个方法来检查 AgentRunner 是否已经初始化，主要用于测试或调试
+    public static boolean isInitialized() {
+        return listenerAgentRunner != null;
+    }
+}
@@ -0,0 +1,100 @@
+package source.hanger.backend;
+
+import java.nio.ByteBuffer;
+
+/**
+ * DeepFilterNet 原生后端，负责创建 {@link DeepFilterNetState}。
+ * <p>
+ * 内置实现有基于 JNA 的 {@code jna} / {@code jna-direct} 后端以及基于 Java FFM API 的 {@code ffm} 后端，
+ * 由 {@link DeepFilterNetBackends} 在运行时选择。
+ */
+public interface DeepFilterNetBackend {
+
+    /**
+     * 后端名称，例如 {@code jna}、{@code jna-direct}、{@code ffm}。
+     */
+    String name();
+
+    /**
+     * 创建一个新的 DeepFilterNet 状态。
+     *
+     * @param modelPath DeepFilterNet tar.gz ONNX 模型路径。
+     * @param attenLim  衰减限制 (dB)。
+     * @param logLevel  原生日志级别，传 {@code null} 禁用原生日志。
+     * @throws IllegalStateException 如果原生状态创建失败。
+     */
+    DeepFilterNetState create(String modelPath, float attenLim, String logLevel);
+
+    /**
+     * 创建一个同时处理 {@code channels} 个声道的状态，见 {@link DeepFilterNetState#channels()}。
+     *
+     * @throws UnsupportedOperationException 如果 {@code channels} 大于 1 而原生库不支持多声道 (旧版 libdf 没有
+     *                                       {@code df_create_ch})。
+     * @throws IllegalStateException         如果原生状态创建失败。
+     */
+    default DeepFilterNetState create(String modelPath, int channels, float attenLim, String logLevel) {
+        if (channels == 1) {
+            return create(modelPath, attenLim, logLevel);
+        }
+        throw new UnsupportedOperationException("DF_ERROR: 后端 " + name() + " 不支持多声道状态");
+    }
+
+    /**
+     * 是否支持 {@link #loadModel(ByteBuffer)}。旧版 libdf 没有 {@code df_model_load} 时返回 {@code false}。
+     */
+    default boolean supportsModelLoading() {
+        return false;
+    }
+
+    /**
+     * 从内存中的模型压缩包加载一个可共享的模型。
+     *
+     * @param modelBytes DeepFilterNet tar.gz ONNX 模型的内容，从 position 读到 limit，最好是直接缓冲区
+     *                   (例如内存映射的模型文件)。只在调用期间读取，返回后即可丢弃。
+     * @throws UnsupportedOperationException 如果 {@link #supportsModelLoading()} 为 {@code false}。
+     * @throws IllegalStateException         如果模型无法解析。
+     */
+    default DeepFilterNetModel loadModel(ByteBuffer modelBytes) {
+        throw new UnsupportedOperationException("DF_ERROR: 后端 " + name() + " 不支持从内存加载模型");
+    }
+
+    /**
+     * 是否支持在一次原生调用中处理多个状态 ({@code df_process_frames})。为 {@code false} 时
+     * {@link #newFrameBatch(int, int)} 返回逐个调用 {@code df_process_frame} 的批次，没有性能收益。
+     */
+    default boolean supportsBatchProcessing() {
+        return false;
+    }
+
+    /**
+     * 创建一个批次，见 {@link DeepFilterNetFrameBatch}。只能加入本后端创建的状态。
+     *
+     * @param maxStates  一次最多处理的状态数。
+     * @param maxSamples 输入输出块的容量 (样本数)，单声道状态每个占用 {@code frameLength} 个样本。
+     */
+    default DeepFilterNetFrameBatch newFrameBatch(int maxStates, int maxSamples) {
+        return new SequentialFrameBatch(maxStates, maxSamples);
+    }
+
+    /**
+     * 以模型文件路径包装的模型：每次 {@link DeepFilterNetModel#createState(float, String)} 都调用
+     * {@link #create(String, int, float, String)} 重新读取并解析模型文件。
+     */
+    default DeepFilterNetModel fileModel(String modelPath) {
+        return new DeepFilterNetModel() {
+            @Override
+            public DeepFilterNetState createState(float attenLim, String logLevel) {
+                return create(modelPath, attenLim, logLevel);
+            }
+
+            @Override
+            public DeepFilterNetState createState(float attenLim, int channels, String logLevel) {
+                return create(modelPath, channels, attenLim, logLevel);
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+}
@@ -0,0 +1,80 @@
+package source.hanger.backend;
+
+import lombok.extern.slf4j.Slf4j;
+import source.hanger.jna.DeepFilterNetLibraryInitializer;
+import source.hanger.jna.JnaDeepFilterNetBackend;
+import source.hanger.jna.NativeBinding;
+
+/**
+ * 在运行时选择 DeepFilterNet 原生后端。
+ * <p>
+ * 默认后端由系统属性 {@value #PROPERTY} 决定，可选值：
+ * <ul>
+ *     <li>{@code jna}：JNA 接口代理映射 (未设置时的默认值，也可由 {@code df.jna.binding} 切换为直接映射)；</li>
+ *     <li>{@code jna-direct}：JNA 直接映射；</li>
+ *     <li>{@code ffm}：Java Foreign Function &amp; Memory API。JDK 21 中该 API 仍为预览特性，
+ *         需要使用 JDK 21 构建并以 {@code --enable-preview --enable-native-access=ALL-UNNAMED} 启动；
+ *         不可用时回退到 {@code jna} 并打印警告。</li>
+ * </ul>
+ * 也可以通过 {@link #setDefault(DeepFilterNetBackend)} 以编程方式替换默认后端，例如在基准测试中使用桩实现。
+ */
+@Slf4j
+public final class DeepFilterNetBackends {
+
+    public static final String PROPERTY = "df.backend";
+    public static final String JNA = "jna";
+    public static final String JNA_DIRECT = "jna-direct";
+    public static final String FFM = "ffm";
+
+    private static final String FFM_BACKEND_CLASS = "source.hanger.ffm.FfmDeepFilterNetBackend";
+
+    private static DeepFilterNetBackend defaultBackend;
+
+    private DeepFilterNetBackends() {
+    }
+
+    /**
+     * 获取默认后端，首次调用时根据系统属性 {@value #PROPERTY} 创建。
+     */
+    public static synchronized DeepFilterNetBackend getDefault() {
+        if (defaultBackend == null) {
+            String name = System.getProperty(PROPERTY);
+            defaultBackend = get(name == null || name.isBlank() ? JNA : name.trim());
+            log.info("DF_LOG: 使用 DeepFilterNet 原生后端: {}", defaultBackend.name());
+        }
+        return defaultBackend;
+    }
+
+    /**
+     * 替换默认后端，之后创建的处理器都会使用该后端。
+     */
+    public static synchronized void setDefault(DeepFilterNetBackend backend) {
+        defaultBackend = backend;
+    }
+
+    /**
+     * 按名称获取后端。
+     *
+     * @throws IllegalArgumentException 如果名称未知。
+     */
+    public static DeepFilterNetBackend get(String name) {
+        return switch (name) {
+            case JNA -> new JnaDeepFilterNetBackend(JNA,
+                DeepFilterNetLibraryInitializer.getNativeLibraryInstance(NativeBinding.fromSystemProperty()));
+            case JNA_DIRECT -> new JnaDeepFilterNetBackend(JNA_DIRECT,
+                DeepFilterNetLibraryInitializer.getNativeLibraryInstance(NativeBinding.DIRECT));
+            case FFM -> loadFfmBackend();
+            default -> throw new IllegalArgumentException("未知的 DeepFilterNet 后端: " + name);
+        };
+    }
+
+    private static DeepFilterNetBackend loadFfmBackend() {
+        try {
+            return (DeepFilterNetBackend)Class.forName(FFM_BACKEND_CLASS).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            // ClassNotFoundException: 未使用 JDK 21 构建；UnsupportedClassVersionError: 未以 --enable-preview 启动
+            log.warn("DF_WARN: FFM 后端不可用 ({}: {})，回退到 JNA 后端。", e.getClass().getSimpleName(), e.getMessage());
+            return get(JNA);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package source.hanger.backend;
+
+import java.nio.FloatBuffer;
+
+/**
+ * 一次原生调用 ({@code df_process_frames}) 为多个独立状态各处理一帧的批次，用于在同一个工作线程上运行大量流时
+ * 摊薄每帧一次的 FFI 调用开销，并让各流的帧位于同一块连续内存中。
+ * <p>
+ * 用法：{@link #clear()} 后对每个状态调用 {@link #add(DeepFilterNetState)}，把该状态的
+ * {@link DeepFilterNetState#channels()} × {@link DeepFilterNetState#frameLength()} 个样本写入
+ * {@link #inputFrames()} 中返回的偏移处；{@link #process()} 之后从 {@link #outputFrames()} 的同一偏移读取结果。
+ * 各状态的循环网络状态互相独立，原生侧仍逐个推理，节省的是调用与封送的开销。
+ * <p>
+ * 实例不是线程安全的，批次中的状态在 {@link #process()} 期间不能被其他线程使用。
+ */
+public interface DeepFilterNetFrameBatch extends AutoCloseable {
+
+    /**
+     * 一个批次最多包含的状态数。
+     */
+    int maxStates();
+
+    /**
+     * 输入输出块的容量 (样本数)。
+     */
+    int maxSamples();
+
+    /**
+     * 当前批次中的状态数。
+     */
+    int size();
+
+    /**
+     * 输入块，容量为 {@link #maxSamples()}，使用绝对索引读写。
+     */
+    FloatBuffer inputFrames();
+
+    /**
+     * 输出块，布局与 {@link #inputFrames()} 相同。
+     */
+    FloatBuffer outputFrames();
+
+    /**
+     * 把状态加入批次。
+     *
+     * @return 该状态的帧在输入输出块中的起始样本下标；批次已满 (状态数或样本数) 时返回 -1。
+     * @throws IllegalArgumentException 如果状态不是由本批次所属的后端创建的。
+     */
+    int add(DeepFilterNetState state);
+
+    /**
+     * 处理批次中所有状态的一帧。批次内容保持不变，直到 {@link #clear()}。
+     */
+    void process();
+
+    /**
+     * 最近一次 {@link #process()} 中第 {@code index} 个状态 (按加入顺序) 的局部信噪比。
+     */
+    float lsnr(int index);
+
+    /**
+     * 清空批次，不释放内存。
+     */
+    void clear();
+
+    /**
+     * 释放输入输出块，不释放批次中的状态。
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,41 @@
+package source.hanger.backend;
+
+/**
+ * 已加载的 DeepFilterNet 模型，可以被任意多个 {@link DeepFilterNetState} 共享。
+ * <p>
+ * 通过 {@link DeepFilterNetBackend#loadModel(java.nio.ByteBuffer)} 从内存加载时，模型压缩包只解压一次、
+ * 计算图只优化一次，{@link #createState(float, String)} 只复制已构建好的运行时；
+ * 后端不支持时由 {@link DeepFilterNetBackend#fileModel(String)} 退化为每次从模型文件创建。
+ * <p>
+ * 创建出的状态不依赖模型，模型关闭后仍可继续使用。
+ */
+public interface DeepFilterNetModel extends AutoCloseable {
+
+    /**
+     * 创建一个新的 DeepFilterNet 状态。
+     *
+     * @param attenLim 衰减限制 (dB)。
+     * @param logLevel 原生日志级别，传 {@code null} 禁用原生日志。
+     * @throws IllegalStateException 如果原生状态创建失败或模型已关闭。
+     */
+    DeepFilterNetState createState(float attenLim, String logLevel);
+
+    /**
+     * 创建一个同时处理 {@code channels} 个声道的状态，见 {@link DeepFilterNetState#channels()}。
+     *
+     * @throws UnsupportedOperationException 如果 {@code channels} 大于 1 而原生库不支持多声道。
+     * @throws IllegalStateException         如果原生状态创建失败或模型已关闭。
+     */
+    default DeepFilterNetState createState(float attenLim, int channels, String logLevel) {
+        if (channels == 1) {
+            return createState(attenLim, logLevel);
+        }
+        throw new UnsupportedOperationException("DF_ERROR: 当前后端不支持多声道状态");
+    }
+
+    /**
+     * 释放模型占用的原生内存。重复调用无副作用。
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,77 @@
+package source.hanger.backend;
+
+import java.nio.FloatBuffer;
+
+/**
+ * 一个 DeepFilterNet 原生状态 ({@code DFState}) 及其输入输出帧缓冲区。
+ * <p>
+ * 输入输出帧位于堆外内存，由具体后端分配并在 {@link #close()} 时释放。调用方把样本写入 {@link #inputFrame()}，
+ * 调用 {@link #processFrame()} 后从 {@link #outputFrame()} 读取结果，整个过程没有数组封送。
+ * <p>
+ * 同一状态在任一时刻只能被一个线程使用；不同线程之间的交接需要由调用方保证 happens-before 关系。
+ */
+public interface DeepFilterNetState extends AutoCloseable {
+
+    /**
+     * 每帧的样本数 (hop size)。
+     */
+    int frameLength();
+
+    /**
+     * 一次处理的声道数。多声道状态只有一份模型运行时，各声道共享同一次推理调用。
+     */
+    default int channels() {
+        return 1;
+    }
+
+    /**
+     * 输入帧缓冲区，容量为 {@link #channels()} × {@link #frameLength()}，各声道依次排列 (planar)，使用绝对索引读写。
+     */
+    FloatBuffer inputFrame();
+
+    /**
+     * 输出帧缓冲区，布局与 {@link #inputFrame()} 相同。
+     */
+    FloatBuffer outputFrame();
+
+    /**
+     * 处理 {@link #inputFrame()} 中的一帧，结果写入 {@link #outputFrame()}。
+     *
+     * @return 当前帧的局部信噪比 (local SNR)。
+     */
+    float processFrame();
+
+    /**
+     * 设置衰减限制 (dB)。
+     */
+    void setAttenLim(float limDb);
+
+    /**
+     * 设置后置滤波器 beta，0 表示关闭后置滤波器。
+     */
+    void setPostFilterBeta(float beta);
+
+    /**
+     * 把状态恢复为刚创建时的样子：清空网络的循环状态和滚动频谱缓冲区，衰减限制与后置滤波器恢复为创建时的参数，
+     * 不重新加载模型。之后的输出与一个新建的状态完全一致，因此可以把状态交给另一条不相关的音频流继续使用。
+     *
+     * @return {@code false} 如果原生库不支持重置 (旧版 libdf 没有 {@code df_reset})，此时状态未被修改。
+     */
+    default boolean reset() {
+        return false;
+    }
+
+    /**
+     * 被包装的状态 (例如状态池借出的状态) 返回其底层的后端状态，否则返回自身。供
+     * {@link DeepFilterNetFrameBatch} 取得原生句柄，调用方不应绕过包装直接关闭返回值。
+     */
+    default DeepFilterNetState unwrap() {
+        return this;
+    }
+
+    /**
+     * 释放原生状态以及输入输出缓冲区。重复调用无副作用。
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,263 @@
+package source.hanger.backend;
+
+import java.nio.FloatBuffer;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 使用同一模型与衰减限制的 {@link DeepFilterNetState} 池，复用已创建的原生状态，避免每次都创建新状态
+ * (从文件创建需要解析模型压缩包、构建 tract 计算图，耗时数百毫秒)。
+ * <p>
+ * {@link #acquire()} 借出一个状态，调用方用完后直接调用其 {@link DeepFilterNetState#close()}：状态经
+ * {@link DeepFilterNetState#reset()} 恢复为新建时的样子后回到池中，池中已有 {@code capacity} 个空闲状态时才真正释放。
+ * 原生库不支持重置时归还的状态会被释放，因此借出的状态总是与新建的状态行为一致。
+ * <p>
+ * 没有空闲状态时 {@link #acquire()} 当场创建新状态而不阻塞，同时借出的状态数不受 {@code capacity} 限制。
+ * 指定了补充线程时，每次空闲状态被取走或被丢弃后在后台创建新状态补足 {@code capacity}，
+ * 使下一次 {@link #acquire()} 仍然能拿到预热好的状态。
+ */
+@Slf4j
+public final class DeepFilterNetStatePool implements AutoCloseable {
+
+    private static final AtomicBoolean resetUnsupportedLogged = new AtomicBoolean(false);
+
+    private final DeepFilterNetModel model;
+    private final float attenLim;
+    private final int channels;
+    private final int capacity;
+    private final Executor refillExecutor;
+    private final LinkedBlockingQueue<DeepFilterNetState> idle;
+    private final AtomicInteger pendingRefills = new AtomicInteger();
+    private final AtomicInteger created = new AtomicInteger();
+    private volatile boolean closed;
+
+    /**
+     * 不在后台补充空闲状态的池。
+     */
+    public DeepFilterNetStatePool(DeepFilterNetModel model, float attenLim, int capacity) {
+        this(model, attenLim, capacity, null);
+    }
+
+    /**
+     * @param capacity       保留的空闲状态数上限，也是 {@link #prewarm()} 和后台补充的目标数量。
+     * @param refillExecutor 在后台创建状态补足空闲数的线程；为 {@code null} 时不补充。
+     */
+    public DeepFilterNetStatePool(DeepFilterNetModel model, float attenLim, int capacity, Executor refillExecutor) {
+        this(model, attenLim, 1, capacity, refillExecutor);
+    }
+
+    /**
+     * @param channels 每个状态处理的声道数，见 {@link DeepFilterNetModel#createState(float, int, String)}。
+     */
+    public DeepFilterNetStatePool(DeepFilterNetModel model, float attenLim, int channels, int capacity,
+        Executor refillExecutor) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("DF_ERROR: 状态池容量必须为正数: " + capacity);
+        }
+        if (channels < 1) {
+            throw new IllegalArgumentException("DF_ERROR: 声道数必须为正数: " + channels);
+        }
+        this.model = model;
+        this.attenLim = attenLim;
+        this.channels = channels;
+        this.capacity = capacity;
+        this.refillExecutor = refillExecutor;
+        this.idle = new LinkedBlockingQueue<>(capacity);
+    }
+
+    /**
+     * 借出一个状态；没有空闲状态时在调用线程上创建。用完后调用返回值的 {@link DeepFilterNetState#close()} 归还。
+     *
+     * @throws IllegalStateException 如果池已关闭或创建原生状态失败。
+     */
+    public DeepFilterNetState acquire() {
+        if (closed) {
+            throw new IllegalStateException("DF_ERROR: 状态池已关闭");
+        }
+        DeepFilterNetState state = idle.poll();
+        if (state == null) {
+            log.info("DF_LOG: 状态池 (attenLim={}) 没有空闲状态，同步创建 DeepFilterNet 状态。", attenLim);
+            state = create();
+        }
+        scheduleRefill();
+        return new PooledState(state);
+    }
+
+    /**
+     * 在调用线程上创建状态，直到空闲状态数达到 {@code capacity}。
+     */
+    public void prewarm() {
+        while (!closed && idle.size() < capacity) {
+            if (!offerIdle(create())) {
+                return;
+            }
+        }
+        log.info("DF_LOG: 状态池 (attenLim={}) 预热完成，空闲状态 {} 个。", attenLim, idle.size());
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * 当前空闲的状态数。
+     */
+    public int idleCount() {
+        return idle.size();
+    }
+
+    /**
+     * 池创建过的原生状态总数 (包括已释放的)。
+     */
+    public int created() {
+        return created.get();
+    }
+
+    /**
+     * 关闭池并释放所有空闲的原生状态。仍被借出的状态在归还时释放。
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        DeepFilterNetState state;
+        while ((state = idle.poll()) != null) {
+            state.close();
+        }
+    }
+
+    private DeepFilterNetState create() {
+        DeepFilterNetState state = model.createState(attenLim, channels, null);
+        created.incrementAndGet();
+        return state;
+    }
+
+    /**
+     * 放入空闲队列；池已关闭或已满时释放该状态。
+     */
+    private boolean offerIdle(DeepFilterNetState state) {
+        synchronized (this) {
+            // 与 close() 互斥，避免关闭后放入的状态无人释放
+            if (!closed && idle.offer(state)) {
+                return true;
+            }
+        }
+        state.close();
+        return false;
+    }
+
+    private void release(DeepFilterNetState state) {
+        boolean reusable;
+        try {
+            reusable = state.reset();
+        } catch (RuntimeException e) {
+            log.warn("DF_WARN: 重置 DeepFilterNet 状态失败，丢弃该状态: {}", e.getMessage(), e);
+            reusable = false;
+        }
+        if (!reusable) {
+            if (resetUnsupportedLogged.compareAndSet(false, true)) {
+                log.warn("DF_WARN: 当前 libdf 不支持 df_reset，归还的状态将被释放，状态池只能提供预热的新状态。");
+            }
+            state.close();
+            scheduleRefill();
+            return;
+        }
+        offerIdle(state);
+    }
+
+    private void scheduleRefill() {
+        if (refillExecutor == null || closed || idle.size() + pendingRefills.get() >= capacity) {
+            return;
+        }
+        pendingRefills.incrementAndGet();
+        try {
+            refillExecutor.execute(() -> {
+                try {
+                    if (!closed && idle.size() < capacity) {
+                        offerIdle(create());
+                    }
+                } catch (RuntimeException e) {
+                    log.warn("DF_WARN: 后台补充 DeepFilterNet 状态失败: {}", e.getMessage(), e);
+                } finally {
+                    pendingRefills.decrementAndGet();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pendingRefills.decrementAndGet();
+        }
+    }
+
+    /**
+     * 借出的状态：委托给池中的原生状态，{@link #close()} 时归还而不是释放。
+     */
+    private final class PooledState implements DeepFilterNetState {
+
+        private final DeepFilterNetState state;
+        private final AtomicBoolean returned = new AtomicBoolean(false);
+
+        PooledState(DeepFilterNetState state) {
+            this.state = state;
+        }
+
+        @Override
+        public int frameLength() {
+            return state.frameLength();
+        }
+
+        @Override
+        public int channels() {
+            return state.channels();
+        }
+
+        @Override
+        public FloatBuffer inputFrame() {
+            return state.inputFrame();
+        }
+
+        @Override
+        public FloatBuffer outputFrame() {
+            return state.outputFrame();
+        }
+
+        @Override
+        public float processFrame() {
+            return state.processFrame();
+        }
+
+        @Override
+        public void setAttenLim(float limDb) {
+            state.setAttenLim(limDb);
+        }
+
+        @Override
+        public void setPostFilterBeta(float beta) {
+            state.setPostFilterBeta(beta);
+        }
+
+        @Override
+        public boolean reset() {
+            return state.reset();
+        }
+
+        @Override
+        public DeepFilterNetState unwrap() {
+            return state.unwrap();
+        }
+
+        @Override
+        public void close() {
+            if (returned.compareAndSet(false, true)) {
+                release(state);
+            }
+        }
+    }
+}
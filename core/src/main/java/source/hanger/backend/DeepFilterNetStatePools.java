@@ -0,0 +1,169 @@
+package source.hanger.backend;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import lombok.extern.slf4j.Slf4j;
+import source.hanger.model.DeepFilterNetModelManager;
+import source.hanger.model.DeepFilterNetModelRegistry;
+
+/**
+ * 按 (模型, 衰减限制, 声道数) 划分的共享 {@link DeepFilterNetStatePool}，供流式处理器和文件处理器在建立时直接借用
+ * 预热好的原生状态，把创建状态的耗时从建立路径上移走。
+ * <p>
+ * 系统属性：
+ * <ul>
+ *     <li>{@value #SIZE_PROPERTY}：每个键保留的空闲状态数，默认 2；为 0 时关闭状态池，每次都直接创建状态；</li>
+ *     <li>{@value #PREWARM_PROPERTY}：逗号分隔的衰减限制列表，例如 {@code 100,30}。
+ *         {@link source.hanger.DeepFilterNetServiceInitializer#initialize()} 时在后台为默认后端的共享模型预热这些池；
+ *         未列出的衰减限制在首次使用后同样会在后台补足空闲状态。</li>
+ * </ul>
+ */
+@Slf4j
+public final class DeepFilterNetStatePools {
+
+    public static final String SIZE_PROPERTY = "df.state.pool.size";
+    public static final String PREWARM_PROPERTY = "df.state.pool.prewarm";
+
+    private static final int SIZE = Math.max(0, Integer.getInteger(SIZE_PROPERTY, 2));
+
+    private static final ConcurrentHashMap<Key, DeepFilterNetStatePool> pools = new ConcurrentHashMap<>();
+    // 预热与补充共用一个后台线程，模型加载是 CPU 密集的，不与处理线程争抢更多核
+    private static final ExecutorService refillExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "dfnet-state-pool-refill");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private DeepFilterNetStatePools() {
+    }
+
+    /**
+     * 每个键保留的空闲状态数，0 表示状态池已关闭。
+     */
+    public static int size() {
+        return SIZE;
+    }
+
+    /**
+     * 从默认后端的共享模型借出一个状态，用完后调用其 {@link DeepFilterNetState#close()} 归还。
+     */
+    public static DeepFilterNetState acquire(float attenLim) {
+        return acquire(DeepFilterNetModelManager.getModel(DeepFilterNetBackends.getDefault()), attenLim);
+    }
+
+    /**
+     * 从默认后端上的命名模型 (见 {@link DeepFilterNetModelRegistry}) 借出一个状态，用完后调用其
+     * {@link DeepFilterNetState#close()} 归还。
+     */
+    public static DeepFilterNetState acquire(String modelName, float attenLim) {
+        return acquire(DeepFilterNetModelRegistry.getModel(modelName), attenLim, 1);
+    }
+
+    /**
+     * 从默认后端上的命名模型借出一个处理 {@code channels} 个声道的状态。
+     *
+     * @throws UnsupportedOperationException 如果 {@code channels > 1} 而当前 libdf 不支持多声道。
+     */
+    public static DeepFilterNetState acquire(String modelName, float attenLim, int channels) {
+        return acquire(DeepFilterNetModelRegistry.getModel(modelName), attenLim, channels);
+    }
+
+    /**
+     * 借出一个状态，用完后调用其 {@link DeepFilterNetState#close()} 归还。
+     *
+     * @throws IllegalStateException 如果创建原生状态失败。
+     */
+    public static DeepFilterNetState acquire(DeepFilterNetModel model, float attenLim) {
+        return acquire(model, attenLim, 1);
+    }
+
+    /**
+     * 借出一个处理 {@code channels} 个声道的状态，用完后调用其 {@link DeepFilterNetState#close()} 归还。
+     *
+     * @throws IllegalStateException         如果创建原生状态失败。
+     * @throws UnsupportedOperationException 如果 {@code channels > 1} 而当前 libdf 不支持多声道。
+     */
+    public static DeepFilterNetState acquire(DeepFilterNetModel model, float attenLim, int channels) {
+        if (SIZE == 0) {
+            return model.createState(attenLim, channels, null);
+        }
+        return pool(model, attenLim, channels).acquire();
+    }
+
+    /**
+     * 在后台为默认后端的共享模型预热指定衰减限制的状态池。首次预热同时在后台加载模型。
+     */
+    public static void prewarm(float... attenLims) {
+        if (SIZE == 0 || attenLims.length == 0) {
+            return;
+        }
+        refillExecutor.execute(() -> {
+            try {
+                DeepFilterNetModel model = DeepFilterNetModelManager.getModel(DeepFilterNetBackends.getDefault());
+                for (float attenLim : attenLims) {
+                    pool(model, attenLim, 1).prewarm();
+                }
+            } catch (RuntimeException e) {
+                log.warn("DF_WARN: 预热 DeepFilterNet 状态池失败: {}", e.getMessage(), e);
+            }
+        });
+    }
+
+    /**
+     * 按系统属性 {@value #PREWARM_PROPERTY} 在后台预热状态池。
+     */
+    public static void prewarmConfigured() {
+        String value = System.getProperty(PREWARM_PROPERTY);
+        if (value == null || value.isBlank()) {
+            return;
+        }
+        String[] items = value.split(",");
+        float[] attenLims = new float[items.length];
+        for (int i = 0; i < items.length; i++) {
+            try {
+                attenLims[i] = Float.parseFloat(items[i].trim());
+            } catch (NumberFormatException e) {
+                log.warn("DF_WARN: 无法解析 {}={}，跳过状态池预热。", PREWARM_PROPERTY, value);
+                return;
+            }
+        }
+        log.info("DF_LOG: 后台预热 DeepFilterNet 状态池: attenLim={}，每个 {} 个状态。", value, SIZE);
+        prewarm(attenLims);
+    }
+
+    /**
+     * 关闭并移除某个模型的所有状态池，用于模型被新版本替换时。
+     */
+    public static void closeModel(DeepFilterNetModel model) {
+        for (Key key : pools.keySet()) {
+            if (key.model() == model) {
+                DeepFilterNetStatePool pool = pools.remove(key);
+                if (pool != null) {
+                    pool.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * 关闭并移除所有状态池，释放空闲的原生状态；仍被借出的状态在归还时释放。
+     */
+    public static void closeAll() {
+        for (Key key : pools.keySet()) {
+            DeepFilterNetStatePool pool = pools.remove(key);
+            if (pool != null) {
+                pool.close();
+            }
+        }
+    }
+
+    private static DeepFilterNetStatePool pool(DeepFilterNetModel model, float attenLim, int channels) {
+        return pools.computeIfAbsent(new Key(model, attenLim, channels),
+            key -> new DeepFilterNetStatePool(model, attenLim, channels, SIZE, refillExecutor));
+    }
+
+    private record Key(DeepFilterNetModel model, float attenLim, int channels) {
+    }
+}
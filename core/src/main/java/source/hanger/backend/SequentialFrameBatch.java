@@ -0,0 +1,98 @@
+package source.hanger.backend;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+
+/**
+ * 不支持 {@code df_process_frames} 的后端使用的批次：逐个复制到各状态自己的缓冲区并调用
+ * {@link DeepFilterNetState#processFrame()}，行为与原生批次一致但没有性能收益。
+ */
+final class SequentialFrameBatch implements DeepFilterNetFrameBatch {
+
+    private final DeepFilterNetState[] states;
+    private final int[] offsets;
+    private final float[] lsnr;
+    private final FloatBuffer inputFrames;
+    private final FloatBuffer outputFrames;
+    private int size;
+    private int usedSamples;
+
+    SequentialFrameBatch(int maxStates, int maxSamples) {
+        this.states = new DeepFilterNetState[maxStates];
+        this.offsets = new int[maxStates];
+        this.lsnr = new float[maxStates];
+        this.inputFrames = ByteBuffer.allocateDirect(maxSamples * Float.BYTES).order(ByteOrder.nativeOrder())
+            .asFloatBuffer();
+        this.outputFrames = ByteBuffer.allocateDirect(maxSamples * Float.BYTES).order(ByteOrder.nativeOrder())
+            .asFloatBuffer();
+    }
+
+    @Override
+    public int maxStates() {
+        return states.length;
+    }
+
+    @Override
+    public int maxSamples() {
+        return inputFrames.capacity();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public FloatBuffer inputFrames() {
+        return inputFrames;
+    }
+
+    @Override
+    public FloatBuffer outputFrames() {
+        return outputFrames;
+    }
+
+    @Override
+    public int add(DeepFilterNetState state) {
+        final int samples = state.channels() * state.frameLength();
+        if (size == states.length || usedSamples + samples > inputFrames.capacity()) {
+            return -1;
+        }
+        final int offset = usedSamples;
+        states[size] = state;
+        offsets[size] = offset;
+        size++;
+        usedSamples += samples;
+        return offset;
+    }
+
+    @Override
+    public void process() {
+        for (int i = 0; i < size; i++) {
+            final DeepFilterNetState state = states[i];
+            final int samples = state.channels() * state.frameLength();
+            state.inputFrame().put(0, inputFrames, offsets[i], samples);
+            lsnr[i] = state.processFrame();
+            outputFrames.put(offsets[i], state.outputFrame(), 0, samples);
+        }
+    }
+
+    @Override
+    public float lsnr(int index) {
+        return lsnr[index];
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(states, 0, size, null);
+        size = 0;
+        usedSamples = 0;
+    }
+
+    @Override
+    public void close() {
+        clear();
+    }
+}
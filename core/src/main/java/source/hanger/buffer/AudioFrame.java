@@ -0,0 +1,161 @@
+package source.hanger.buffer;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+import org.agrona.concurrent.UnsafeBuffer;
+
+/**
+ * 引用计数的音频帧缓冲区，内存来自 {@link AudioFramePool} 的固定大小 slab 中的一段。
+ * <p>
+ * 帧从池中取出时引用计数为 1，由处理管线持有；监听回调结束后管线会调用 {@link #release()}。
+ * 消费者如需在回调之后继续持有帧（例如异步写文件或网络发送），应在回调内调用 {@link #retain()}，
+ * 用完后再调用 {@link #release()}，这样无需复制数据。引用计数归零时帧会回到所属池的空闲列表。
+ */
+public final class AudioFrame {
+
+    private static final AtomicIntegerFieldUpdater<AudioFrame> REF_COUNT_UPDATER =
+        AtomicIntegerFieldUpdater.newUpdater(AudioFrame.class, "refCount");
+
+    private final AudioFramePool pool; // 为 null 表示池耗尽时临时分配的帧，释放后交给 GC
+    private final UnsafeBuffer buffer;
+    private final ByteBuffer byteBufferView;
+    private final byte[] array;
+    private final int arrayOffset;
+    private final int capacity;
+    private int length;
+    private long ingestNanos;
+    private long enqueueNanos;
+    private volatile int refCount;
+
+    AudioFrame(AudioFramePool pool, byte[] slab, int offset, int capacity) {
+        this.pool = pool;
+        this.buffer = new UnsafeBuffer(slab, offset, capacity);
+        this.byteBufferView = ByteBuffer.wrap(slab, offset, capacity).slice();
+        this.array = slab;
+        this.arrayOffset = offset;
+        this.capacity = capacity;
+    }
+
+    AudioFrame(AudioFramePool pool, ByteBuffer directSlab, int offset, int capacity) {
+        this.pool = pool;
+        this.buffer = new UnsafeBuffer(directSlab, offset, capacity);
+        this.byteBufferView = directSlab.slice(offset, capacity);
+        this.array = null;
+        this.arrayOffset = 0;
+        this.capacity = capacity;
+    }
+
+    /**
+     * 帧数据的 Agrona 视图，索引从 0 开始，有效数据长度为 {@link #length()}。
+     */
+    public UnsafeBuffer buffer() {
+        return buffer;
+    }
+
+    /**
+     * 返回帧数据的 {@link ByteBuffer} 视图，position 为 0，limit 为 {@link #length()}。
+     * 视图对象在帧内复用，调用方不应跨线程共享其 position/limit。
+     */
+    public ByteBuffer byteBuffer() {
+        byteBufferView.limit(length).position(0);
+        return byteBufferView;
+    }
+
+    /**
+     * 是否由堆内存 slab 支撑。为 true 时可通过 {@link #array()} 和 {@link #arrayOffset()} 零拷贝访问数据。
+     */
+    public boolean hasArray() {
+        return array != null;
+    }
+
+    public byte[] array() {
+        return array;
+    }
+
+    public int arrayOffset() {
+        return arrayOffset;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    public void length(int length) {
+        if (length < 0 || length > capacity) {
+            throw new IllegalArgumentException("帧长度越界: " + length + ", capacity=" + capacity);
+        }
+        this.length = length;
+    }
+
+    /**
+     * 构成该帧的输入进入管线 ({@code processAudioFrame}) 的时刻，{@link System#nanoTime()} 时基，用于端到端延迟统计。
+     */
+    public long ingestNanos() {
+        return ingestNanos;
+    }
+
+    public void ingestNanos(long ingestNanos) {
+        this.ingestNanos = ingestNanos;
+    }
+
+    /**
+     * 该帧放入监听队列的时刻，{@link System#nanoTime()} 时基，用于监听分发延迟统计。
+     */
+    public long enqueueNanos() {
+        return enqueueNanos;
+    }
+
+    public void enqueueNanos(long enqueueNanos) {
+        this.enqueueNanos = enqueueNanos;
+    }
+
+    public int refCount() {
+        return refCount;
+    }
+
+    /**
+     * 增加一次引用，使帧在当前持有者释放后仍然有效。
+     *
+     * @return 当前帧，便于链式调用。
+     * @throws IllegalStateException 如果帧已经被释放回池中。
+     */
+    public AudioFrame retain() {
+        int current;
+        do {
+            current = refCount;
+            if (current <= 0) {
+                throw new IllegalStateException("AudioFrame 已被释放，无法 retain。");
+            }
+        } while (!REF_COUNT_UPDATER.compareAndSet(this, current, current + 1));
+        return this;
+    }
+
+    /**
+     * 释放一次引用。引用计数归零时帧被归还到所属池。
+     *
+     * @throws IllegalStateException 如果释放次数多于引用次数。
+     */
+    public void release() {
+        int remaining = REF_COUNT_UPDATER.decrementAndGet(this);
+        if (remaining == 0) {
+            if (pool != null) {
+                pool.recycle(this);
+            }
+        } else if (remaining < 0) {
+            REF_COUNT_UPDATER.incrementAndGet(this);
+            throw new IllegalStateException("AudioFrame 被重复释放。");
+        }
+    }
+
+    void onAcquire() {
+        length = 0;
+        ingestNanos = 0;
+        enqueueNanos = 0;
+        refCount = 1;
+    }
+}
@@ -0,0 +1,105 @@
+package source.hanger.buffer;
+
+import java.nio.ByteBuffer;
+
+import lombok.extern.slf4j.Slf4j;
+import org.agrona.concurrent.ManyToOneConcurrentArrayQueue;
+
+/**
+ * 每个处理器独享的固定大小帧缓冲池。
+ * <p>
+ * 所有帧在构造时从一块连续的 slab（堆内 {@code byte[]} 或堆外 direct {@link ByteBuffer}）中切分出来，
+ * 空闲帧保存在无锁空闲列表中。{@link #acquire()} 只能由单一线程（处理代理）调用，
+ * {@link AudioFrame#release()} 可以在任意线程调用。稳态下取帧与归还都不会产生任何分配。
+ * <p>
+ * 当消费者持有的帧过多导致空闲列表耗尽时，池会临时分配一个不受池管理的帧以保证管线不停顿，
+ * 该帧释放后交给 GC；可通过 {@link #overflowAllocations()} 观察这种情况，并据此调大池容量。
+ */
+@Slf4j
+public final class AudioFramePool {
+
+    private final int frameCapacity;
+    private final int frameCount;
+    private final boolean direct;
+    private final ManyToOneConcurrentArrayQueue<AudioFrame> freeList;
+    private long overflowAllocations;
+
+    /**
+     * @param frameCapacity 每帧的字节容量。
+     * @param frameCount    池中帧的数量。
+     * @param direct        为 true 时使用堆外 slab，否则使用堆内 {@code byte[]} slab。
+     */
+    public AudioFramePool(int frameCapacity, int frameCount, boolean direct) {
+        if (frameCapacity <= 0 || frameCount <= 0) {
+            throw new IllegalArgumentException(
+                "frameCapacity 和 frameCount 必须为正数: " + frameCapacity + ", " + frameCount);
+        }
+        this.frameCapacity = frameCapacity;
+        this.frameCount = frameCount;
+        this.direct = direct;
+        this.freeList = new ManyToOneConcurrentArrayQueue<>(frameCount);
+
+        final int slabCapacity = Math.multiplyExact(frameCapacity, frameCount);
+        if (direct) {
+            ByteBuffer slab = ByteBuffer.allocateDirect(slabCapacity);
+            for (int i = 0; i < frameCount; i++) {
+                freeList.offer(new AudioFrame(this, slab, i * frameCapacity, frameCapacity));
+            }
+        } else {
+            byte[] slab = new byte[slabCapacity];
+            for (int i = 0; i < frameCount; i++) {
+                freeList.offer(new AudioFrame(this, slab, i * frameCapacity, frameCapacity));
+            }
+        }
+    }
+
+    /**
+     * 取出一个空闲帧，引用计数为 1，长度为 0。只能由单一消费者线程调用。
+     */
+    public AudioFrame acquire() {
+        AudioFrame frame = freeList.poll();
+        if (frame == null) {
+            if (overflowAllocations++ == 0) {
+                log.warn("DF_WARN: AudioFramePool 已耗尽 (frameCount={})，开始临时分配帧。请检查消费者是否及时释放帧。",
+                    frameCount);
+            }
+            frame = direct
+                ? new AudioFrame(null, ByteBuffer.allocateDirect(frameCapacity), 0, frameCapacity)
+                : new AudioFrame(null, new byte[frameCapacity], 0, frameCapacity);
+        }
+        frame.onAcquire();
+        return frame;
+    }
+
+    void recycle(AudioFrame frame) {
+        if (!freeList.offer(frame)) {
+            log.warn("DF_WARN: AudioFramePool 空闲列表已满，丢弃归还的帧。");
+        }
+    }
+
+    public int frameCapacity() {
+        return frameCapacity;
+    }
+
+    public int frameCount() {
+        return frameCount;
+    }
+
+    public boolean isDirect() {
+        return direct;
+    }
+
+    /**
+     * 当前空闲帧数量（近似值）。
+     */
+    public int available() {
+        return freeList.size();
+    }
+
+    /**
+     * 池耗尽时临时分配的帧数量，仅由调用 {@link #acquire()} 的线程更新。
+     */
+    public long overflowAllocations() {
+        return overflowAllocations;
+    }
+}
@@ -0,0 +1,93 @@
+package source.hanger.codec;
+
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+
+import org.agrona.DirectBuffer;
+import org.agrona.MutableDirectBuffer;
+
+/**
+ * 16 bit 有符号小端 PCM 与 float 样本之间的转换。
+ * <p>
+ * float 一侧以 {@code [-1.0, 1.0)} 表示满量程，即 {@code float = short / 32768 * gain}；
+ * 编码时先乘以增益，超出 16 bit 范围的样本饱和到 {@code -32768} / {@code 32767}，不会溢出回绕。
+ * <p>
+ * 实现可能持有内部暂存区，因此实例不是线程安全的，每个处理线程 / 处理代理应通过 {@link Pcm16Codecs#create()} 各自创建。
+ * 稳态下各方法都不产生分配。
+ * <p>
+ * 多声道 PCM 按帧交错排列 (L R L R ...)，而原生状态的缓冲区按声道平面排列 (先整帧 L，再整帧 R)，
+ * {@link #decodeInterleaved} / {@link #encodeInterleaved} 在两种布局之间转换。
+ */
+public interface Pcm16Codec {
+
+    /**
+     * 实现名称，用于日志。
+     */
+    String name();
+
+    /**
+     * 把 {@code samples} 个 PCM16 样本解码为 float。
+     *
+     * @param src      PCM 数据，{@code srcIndex} 为字节下标 (绝对下标，不读写 position)
+     * @param dst      float 输出，{@code dstIndex} 为样本下标 (绝对下标)
+     * @param gain     线性增益，1.0 表示不缩放
+     */
+    void decode(DirectBuffer src, int srcIndex, FloatBuffer dst, int dstIndex, int samples, float gain);
+
+    /**
+     * 把 {@code samples} 个 float 样本乘以增益后饱和编码为 PCM16。
+     *
+     * @param src      float 输入，{@code srcIndex} 为样本下标 (绝对下标)
+     * @param dst      PCM 输出，{@code dstIndex} 为字节下标
+     * @param gain     线性增益，1.0 表示不缩放
+     */
+    void encode(FloatBuffer src, int srcIndex, MutableDirectBuffer dst, int dstIndex, int samples, float gain);
+
+    /**
+     * 把 {@code frames} 帧交错排列的 {@code channels} 声道 PCM16 解码为按声道平面排列的 float：
+     * 声道 {@code c} 的第 {@code i} 个样本写入 {@code dst[dstIndex + c * frames + i]}。
+     *
+     * @param src PCM 数据，{@code srcIndex} 为字节下标
+     * @param dst float 输出，{@code dstIndex} 为样本下标
+     */
+    default void decodeInterleaved(DirectBuffer src, int srcIndex, FloatBuffer dst, int dstIndex, int frames,
+        int channels, float gain) {
+        if (channels == 1) {
+            decode(src, srcIndex, dst, dstIndex, frames, gain);
+            return;
+        }
+        final float scale = gain / ScalarPcm16Codec.PCM16_SCALE;
+        final int frameBytes = channels * 2;
+        for (int c = 0; c < channels; c++) {
+            final int plane = dstIndex + c * frames;
+            final int first = srcIndex + c * 2;
+            for (int i = 0; i < frames; i++) {
+                dst.put(plane + i, src.getShort(first + i * frameBytes, ByteOrder.LITTLE_ENDIAN) * scale);
+            }
+        }
+    }
+
+    /**
+     * {@link #decodeInterleaved} 的逆操作：把按声道平面排列的 float 饱和编码为交错排列的 PCM16。
+     *
+     * @param src float 输入，{@code srcIndex} 为样本下标
+     * @param dst PCM 输出，{@code dstIndex} 为字节下标
+     */
+    default void encodeInterleaved(FloatBuffer src, int srcIndex, MutableDirectBuffer dst, int dstIndex, int frames,
+        int channels, float gain) {
+        if (channels == 1) {
+            encode(src, srcIndex, dst, dstIndex, frames, gain);
+            return;
+        }
+        final float scale = gain * ScalarPcm16Codec.PCM16_SCALE;
+        final int frameBytes = channels * 2;
+        for (int c = 0; c < channels; c++) {
+            final int plane = srcIndex + c * frames;
+            final int first = dstIndex + c * 2;
+            for (int i = 0; i < frames; i++) {
+                dst.putShort(first + i * frameBytes, ScalarPcm16Codec.saturate(src.get(plane + i) * scale),
+                    ByteOrder.LITTLE_ENDIAN);
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package source.hanger.codec;
+
+import java.lang.reflect.Constructor;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 创建 {@link Pcm16Codec}。
+ * <p>
+ * 系统属性 {@value #PROPERTY} 可选值：
+ * <ul>
+ *     <li>{@code vector} (默认)：基于 {@code jdk.incubator.vector} 的 SIMD 实现。该模块仍处于孵化阶段，
+ *         需要以 {@code --add-modules jdk.incubator.vector} 启动；不可用时回退到 {@code scalar}。</li>
+ *     <li>{@code scalar}：逐样本转换。</li>
+ * </ul>
+ * 实现的选择只在首次调用时进行一次，之后每次 {@link #create()} 都返回该实现的新实例。
+ */
+@Slf4j
+public final class Pcm16Codecs {
+
+    public static final String PROPERTY = "df.pcm.codec";
+    public static final String VECTOR = "vector";
+    public static final String SCALAR = "scalar";
+
+    private static final String VECTOR_CODEC_CLASS = "source.hanger.vector.VectorPcm16Codec";
+
+    private static Constructor<? extends Pcm16Codec> vectorConstructor;
+    private static boolean resolved;
+
+    private Pcm16Codecs() {
+    }
+
+    /**
+     * 创建一个新的编解码器实例，实例不可在线程间共享。
+     */
+    public static Pcm16Codec create() {
+        Constructor<? extends Pcm16Codec> constructor = resolveVectorConstructor();
+        if (constructor != null) {
+            try {
+                return constructor.newInstance();
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("DF_ERROR: 无法创建向量化 PCM 编解码器", e);
+            }
+        }
+        return new ScalarPcm16Codec();
+    }
+
+    private static synchronized Constructor<? extends Pcm16Codec> resolveVectorConstructor() {
+        if (resolved) {
+            return vectorConstructor;
+        }
+        resolved = true;
+        String name = System.getProperty(PROPERTY, VECTOR).trim();
+        if (SCALAR.equals(name)) {
+            log.info("DF_LOG: 使用 PCM 编解码器: {}", SCALAR);
+            return null;
+        }
+        if (!VECTOR.equals(name)) {
+            throw new IllegalArgumentException("未知的 PCM 编解码器: " + name);
+        }
+        try {
+            Constructor<? extends Pcm16Codec> constructor = Class.forName(VECTOR_CODEC_CLASS)
+                .asSubclass(Pcm16Codec.class).getDeclaredConstructor();
+            // 试创建一次，确认孵化模块可用且当前平台受支持
+            log.info("DF_LOG: 使用 PCM 编解码器: {}", constructor.newInstance().name());
+            vectorConstructor = constructor;
+        } catch (ReflectiveOperationException | LinkageError | UnsupportedOperationException e) {
+            // NoClassDefFoundError: 未以 --add-modules jdk.incubator.vector 启动
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            log.info("DF_LOG: 向量化 PCM 编解码器不可用 ({}: {})，使用 {}。", cause.getClass().getSimpleName(),
+                cause.getMessage(), SCALAR);
+        }
+        return vectorConstructor;
+    }
+}
@@ -0,0 +1,179 @@
+package source.hanger.codec;
+
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+
+/**
+ * 有理数比例 ({@code outputRate / inputRate = L / M}) 的流式多相重采样器，用于在 8 / 16 / 24 / 44.1 kHz 等采样率与
+ * DeepFilterNet 的 48 kHz 之间转换。
+ * <p>
+ * 原型低通滤波器为 Kaiser 窗 sinc，截止频率取两侧采样率中较低者的 Nyquist 频率乘以 {@value #ROLLOFF}，
+ * 按 L 个相位拆分后只计算实际用到的输出样本。实例保存上一块输入的尾部与当前相位，相邻块之间无缝衔接，
+ * 因此每条流、每个声道各需一个实例；构造后 {@link #process} 不产生分配。实例不是线程安全的。
+ * <p>
+ * 当每块输入的样本数乘以 L 能被 M 整除时 (例如 48 kHz 的 480 样本对应 8 kHz 的 80 样本、44.1 kHz 的 441 样本)，
+ * 每块产生固定的 {@code inputLength * L / M} 个输出样本。滤波器引入约 {@link #delaySamples()} 个输出样本的延迟。
+ */
+public final class PolyphaseResampler {
+
+    /**
+     * 截止频率相对于 Nyquist 频率的比例，留出过渡带。
+     */
+    public static final float ROLLOFF = 0.9f;
+    /**
+     * 原型滤波器在截止频率对应周期上的单侧过零点数，决定阻带衰减与计算量。
+     */
+    private static final int ZERO_CROSSINGS = 16;
+    private static final double KAISER_BETA = 8.6;
+
+    private final int inputRate;
+    private final int outputRate;
+    private final int upFactor;
+    private final int downFactor;
+    private final int tapsPerPhase;
+    // 按相位排列的系数：相位 p 的第 k 个系数位于 coefficients[p * tapsPerPhase + k]，作用于倒数第 k 个输入样本
+    private final float[] coefficients;
+    // 前 tapsPerPhase - 1 个位置保存上一块输入的尾部，其后为当前块
+    private final float[] history;
+    private final int maxInputLength;
+    // 下一个输出样本在上采样域中相对当前块起点的相位 (0..L-1) 与输入下标偏移
+    private int phase;
+    private int inputOffset;
+
+    /**
+     * @param maxInputLength 单次 {@link #process} 输入样本数的上限，决定内部缓冲区大小。
+     * @throws IllegalArgumentException 如果采样率不是正数。
+     */
+    public PolyphaseResampler(int inputRate, int outputRate, int maxInputLength) {
+        if (inputRate <= 0 || outputRate <= 0 || maxInputLength <= 0) {
+            throw new IllegalArgumentException(
+                "DF_ERROR: 无效的重采样参数: " + inputRate + " Hz -> " + outputRate + " Hz, maxInputLength="
+                    + maxInputLength);
+        }
+        final int gcd = gcd(inputRate, outputRate);
+        this.inputRate = inputRate;
+        this.outputRate = outputRate;
+        this.upFactor = outputRate / gcd;
+        this.downFactor = inputRate / gcd;
+        this.maxInputLength = maxInputLength;
+
+        // 上采样域 (inputRate * L) 中的截止频率 (周期的一半)，取两侧较低的 Nyquist 频率
+        final double cutoff = 0.5 * ROLLOFF / Math.max(upFactor, downFactor);
+        final int prototypeHalf = (int)Math.ceil(ZERO_CROSSINGS / (2.0 * cutoff));
+        this.tapsPerPhase = Math.max(1, (2 * prototypeHalf + upFactor - 1) / upFactor);
+        final int prototypeLength = tapsPerPhase * upFactor;
+        final double center = (prototypeLength - 1) / 2.0;
+        final double windowNorm = besselI0(KAISER_BETA);
+        this.coefficients = new float[prototypeLength];
+        for (int n = 0; n < prototypeLength; n++) {
+            final double x = n - center;
+            final double sinc = x == 0 ? 1.0 : Math.sin(2 * Math.PI * cutoff * x) / (2 * Math.PI * cutoff * x);
+            final double ratio = x / (center + 1);
+            final double window = besselI0(KAISER_BETA * Math.sqrt(Math.max(0, 1 - ratio * ratio))) / windowNorm;
+            // 乘以 L 补偿插零带来的增益损失
+            final double h = 2 * cutoff * sinc * window * upFactor;
+            // 原型的第 n 个系数属于相位 n % L，作用于倒数第 n / L 个输入样本
+            coefficients[(n % upFactor) * tapsPerPhase + n / upFactor] = (float)h;
+        }
+        this.history = new float[tapsPerPhase - 1 + maxInputLength];
+    }
+
+    public int inputRate() {
+        return inputRate;
+    }
+
+    public int outputRate() {
+        return outputRate;
+    }
+
+    /**
+     * 输入 {@code inputLength} 个样本后产生的输出样本数。仅当 {@code inputLength * L} 能被 M 整除时与相位无关。
+     */
+    public long outputLengthFor(int inputLength) {
+        final long upsampled = (long)inputLength * upFactor - ((long)inputOffset * upFactor + phase);
+        return upsampled <= 0 ? 0 : (upsampled + downFactor - 1) / downFactor;
+    }
+
+    /**
+     * 滤波器的群延迟，以输出样本计。
+     */
+    public int delaySamples() {
+        return (int)Math.round((tapsPerPhase * upFactor - 1) / 2.0 / downFactor);
+    }
+
+    /**
+     * 重采样一块输入，结果依次写入 {@code dst}。
+     *
+     * @param src       输入，{@code srcIndex} 为样本下标 (绝对下标，不读写 position)
+     * @param srcLength 输入样本数，不超过构造时的 {@code maxInputLength}
+     * @param dst       输出，{@code dstIndex} 为样本下标；须能容纳 {@link #outputLengthFor(int)} 个样本
+     * @return 写入的输出样本数
+     */
+    public int process(FloatBuffer src, int srcIndex, int srcLength, FloatBuffer dst, int dstIndex) {
+        if (srcLength > maxInputLength) {
+            throw new IllegalArgumentException(
+                "DF_ERROR: 重采样输入 " + srcLength + " 个样本，超过上限 " + maxInputLength);
+        }
+        final int historyLength = tapsPerPhase - 1;
+        src.get(srcIndex, history, historyLength, srcLength);
+
+        final int stepInputs = downFactor / upFactor;
+        final int stepPhase = downFactor % upFactor;
+        int out = 0;
+        // inputOffset 为当前输出所用的最新输入样本在本块中的下标
+        while (inputOffset < srcLength) {
+            final int newest = historyLength + inputOffset;
+            final int base = phase * tapsPerPhase;
+            float acc = 0.0f;
+            for (int k = 0; k < tapsPerPhase; k++) {
+                acc += coefficients[base + k] * history[newest - k];
+            }
+            dst.put(dstIndex + out++, acc);
+            phase += stepPhase;
+            inputOffset += stepInputs;
+            if (phase >= upFactor) {
+                phase -= upFactor;
+                inputOffset++;
+            }
+        }
+        inputOffset -= srcLength;
+        // 保留最后 tapsPerPhase - 1 个输入样本供下一块使用
+        System.arraycopy(history, srcLength, history, 0, historyLength);
+        return out;
+    }
+
+    /**
+     * 清空历史样本与相位，之后的输出与新建的实例一致。
+     */
+    public void reset() {
+        Arrays.fill(history, 0.0f);
+        phase = 0;
+        inputOffset = 0;
+    }
+
+    private static int gcd(int a, int b) {
+        while (b != 0) {
+            final int t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+
+    /**
+     * 第一类零阶修正贝塞尔函数，级数展开，用于 Kaiser 窗。
+     */
+    private static double besselI0(double x) {
+        double sum = 1.0;
+        double term = 1.0;
+        final double halfX = x / 2;
+        for (int k = 1; k < 50; k++) {
+            term *= (halfX / k) * (halfX / k);
+            sum += term;
+            if (term < sum * 1e-12) {
+                break;
+            }
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,51 @@
+package source.hanger.codec;
+
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+
+import org.agrona.DirectBuffer;
+import org.agrona.MutableDirectBuffer;
+
+/**
+ * 逐样本转换的 {@link Pcm16Codec}，无内部状态。Vector API 不可用时的回退实现，也作为向量实现的参照。
+ */
+public final class ScalarPcm16Codec implements Pcm16Codec {
+
+    static final float PCM16_SCALE = 32768.0f;
+    static final float PCM16_MIN = -32768.0f;
+    static final float PCM16_MAX = 32767.0f;
+
+    @Override
+    public String name() {
+        return "scalar";
+    }
+
+    @Override
+    public void decode(DirectBuffer src, int srcIndex, FloatBuffer dst, int dstIndex, int samples, float gain) {
+        final float scale = gain / PCM16_SCALE;
+        for (int i = 0; i < samples; i++) {
+            dst.put(dstIndex + i, src.getShort(srcIndex + i * 2, ByteOrder.LITTLE_ENDIAN) * scale);
+        }
+    }
+
+    @Override
+    public void encode(FloatBuffer src, int srcIndex, MutableDirectBuffer dst, int dstIndex, int samples, float gain) {
+        final float scale = gain * PCM16_SCALE;
+        for (int i = 0; i < samples; i++) {
+            dst.putShort(dstIndex + i * 2, saturate(src.get(srcIndex + i) * scale), ByteOrder.LITTLE_ENDIAN);
+        }
+    }
+
+    /**
+     * 饱和到 16 bit 范围后截断取整；NaN 编码为 0。
+     */
+    public static short saturate(float value) {
+        if (value >= PCM16_MAX) {
+            return Short.MAX_VALUE;
+        }
+        if (value <= PCM16_MIN) {
+            return Short.MIN_VALUE;
+        }
+        return (short)value;
+    }
+}
@@ -120,7 +120,7 @@ public class RealtimeDenoiseDemo {
                 log.info("DF_DIAG: RealtimeDenoiseDemo: 在 finally 块中调用 streamProcessor.stop()。");
                 streamProcessor.stop(); // 1. 先停止处理器，确保不再提交新的音频帧
             }
-            // 2. 接着关闭 DeepFilterNetListenerAgent 及其虚拟线程池，等待所有 pending 任务完成
+            // 2. 接着关闭 DeepFilterNetListenerAgent，停止各流的消费线程
             DeepFilterNetServiceInitializer.shutdown();
 
             if (audioInputStream != null) {
@@ -0,0 +1,33 @@
+package source.hanger.jna;
+
+import com.sun.jna.Native;
+import com.sun.jna.Pointer;
+
+/**
+ * {@code df_process_frames} 的直接映射。与 {@link DeepFilterNetDirectMapping} 分开注册：该符号只存在于本仓库
+ * 重新构建的 libdf 中，缺失时不影响其他函数的直接映射。
+ */
+final class DeepFilterNetBatchDirectMapping {
+
+    private static Boolean registered;
+
+    private DeepFilterNetBatchDirectMapping() {
+    }
+
+    /**
+     * @return {@code false} 如果 libdf 中没有 {@code df_process_frames}。
+     */
+    static synchronized boolean tryRegister() {
+        if (registered == null) {
+            try {
+                Native.register(DeepFilterNetBatchDirectMapping.class, "df");
+                registered = true;
+            } catch (UnsatisfiedLinkError e) {
+                registered = false;
+            }
+        }
+        return registered;
+    }
+
+    static native long df_process_frames(Pointer states, long count, Pointer input, Pointer output, Pointer lsnr);
+}
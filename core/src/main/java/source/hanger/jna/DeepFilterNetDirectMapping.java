@@ -0,0 +1,48 @@
+package source.hanger.jna;
+
+import com.sun.jna.Native;
+import com.sun.jna.Pointer;
+
+/**
+ * libdf 的 JNA 直接映射 (Direct Mapping) 绑定。
+ * <p>
+ * 与 {@link DeepFilterNetNativeLib} 的接口代理映射不同，这里的 static native 方法在
+ * {@link Native#register(Class, String)} 时一次性绑定到本地符号，调用时不经过反射和 {@code InvocationHandler}，
+ * 适合每 10 ms 调用一次的 {@code df_process_frame} 等热点方法。
+ * <p>
+ * 注册由 {@link DeepFilterNetLibraryInitializer} 在设置好 {@code jna.library.path} 之后完成，调用方应通过
+ * {@link DeepFilterNetLibraryInitializer#getNativeLibraryInstance(NativeBinding)} 获取
+ * {@link DirectMappedDeepFilterNetNativeLib} 实例，而不是直接使用本类。
+ */
+final class DeepFilterNetDirectMapping {
+
+    private static boolean registered = false;
+
+    private DeepFilterNetDirectMapping() {
+    }
+
+    static synchronized void register() {
+        if (!registered) {
+            Native.register(DeepFilterNetDirectMapping.class, "df");
+            registered = true;
+        }
+    }
+
+    static native Pointer df_create(String path, float attenLim, String logLevel);
+
+    static native int df_get_frame_length(Pointer st);
+
+    static native float df_process_frame(Pointer st, float[] input, float[] output);
+
+    static native float df_process_frame(Pointer st, Pointer input, Pointer output);
+
+    static native void df_free(Pointer model);
+
+    static native void df_set_atten_lim(Pointer st, float lim_db);
+
+    static native void df_set_post_filter_beta(Pointer st, float beta);
+
+    static native Pointer df_next_log_msg(Pointer st);
+
+    static native void df_free_log_msg(Pointer ptr);
+}
@@ -18,6 +18,7 @@ public class DeepFilterNetLibraryInitializer {
 
     private static boolean initializedPath = false;
     private static DeepFilterNetNativeLib nativeLibInstance = null; // 用于存储 DeepFilterNetNativeLib 的实例
+    private static DeepFilterNetNativeLib directLibInstance = null; // 直接映射绑定的实例
     private static File nativeLibTempDir; // 新增：用于存储解压本地库的临时目录
 
     public static synchronized void initializeNativeLibraryPath() {
@@ -117,20 +118,58 @@ public class DeepFilterNetLibraryInitializer {
         initializedPath = true;
     }
 
-    public static synchronized DeepFilterNetNativeLib getNativeLibraryInstance() {
+    /**
+     * 获取默认绑定方式的本地库实例，默认绑定由系统属性 {@link NativeBinding#PROPERTY} 决定。
+     */
+    public static DeepFilterNetNativeLib getNativeLibraryInstance() {
+        return getNativeLibraryInstance(NativeBinding.fromSystemProperty());
+    }
+
+    /**
+     * 获取指定绑定方式的本地库实例。两种绑定可以在同一进程中共存，指向同一个已加载的 libdf。
+     */
+    public static synchronized DeepFilterNetNativeLib getNativeLibraryInstance(NativeBinding binding) {
         initializeNativeLibraryPath();
-        if (nativeLibInstance == null) {
-            try {
+        try {
+            if (binding == NativeBinding.DIRECT) {
+                if (directLibInstance == null) {
+                    directLibInstance = new DirectMappedDeepFilterNetNativeLib();
+                    log.info("DF_LOG: 已通过 JNA 直接映射注册本地库 'df'。");
+                }
+                return directLibInstance;
+            }
+            if (nativeLibInstance == null) {
                 nativeLibInstance = Native.load("df", DeepFilterNetNativeLib.class);
-            } catch (UnsatisfiedLinkError e) {
-                log.error("DF_ERROR: 无法加载本地库 'df'。请确保 'libdf.dylib' (macOS) / 'libdf.so' (Linux) / 'df.dll' (Windows) "
-                        +
-                        "文件存在于 jna.library.path ({}) 或系统库路径中。错误信息: {}",
-                    System.getProperty("jna.library.path", "未设置"), e.getMessage());
-                throw e;
+            }
+            return nativeLibInstance;
+        } catch (UnsatisfiedLinkError e) {
+            log.error("DF_ERROR: 无法加载本地库 'df'。请确保 'libdf.dylib' (macOS) / 'libdf.so' (Linux) / 'df.dll' (Windows) "
+                    +
+                    "文件存在于 jna.library.path ({}) 或系统库路径中。错误信息: {}",
+                System.getProperty("jna.library.path", "未设置"), e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * 在 {@code jna.library.path} 中查找 libdf 文件，供不经过 JNA 加载本地库的后端 (例如 FFM) 使用。
+     *
+     * @return 本地库文件；未找到时返回 {@code null}，调用方可回退到系统库搜索路径。
+     */
+    public static File findNativeLibraryFile() {
+        initializeNativeLibraryPath();
+        String libraryFileName = System.mapLibraryName("df");
+        String jnaLibraryPath = System.getProperty("jna.library.path", "");
+        for (String dir : jnaLibraryPath.split(File.pathSeparator)) {
+            if (dir.isBlank()) {
+                continue;
+            }
+            File candidate = new File(dir.trim(), libraryFileName);
+            if (candidate.isFile()) {
+                return candidate;
             }
         }
-        return nativeLibInstance;
+        return null;
     }
 
     // 重命名并修改 getPlatformSpecificLibName 方法
@@ -0,0 +1,95 @@
+package source.hanger.jna;
+
+import com.sun.jna.Library;
+import com.sun.jna.Native;
+import com.sun.jna.Pointer;
+
+public interface DeepFilterNetNativeLib extends Library {
+
+    DeepFilterNetNativeLib INSTANCE = Native.load("df", DeepFilterNetNativeLib.class);
+
+    // C 接口映射
+    Pointer df_create(String path, float attenLim, String logLevel);
+
+    // 映射 df_create_ch：同时处理 channels 个声道的状态，输入输出按声道依次排列
+    // C: pub unsafe extern "C" fn df_create_ch(path: *const c_char, channels: usize, atten_lim: f32,
+    //    log_level: *const c_char) -> *mut DFState
+    // 旧版 libdf 没有该符号，调用时抛出 UnsatisfiedLinkError
+    Pointer df_create_ch(String path, long channels, float attenLim, String logLevel);
+
+    // 映射 df_get_channels
+    // C: pub unsafe extern "C" fn df_get_channels(st: *mut DFState) -> usize
+    int df_get_channels(Pointer st);
+
+    // 映射 df_get_frame_length
+    // C: pub unsafe extern "C" fn df_get_frame_length(st: *mut DFState) -> usize
+    // Java: int df_get_frame_length(Pointer st)
+    int df_get_frame_length(Pointer st);
+
+    // 映射 df_process_frame
+    // C: pub unsafe extern "C" fn df_process_frame(st: *mut DFState, input: float[], output: float[]) -> c_float
+    // Java: float df_process_frame(Pointer st, float[] input, float[] output)
+    // JNA 会处理 float[] 到 float* 的映射
+    float df_process_frame(Pointer st, float[] input, float[] output);
+
+    // 映射 df_process_frame 的直接内存版本
+    // 输入输出为调用方预先分配并长期持有的原生内存 (例如 com.sun.jna.Memory)，每次调用只传递地址，
+    // 避免 float[] 版本中 JNA 在调用前后各复制一次数组。
+    // Java: float df_process_frame(Pointer st, Pointer input, Pointer output)
+    float df_process_frame(Pointer st, Pointer input, Pointer output);
+
+    // 映射 df_process_frames：一次调用为 count 个状态各处理一帧，输入输出为连续排列的各状态帧
+    // C: pub unsafe extern "C" fn df_process_frames(states: *const *mut DFState, count: usize,
+    //    input: *const c_float, output: *mut c_float, lsnr: *mut c_float) -> usize
+    // lsnr 可以为 NULL；旧版 libdf 没有该符号，调用时抛出 UnsatisfiedLinkError
+    long df_process_frames(Pointer states, long count, Pointer input, Pointer output, Pointer lsnr);
+
+    // 映射 df_free
+    // C: pub unsafe extern "C" fn df_free(model: *mut DFState)
+    // Java: void df_free(Pointer model)
+    void df_free(Pointer model);
+
+    // 映射 df_set_atten_lim
+    // C: pub unsafe extern "C" fn df_set_atten_lim(st: *mut DFState, lim_db: f32)
+    void df_set_atten_lim(Pointer st, float lim_db);
+
+    // 映射 df_set_post_filter_beta
+    // C: pub unsafe extern "C" fn df_set_post_filter_beta(st: *mut DFState, beta: f32)
+    void df_set_post_filter_beta(Pointer st, float beta);
+
+    // 映射 df_model_load：从内存中的模型压缩包加载可被多个状态共享的模型，失败时返回 NULL
+    // C: pub unsafe extern "C" fn df_model_load(data: *const u8, len: usize) -> *mut DFModel
+    // usize 在 64 位平台上对应 long；旧版 libdf 没有该符号，调用时抛出 UnsatisfiedLinkError
+    Pointer df_model_load(Pointer data, long len);
+
+    // 映射 df_create_from_model：复制模型中已构建好的运行时创建状态，不再读取和解析模型文件
+    // C: pub unsafe extern "C" fn df_create_from_model(model: *const DFModel, atten_lim: f32,
+    //    log_level: *const c_char) -> *mut DFState
+    Pointer df_create_from_model(Pointer model, float attenLim, String logLevel);
+
+    // 映射 df_create_from_model_ch：多声道版本，其他声道数的运行时在首次使用时构建并缓存在模型中
+    // C: pub unsafe extern "C" fn df_create_from_model_ch(model: *const DFModel, channels: usize, atten_lim: f32,
+    //    log_level: *const c_char) -> *mut DFState
+    Pointer df_create_from_model_ch(Pointer model, long channels, float attenLim, String logLevel);
+
+    // 映射 df_model_free
+    // C: pub unsafe extern "C" fn df_model_free(model: *mut DFModel)
+    void df_model_free(Pointer model);
+
+    // 映射 df_reset：把状态恢复为 df_create 刚返回时的样子，不重新加载模型
+    // C: pub unsafe extern "C" fn df_reset(st: *mut DFState)
+    // 旧版 libdf 没有该符号，调用时抛出 UnsatisfiedLinkError
+    void df_reset(Pointer st);
+
+    // 映射 df_next_log_msg (此方法将不再被直接使用，因为原生日志初始化已被禁用，无需从 native 层拉取日志)
+    // C: pub unsafe extern "C" fn df_next_log_msg(st: *mut DFState) -> *mut c_char
+    // Java: Pointer df_next_log_msg(Pointer st)
+    Pointer df_next_log_msg(Pointer st);
+
+    // 映射 df_free_log_msg (此方法将不再被直接使用)
+    // C: pub unsafe extern "C" fn df_free_log_msg(ptr: *mut c_char)
+    void df_free_log_msg(Pointer ptr);
+
+    // 注意：DynArray 和 df_coef_size, df_gain_size 涉及到 C 结构体映射，这里为了简化暂不实现。
+    // 如果需要，JNA 提供了 Structure 类来映射 C 结构体。
+}
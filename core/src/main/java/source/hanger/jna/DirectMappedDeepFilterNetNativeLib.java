@@ -0,0 +1,115 @@
+package source.hanger.jna;
+
+import com.sun.jna.Function;
+import com.sun.jna.NativeLibrary;
+import com.sun.jna.Pointer;
+
+/**
+ * 以 {@link DeepFilterNetNativeLib} 接口暴露的直接映射绑定，使调用方无需关心底层使用哪种 JNA 映射方式。
+ * 各方法直接委托给 {@link DeepFilterNetDirectMapping} 的 static native 方法。
+ */
+public final class DirectMappedDeepFilterNetNativeLib implements DeepFilterNetNativeLib {
+
+    // 以下可选符号不在热点路径上，且旧版 libdf 没有这些符号，不参与直接映射注册 (缺少任一符号都会导致注册失败)，
+    // 调用时再按名称查找，NativeLibrary 会缓存查找结果
+    private static Function optionalFunction(String name) {
+        return NativeLibrary.getInstance("df").getFunction(name);
+    }
+
+    // df_process_frames 在批处理的热点路径上，单独直接映射；旧版 libdf 没有该符号时为 false
+    private final boolean batchMapped;
+
+    DirectMappedDeepFilterNetNativeLib() {
+        DeepFilterNetDirectMapping.register();
+        this.batchMapped = DeepFilterNetBatchDirectMapping.tryRegister();
+    }
+
+    @Override
+    public Pointer df_create(String path, float attenLim, String logLevel) {
+        return DeepFilterNetDirectMapping.df_create(path, attenLim, logLevel);
+    }
+
+    @Override
+    public Pointer df_create_ch(String path, long channels, float attenLim, String logLevel) {
+        return optionalFunction("df_create_ch").invokePointer(new Object[]{path, channels, attenLim, logLevel});
+    }
+
+    @Override
+    public int df_get_channels(Pointer st) {
+        return optionalFunction("df_get_channels").invokeInt(new Object[]{st});
+    }
+
+    @Override
+    public int df_get_frame_length(Pointer st) {
+        return DeepFilterNetDirectMapping.df_get_frame_length(st);
+    }
+
+    @Override
+    public float df_process_frame(Pointer st, float[] input, float[] output) {
+        return DeepFilterNetDirectMapping.df_process_frame(st, input, output);
+    }
+
+    @Override
+    public float df_process_frame(Pointer st, Pointer input, Pointer output) {
+        return DeepFilterNetDirectMapping.df_process_frame(st, input, output);
+    }
+
+    @Override
+    public long df_process_frames(Pointer states, long count, Pointer input, Pointer output, Pointer lsnr) {
+        if (!batchMapped) {
+            throw new UnsatisfiedLinkError("libdf 中未找到符号: df_process_frames");
+        }
+        return DeepFilterNetBatchDirectMapping.df_process_frames(states, count, input, output, lsnr);
+    }
+
+    @Override
+    public void df_free(Pointer model) {
+        DeepFilterNetDirectMapping.df_free(model);
+    }
+
+    @Override
+    public void df_set_atten_lim(Pointer st, float lim_db) {
+        DeepFilterNetDirectMapping.df_set_atten_lim(st, lim_db);
+    }
+
+    @Override
+    public void df_set_post_filter_beta(Pointer st, float beta) {
+        DeepFilterNetDirectMapping.df_set_post_filter_beta(st, beta);
+    }
+
+    @Override
+    public Pointer df_model_load(Pointer data, long len) {
+        return optionalFunction("df_model_load").invokePointer(new Object[]{data, len});
+    }
+
+    @Override
+    public Pointer df_create_from_model(Pointer model, float attenLim, String logLevel) {
+        return optionalFunction("df_create_from_model").invokePointer(new Object[]{model, attenLim, logLevel});
+    }
+
+    @Override
+    public Pointer df_create_from_model_ch(Pointer model, long channels, float attenLim, String logLevel) {
+        return optionalFunction("df_create_from_model_ch").invokePointer(
+            new Object[]{model, channels, attenLim, logLevel});
+    }
+
+    @Override
+    public void df_model_free(Pointer model) {
+        optionalFunction("df_model_free").invokeVoid(new Object[]{model});
+    }
+
+    @Override
+    public void df_reset(Pointer st) {
+        optionalFunction("df_reset").invokeVoid(new Object[]{st});
+    }
+
+    @Override
+    public Pointer df_next_log_msg(Pointer st) {
+        return DeepFilterNetDirectMapping.df_next_log_msg(st);
+    }
+
+    @Override
+    public void df_free_log_msg(Pointer ptr) {
+        DeepFilterNetDirectMapping.df_free_log_msg(ptr);
+    }
+}
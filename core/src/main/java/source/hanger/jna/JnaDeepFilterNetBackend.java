@@ -0,0 +1,97 @@
+package source.hanger.jna;
+
+import java.nio.ByteBuffer;
+
+import com.sun.jna.Memory;
+import com.sun.jna.Native;
+import com.sun.jna.NativeLibrary;
+import com.sun.jna.Pointer;
+import source.hanger.backend.DeepFilterNetBackend;
+import source.hanger.backend.DeepFilterNetFrameBatch;
+import source.hanger.backend.DeepFilterNetModel;
+import source.hanger.backend.DeepFilterNetState;
+
+/**
+ * 基于 JNA 的后端，底层绑定可以是接口代理映射或直接映射。
+ */
+public final class JnaDeepFilterNetBackend implements DeepFilterNetBackend {
+
+    private final String name;
+    private final DeepFilterNetNativeLib nativeLib;
+
+    public JnaDeepFilterNetBackend(String name, DeepFilterNetNativeLib nativeLib) {
+        this.name = name;
+        this.nativeLib = nativeLib;
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public DeepFilterNetState create(String modelPath, float attenLim, String logLevel) {
+        return new JnaDeepFilterNetState(nativeLib, nativeLib.df_create(modelPath, attenLim, logLevel), 1);
+    }
+
+    @Override
+    public DeepFilterNetState create(String modelPath, int channels, float attenLim, String logLevel) {
+        if (channels == 1) {
+            return create(modelPath, attenLim, logLevel);
+        }
+        try {
+            return new JnaDeepFilterNetState(nativeLib,
+                nativeLib.df_create_ch(modelPath, channels, attenLim, logLevel), channels);
+        } catch (UnsatisfiedLinkError e) {
+            throw new UnsupportedOperationException("DF_ERROR: 当前 libdf 不支持多声道 (缺少 df_create_ch)", e);
+        }
+    }
+
+    @Override
+    public boolean supportsBatchProcessing() {
+        try {
+            NativeLibrary.getInstance("df").getFunction("df_process_frames");
+            return true;
+        } catch (UnsatisfiedLinkError e) {
+            return false;
+        }
+    }
+
+    @Override
+    public DeepFilterNetFrameBatch newFrameBatch(int maxStates, int maxSamples) {
+        if (!supportsBatchProcessing()) {
+            return DeepFilterNetBackend.super.newFrameBatch(maxStates, maxSamples);
+        }
+        return new JnaDeepFilterNetFrameBatch(nativeLib, maxStates, maxSamples);
+    }
+
+    @Override
+    public boolean supportsModelLoading() {
+        try {
+            NativeLibrary.getInstance("df").getFunction("df_model_load");
+            return true;
+        } catch (UnsatisfiedLinkError e) {
+            return false;
+        }
+    }
+
+    @Override
+    public DeepFilterNetModel loadModel(ByteBuffer modelBytes) {
+        final int length = modelBytes.remaining();
+        try {
+            if (modelBytes.isDirect()) {
+                // 内存映射的模型文件直接传递地址，不复制
+                Pointer data = Native.getDirectBufferPointer(modelBytes).share(modelBytes.position());
+                return new JnaDeepFilterNetModel(nativeLib, nativeLib.df_model_load(data, length));
+            }
+            final byte[] bytes = new byte[length];
+            modelBytes.duplicate().get(bytes);
+            try (Memory data = new Memory(Math.max(1, length))) {
+                data.write(0, bytes, 0, length);
+                return new JnaDeepFilterNetModel(nativeLib, nativeLib.df_model_load(data, length));
+            }
+        } catch (UnsatisfiedLinkError e) {
+            throw new UnsupportedOperationException("DF_ERROR: 当前 libdf 不支持 df_model_load", e);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package source.hanger.jna;
+
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+
+import com.sun.jna.Memory;
+import com.sun.jna.Native;
+import com.sun.jna.Pointer;
+import source.hanger.backend.DeepFilterNetFrameBatch;
+import source.hanger.backend.DeepFilterNetState;
+
+/**
+ * JNA 后端的批次：状态指针数组、输入输出块和局部信噪比都位于长期持有的 {@link Memory} 中，
+ * {@link DeepFilterNetNativeLib#df_process_frames} 每次只传递地址。
+ */
+final class JnaDeepFilterNetFrameBatch implements DeepFilterNetFrameBatch {
+
+    private final DeepFilterNetNativeLib nativeLib;
+    private final int maxStates;
+    private final Memory statePointers;
+    private final Memory inputMemory;
+    private final Memory outputMemory;
+    private final Memory lsnrMemory;
+    private final FloatBuffer inputFrames;
+    private final FloatBuffer outputFrames;
+    private int size;
+    private int usedSamples;
+
+    JnaDeepFilterNetFrameBatch(DeepFilterNetNativeLib nativeLib, int maxStates, int maxSamples) {
+        if (maxStates < 1 || maxSamples < 1) {
+            throw new IllegalArgumentException(
+                "DF_ERROR: 批次容量必须为正数: maxStates=" + maxStates + ", maxSamples=" + maxSamples);
+        }
+        this.nativeLib = nativeLib;
+        this.maxStates = maxStates;
+        this.statePointers = new Memory((long)maxStates * Native.POINTER_SIZE);
+        this.inputMemory = new Memory((long)maxSamples * Float.BYTES);
+        this.outputMemory = new Memory((long)maxSamples * Float.BYTES);
+        this.lsnrMemory = new Memory((long)maxStates * Float.BYTES);
+        this.inputFrames = inputMemory.getByteBuffer(0, inputMemory.size()).order(ByteOrder.nativeOrder())
+            .asFloatBuffer();
+        this.outputFrames = outputMemory.getByteBuffer(0, outputMemory.size()).order(ByteOrder.nativeOrder())
+            .asFloatBuffer();
+    }
+
+    @Override
+    public int maxStates() {
+        return maxStates;
+    }
+
+    @Override
+    public int maxSamples() {
+        return inputFrames.capacity();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public FloatBuffer inputFrames() {
+        return inputFrames;
+    }
+
+    @Override
+    public FloatBuffer outputFrames() {
+        return outputFrames;
+    }
+
+    @Override
+    public int add(DeepFilterNetState state) {
+        if (!(state.unwrap() instanceof JnaDeepFilterNetState jnaState) || !jnaState.belongsTo(nativeLib)) {
+            throw new IllegalArgumentException("DF_ERROR: 批次只能处理同一 JNA 后端创建的状态");
+        }
+        final int samples = jnaState.channels() * jnaState.frameLength();
+        if (size == maxStates || usedSamples + samples > inputFrames.capacity()) {
+            return -1;
+        }
+        final int offset = usedSamples;
+        statePointers.setPointer((long)size * Native.POINTER_SIZE, jnaState.nativeState());
+        size++;
+        usedSamples += samples;
+        return offset;
+    }
+
+    @Override
+    public void process() {
+        if (size == 0) {
+            return;
+        }
+        final long processed = nativeLib.df_process_frames(statePointers, size, inputMemory, outputMemory, lsnrMemory);
+        if (processed != usedSamples) {
+            throw new IllegalStateException(
+                "DF_ERROR: df_process_frames 读取了 " + processed + " 个样本，预期 " + usedSamples);
+        }
+    }
+
+    @Override
+    public float lsnr(int index) {
+        return lsnrMemory.getFloat((long)index * Float.BYTES);
+    }
+
+    @Override
+    public void clear() {
+        size = 0;
+        usedSamples = 0;
+    }
+
+    @Override
+    public void close() {
+        clear();
+        statePointers.close();
+        inputMemory.close();
+        outputMemory.close();
+        lsnrMemory.close();
+    }
+}
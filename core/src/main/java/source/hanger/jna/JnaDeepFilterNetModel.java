@@ -0,0 +1,55 @@
+package source.hanger.jna;
+
+import com.sun.jna.Pointer;
+import source.hanger.backend.DeepFilterNetModel;
+import source.hanger.backend.DeepFilterNetState;
+
+/**
+ * JNA 后端的共享模型，持有 {@code df_model_load} 返回的 {@code DFModel} 指针。
+ */
+final class JnaDeepFilterNetModel implements DeepFilterNetModel {
+
+    private final DeepFilterNetNativeLib nativeLib;
+    private Pointer dfModel;
+
+    JnaDeepFilterNetModel(DeepFilterNetNativeLib nativeLib, Pointer dfModel) {
+        if (dfModel == null || Pointer.nativeValue(dfModel) == 0) {
+            throw new IllegalStateException("DF_ERROR: 无法从内存加载 DeepFilterNet 模型。请检查模型文件是否完整。");
+        }
+        this.nativeLib = nativeLib;
+        this.dfModel = dfModel;
+    }
+
+    @Override
+    public synchronized DeepFilterNetState createState(float attenLim, String logLevel) {
+        if (dfModel == Pointer.NULL) {
+            throw new IllegalStateException("DF_ERROR: 模型已关闭");
+        }
+        return new JnaDeepFilterNetState(nativeLib, nativeLib.df_create_from_model(dfModel, attenLim, logLevel), 1);
+    }
+
+    @Override
+    public synchronized DeepFilterNetState createState(float attenLim, int channels, String logLevel) {
+        if (channels == 1) {
+            return createState(attenLim, logLevel);
+        }
+        if (dfModel == Pointer.NULL) {
+            throw new IllegalStateException("DF_ERROR: 模型已关闭");
+        }
+        try {
+            return new JnaDeepFilterNetState(nativeLib,
+                nativeLib.df_create_from_model_ch(dfModel, channels, attenLim, logLevel), channels);
+        } catch (UnsatisfiedLinkError e) {
+            throw new UnsupportedOperationException(
+                "DF_ERROR: 当前 libdf 不支持多声道 (缺少 df_create_from_model_ch)", e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (dfModel != Pointer.NULL) {
+            nativeLib.df_model_free(dfModel);
+            dfModel = Pointer.NULL;
+        }
+    }
+}
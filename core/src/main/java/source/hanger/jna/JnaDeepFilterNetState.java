@@ -0,0 +1,111 @@
+package source.hanger.jna;
+
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+
+import com.sun.jna.Memory;
+import com.sun.jna.Pointer;
+import source.hanger.backend.DeepFilterNetState;
+
+/**
+ * JNA 后端的状态：输入输出帧位于长期持有的 {@link Memory} 中，通过
+ * {@link DeepFilterNetNativeLib#df_process_frame(Pointer, Pointer, Pointer)} 只传递地址。
+ */
+final class JnaDeepFilterNetState implements DeepFilterNetState {
+
+    private final DeepFilterNetNativeLib nativeLib;
+    private final int frameLength;
+    private final int channels;
+    private final Memory inputMemory;
+    private final Memory outputMemory;
+    private final FloatBuffer inputFrame;
+    private final FloatBuffer outputFrame;
+    private Pointer dfState;
+
+    JnaDeepFilterNetState(DeepFilterNetNativeLib nativeLib, Pointer dfState, int channels) {
+        if (dfState == null || Pointer.nativeValue(dfState) == 0) {
+            throw new IllegalStateException("DF_ERROR: 无法创建 DeepFilterNet 状态。请检查模型路径或日志。");
+        }
+        this.nativeLib = nativeLib;
+        this.dfState = dfState;
+        this.frameLength = nativeLib.df_get_frame_length(dfState);
+        this.channels = channels;
+        this.inputMemory = new Memory((long)channels * frameLength * Float.BYTES);
+        this.outputMemory = new Memory((long)channels * frameLength * Float.BYTES);
+        this.inputFrame = inputMemory.getByteBuffer(0, inputMemory.size()).order(ByteOrder.nativeOrder())
+            .asFloatBuffer();
+        this.outputFrame = outputMemory.getByteBuffer(0, outputMemory.size()).order(ByteOrder.nativeOrder())
+            .asFloatBuffer();
+    }
+
+    @Override
+    public int frameLength() {
+        return frameLength;
+    }
+
+    @Override
+    public int channels() {
+        return channels;
+    }
+
+    @Override
+    public FloatBuffer inputFrame() {
+        return inputFrame;
+    }
+
+    @Override
+    public FloatBuffer outputFrame() {
+        return outputFrame;
+    }
+
+    /**
+     * 原生 {@code DFState} 指针，供 {@link JnaDeepFilterNetFrameBatch} 使用。
+     *
+     * @throws IllegalStateException 如果状态已关闭。
+     */
+    Pointer nativeState() {
+        if (dfState == Pointer.NULL) {
+            throw new IllegalStateException("DF_ERROR: 状态已关闭");
+        }
+        return dfState;
+    }
+
+    boolean belongsTo(DeepFilterNetNativeLib nativeLib) {
+        return this.nativeLib == nativeLib;
+    }
+
+    @Override
+    public float processFrame() {
+        return nativeLib.df_process_frame(dfState, inputMemory, outputMemory);
+    }
+
+    @Override
+    public void setAttenLim(float limDb) {
+        nativeLib.df_set_atten_lim(dfState, limDb);
+    }
+
+    @Override
+    public void setPostFilterBeta(float beta) {
+        nativeLib.df_set_post_filter_beta(dfState, beta);
+    }
+
+    @Override
+    public boolean reset() {
+        try {
+            nativeLib.df_reset(dfState);
+            return true;
+        } catch (UnsatisfiedLinkError e) {
+            return false;
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (dfState != Pointer.NULL) {
+            nativeLib.df_free(dfState);
+            dfState = Pointer.NULL;
+            inputMemory.close();
+            outputMemory.close();
+        }
+    }
+}
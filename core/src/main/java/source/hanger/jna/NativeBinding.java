@@ -0,0 +1,33 @@
+package source.hanger.jna;
+
+/**
+ * libdf 的 JNA 绑定方式。
+ * <p>
+ * 可通过系统属性 {@code df.jna.binding}（{@code interface} / {@code direct}）设置进程级默认值，
+ * 也可以调用 {@link DeepFilterNetLibraryInitializer#getNativeLibraryInstance(NativeBinding)} 显式选择。
+ */
+public enum NativeBinding {
+
+    /**
+     * 接口代理映射 ({@code Native.load})，每次调用经过反射与 {@code InvocationHandler} 分派。
+     */
+    INTERFACE,
+
+    /**
+     * 直接映射 ({@code Native.register})，native 方法在注册时绑定，调用路径与 JNI 相当。
+     */
+    DIRECT;
+
+    public static final String PROPERTY = "df.jna.binding";
+
+    /**
+     * 读取 {@link #PROPERTY} 系统属性，未设置时使用 {@link #INTERFACE}。
+     */
+    public static NativeBinding fromSystemProperty() {
+        String value = System.getProperty(PROPERTY);
+        if (value == null || value.isBlank()) {
+            return INTERFACE;
+        }
+        return valueOf(value.trim().toUpperCase());
+    }
+}
@@ -0,0 +1,146 @@
+package source.hanger.metrics;
+
+import java.io.File;
+import java.nio.MappedByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import lombok.extern.slf4j.Slf4j;
+import org.agrona.BitUtil;
+import org.agrona.BufferUtil;
+import org.agrona.IoUtil;
+import org.agrona.concurrent.SystemEpochClock;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.agrona.concurrent.status.AtomicCounter;
+import org.agrona.concurrent.status.CountersManager;
+import org.agrona.concurrent.status.CountersReader;
+
+/**
+ * 进程内共享的 Agrona {@link CountersManager}，计数器位于一个内存映射文件中，外部工具
+ * (例如 {@link DeepFilterNetCountersReader}) 可以在不影响进程的情况下实时读取。
+ * <p>
+ * 文件布局：{@value #HEADER_LENGTH} 字节头部，随后是元数据区与数值区。头部依次为魔数 {@link #MAGIC}、版本号、
+ * 元数据区长度、数值区长度 (均为 int) 以及进程 ID (long)。标签使用 UTF-8 编码。
+ * <p>
+ * 文件路径默认为 {@code ${java.io.tmpdir}/dfnet-counters-<pid>.dat}，可通过系统属性 {@value #FILE_PROPERTY}
+ * 覆盖，JVM 退出时删除；容量 (计数器个数) 由 {@value #CAPACITY_PROPERTY} 指定，默认 {@value #DEFAULT_CAPACITY}。
+ * 每个流处理器占用 {@link ProcessorCounters#COUNTERS_PER_PROCESSOR} 个计数器；文件已满时新计数器退化为不在文件中登记的
+ * 进程内计数器，处理器照常工作，只是外部工具看不到它们。
+ * <p>
+ * 计数器的分配与释放是同步的，只应在处理器创建和释放时进行；热路径上的更新使用 {@link AtomicCounter} 的
+ * release 语义写入，不加锁、不分配。
+ */
+@Slf4j
+public final class DeepFilterNetCounters {
+
+    public static final String FILE_PROPERTY = "df.counters.file";
+    public static final String CAPACITY_PROPERTY = "df.counters.capacity";
+    public static final int DEFAULT_CAPACITY = 8192;
+    // 释放的槽位延迟复用，避免仍在途中的最后一次更新 (例如正在进行的回调) 写入新分配的计数器
+    private static final long FREE_TO_REUSE_TIMEOUT_MS = 1000L;
+
+    public static final int MAGIC = 0x4446434E; // "DFCN"
+    public static final int VERSION = 1;
+    public static final int HEADER_LENGTH = 128;
+    public static final int MAGIC_OFFSET = 0;
+    public static final int VERSION_OFFSET = 4;
+    public static final int METADATA_LENGTH_OFFSET = 8;
+    public static final int VALUES_LENGTH_OFFSET = 12;
+    public static final int PID_OFFSET = 16;
+
+    // 计数器类型 ID，外部工具可据此聚合
+    public static final int TYPE_LISTENER_ERRORS = 1;
+    public static final int TYPE_RING_BUFFER_DEPTH = 100;
+    public static final int TYPE_FRAMES_PROCESSED = 101;
+    public static final int TYPE_FRAME_NANOS = 102;
+    public static final int TYPE_NATIVE_NANOS = 103;
+    public static final int TYPE_PRODUCER_FULL_SPINS = 104;
+    public static final int TYPE_OUTPUT_FULL_SPINS = 105;
+    public static final int TYPE_DROPPED_BYTES = 106;
+    public static final int TYPE_FRAMES_DELIVERED = 107;
+    public static final int TYPE_CALLBACK_NANOS = 108;
+    public static final int TYPE_INPUT_DROPPED_BYTES = 109;
+    public static final int TYPE_INPUT_DISCARDED_BYTES = 110;
+    public static final int TYPE_FRAMES_PASSED_THROUGH = 111;
+    public static final int TYPE_OUTPUT_DROPPED_FRAMES = 112;
+    public static final int TYPE_FRAMES_DEADLINE_BYPASSED = 113;
+    public static final int TYPE_FRAMES_BATCHED = 114;
+
+    private static CountersManager countersManager;
+    private static File countersFile;
+    private static boolean capacityWarned;
+
+    private DeepFilterNetCounters() {
+    }
+
+    /**
+     * 分配一个新的计数器。计数器文件已满时返回一个未登记的进程内计数器，并在第一次发生时记录警告。
+     */
+    public static synchronized AtomicCounter newCounter(String label, int typeId) {
+        final CountersManager manager = manager();
+        try {
+            return manager.newCounter(label, typeId);
+        } catch (IllegalStateException e) {
+            if (!capacityWarned) {
+                capacityWarned = true;
+                log.warn("DF_WARN: 计数器文件已满 (容量 {} 个计数器)，之后的计数器不再登记到文件中，外部工具无法读取；"
+                        + "可通过 -D{}=<n> 增大容量。首个未登记的计数器: {}",
+                    manager.maxCounterId() + 1, CAPACITY_PROPERTY, label);
+            }
+            return new AtomicCounter(
+                new UnsafeBuffer(BufferUtil.allocateDirectAligned(CountersReader.COUNTER_LENGTH, BitUtil.CACHE_LINE_LENGTH)),
+                0);
+        }
+    }
+
+    /**
+     * 释放计数器，使其槽位可被复用。
+     */
+    public static synchronized void free(AtomicCounter counter) {
+        if (!counter.isClosed()) {
+            counter.close();
+        }
+    }
+
+    /**
+     * 计数器文件；尚未分配过计数器时返回 {@code null}。
+     */
+    public static synchronized File countersFile() {
+        return countersFile;
+    }
+
+    /**
+     * 只读视图，便于进程内导出 (例如定期打印或推送到监控系统)。
+     */
+    public static synchronized CountersReader reader() {
+        return manager();
+    }
+
+    private static CountersManager manager() {
+        if (countersManager == null) {
+            final int capacity = Integer.getInteger(CAPACITY_PROPERTY, DEFAULT_CAPACITY);
+            final int valuesLength = BitUtil.align(capacity * CountersReader.COUNTER_LENGTH, 4096);
+            final int metadataLength = valuesLength * (CountersReader.METADATA_LENGTH / CountersReader.COUNTER_LENGTH);
+            final long pid = ProcessHandle.current().pid();
+            final File file = new File(System.getProperty(FILE_PROPERTY,
+                new File(System.getProperty("java.io.tmpdir"), "dfnet-counters-" + pid + ".dat").getPath()));
+
+            final MappedByteBuffer mapped = IoUtil.mapNewFile(file,
+                (long)HEADER_LENGTH + metadataLength + valuesLength, true);
+            file.deleteOnExit();
+            final UnsafeBuffer header = new UnsafeBuffer(mapped, 0, HEADER_LENGTH);
+            header.putInt(VERSION_OFFSET, VERSION);
+            header.putInt(METADATA_LENGTH_OFFSET, metadataLength);
+            header.putInt(VALUES_LENGTH_OFFSET, valuesLength);
+            header.putLong(PID_OFFSET, pid);
+            countersManager = new CountersManager(
+                new UnsafeBuffer(mapped, HEADER_LENGTH, metadataLength),
+                new UnsafeBuffer(mapped, HEADER_LENGTH + metadataLength, valuesLength),
+                StandardCharsets.UTF_8, SystemEpochClock.INSTANCE, FREE_TO_REUSE_TIMEOUT_MS);
+            // 最后写入魔数，读取方看到魔数时其余头部字段已就绪
+            header.putIntVolatile(MAGIC_OFFSET, MAGIC);
+            countersFile = file;
+            log.info("DF_LOG: DeepFilterNet 计数器文件: {} (容量 {} 个计数器)", file.getAbsolutePath(), capacity);
+        }
+        return countersManager;
+    }
+}
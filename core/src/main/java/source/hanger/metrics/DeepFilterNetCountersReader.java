@@ -0,0 +1,53 @@
+package source.hanger.metrics;
+
+import java.io.File;
+import java.nio.MappedByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.agrona.IoUtil;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.agrona.concurrent.status.CountersReader;
+
+/**
+ * 从另一个进程读取 {@link DeepFilterNetCounters} 计数器文件并周期性打印。
+ * <p>
+ * 用法：{@code java -cp dfnet-java.jar source.hanger.metrics.DeepFilterNetCountersReader <计数器文件> [间隔毫秒]}，
+ * 间隔为 0 时只打印一次。
+ */
+public final class DeepFilterNetCountersReader {
+
+    private DeepFilterNetCountersReader() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        if (args.length < 1) {
+            System.err.println("用法: DeepFilterNetCountersReader <计数器文件> [间隔毫秒]");
+            System.exit(1);
+        }
+        final File file = new File(args[0]);
+        final long intervalMs = args.length > 1 ? Long.parseLong(args[1]) : 1000L;
+
+        final MappedByteBuffer mapped = IoUtil.mapExistingFile(file, "dfnet-counters");
+        final UnsafeBuffer header = new UnsafeBuffer(mapped, 0, DeepFilterNetCounters.HEADER_LENGTH);
+        if (header.getIntVolatile(DeepFilterNetCounters.MAGIC_OFFSET) != DeepFilterNetCounters.MAGIC) {
+            System.err.println("不是 DeepFilterNet 计数器文件或尚未初始化: " + file);
+            System.exit(1);
+        }
+        final int metadataLength = header.getInt(DeepFilterNetCounters.METADATA_LENGTH_OFFSET);
+        final int valuesLength = header.getInt(DeepFilterNetCounters.VALUES_LENGTH_OFFSET);
+        final long pid = header.getLong(DeepFilterNetCounters.PID_OFFSET);
+        final CountersReader reader = new CountersReader(
+            new UnsafeBuffer(mapped, DeepFilterNetCounters.HEADER_LENGTH, metadataLength),
+            new UnsafeBuffer(mapped, DeepFilterNetCounters.HEADER_LENGTH + metadataLength, valuesLength),
+            StandardCharsets.UTF_8);
+
+        do {
+            System.out.printf("==== pid %d, %tT ====%n", pid, System.currentTimeMillis());
+            reader.forEach((value, counterId, label) -> System.out.printf("%3d: %,20d - %s%n", counterId, value, label));
+            if (intervalMs > 0) {
+                Thread.sleep(intervalMs);
+            }
+        } while (intervalMs > 0);
+        IoUtil.unmap(mapped);
+    }
+}
@@ -0,0 +1,107 @@
+package source.hanger.metrics;
+
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.HdrHistogram.Recorder;
+
+/**
+ * 按 {@link PipelineStage} 记录所有流处理器的延迟分布 (纳秒)，基于 HdrHistogram {@link Recorder}。
+ * <p>
+ * {@link #record(PipelineStage, long)} 是无等待且不分配的，可以在处理线程、生产者线程和监听回调线程上并发调用。
+ * 读取方通过 {@link #intervalHistogram(PipelineStage, Histogram)} 取得自上次读取以来的区间直方图，
+ * 传入上次返回的直方图即可循环复用，稳态下不产生分配。
+ * <p>
+ * 设置系统属性 {@value #REPORT_INTERVAL_PROPERTY} (毫秒) 后会启动一个后台线程周期性输出各阶段的
+ * p50/p99/p99.9/max；同时设置 {@value #LOG_FILE_PROPERTY} 时还会以 HdrHistogram 日志格式写入区间直方图，
+ * 可用 HistogramLogAnalyzer 等工具分析。
+ */
+@Slf4j
+public final class PipelineLatencyRecorder {
+
+    public static final String REPORT_INTERVAL_PROPERTY = "df.latency.report.interval.ms";
+    public static final String LOG_FILE_PROPERTY = "df.latency.log.file";
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.SECONDS.toNanos(10);
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private static final Map<PipelineStage, Recorder> RECORDERS = new EnumMap<>(PipelineStage.class);
+
+    static {
+        for (PipelineStage stage : PipelineStage.values()) {
+            RECORDERS.put(stage, new Recorder(HIGHEST_TRACKABLE_NANOS, SIGNIFICANT_DIGITS));
+        }
+        long reportIntervalMs = Long.getLong(REPORT_INTERVAL_PROPERTY, 0L);
+        if (reportIntervalMs > 0) {
+            startReporter(reportIntervalMs, System.getProperty(LOG_FILE_PROPERTY));
+        }
+    }
+
+    private PipelineLatencyRecorder() {
+    }
+
+    /**
+     * 记录一次延迟。超出可追踪范围 (10 s) 的值按上限记录，负值按 0 记录。
+     */
+    public static void record(PipelineStage stage, long nanos) {
+        RECORDERS.get(stage).recordValue(Math.max(0, Math.min(nanos, HIGHEST_TRACKABLE_NANOS)));
+    }
+
+    /**
+     * 取得指定阶段自上次调用以来的区间直方图。
+     *
+     * @param recycle 上次返回的直方图，可为 {@code null}；传入时其内容被覆盖并作为返回值，避免分配。
+     */
+    public static Histogram intervalHistogram(PipelineStage stage, Histogram recycle) {
+        return RECORDERS.get(stage).getIntervalHistogram(recycle);
+    }
+
+    private static void startReporter(long intervalMs, String logFile) {
+        final HistogramLogWriter logWriter;
+        if (logFile != null && !logFile.isBlank()) {
+            try {
+                logWriter = new HistogramLogWriter(new PrintStream(logFile));
+                logWriter.outputLogFormatVersion();
+                logWriter.outputStartTime(System.currentTimeMillis());
+                logWriter.outputLegend();
+            } catch (FileNotFoundException e) {
+                log.error("DF_LOG_ERROR: 无法创建延迟直方图日志文件 {}: {}", logFile, e.getMessage());
+                return;
+            }
+        } else {
+            logWriter = null;
+        }
+
+        final Map<PipelineStage, Histogram> intervals = new EnumMap<>(PipelineStage.class);
+        final ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "dfnet-latency-reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reporter.scheduleAtFixedRate(() -> {
+            for (PipelineStage stage : PipelineStage.values()) {
+                Histogram interval = intervalHistogram(stage, intervals.get(stage));
+                intervals.put(stage, interval);
+                if (interval.getTotalCount() == 0) {
+                    continue;
+                }
+                log.info("DF_LATENCY: {} count={} p50={}us p99={}us p99.9={}us max={}us", stage,
+                    interval.getTotalCount(),
+                    interval.getValueAtPercentile(50) / 1000, interval.getValueAtPercentile(99) / 1000,
+                    interval.getValueAtPercentile(99.9) / 1000, interval.getMaxValue() / 1000);
+                if (logWriter != null) {
+                    interval.setTag(stage.name());
+                    logWriter.outputIntervalHistogram(interval);
+                }
+            }
+        }, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        log.info("DF_LOG: 延迟直方图报告已启动，周期 {} ms，日志文件: {}", intervalMs, logFile);
+    }
+}
@@ -0,0 +1,28 @@
+package source.hanger.metrics;
+
+/**
+ * 流处理管线中被分别统计延迟的阶段。
+ */
+public enum PipelineStage {
+
+    /**
+     * {@code processAudioFrame} 把输入写入 ring buffer 的耗时，含 ring buffer 满时的等待。
+     */
+    ENQUEUE,
+    /**
+     * 补齐一帧的最后一条输入消息从写入 ring buffer 到该帧开始处理的等待时间。
+     */
+    RING_BUFFER_WAIT,
+    /**
+     * {@code df_process_frame} 的耗时。
+     */
+    NATIVE_INFERENCE,
+    /**
+     * 帧放入监听队列到监听回调开始的等待时间。
+     */
+    LISTENER_DISPATCH,
+    /**
+     * 补齐一帧的最后一条输入消息从进入 {@code processAudioFrame} 到监听回调开始的总延迟。
+     */
+    END_TO_END
+}
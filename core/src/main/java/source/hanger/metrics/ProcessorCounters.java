@@ -0,0 +1,198 @@
+package source.hanger.metrics;
+
+import org.agrona.concurrent.status.AtomicCounter;
+
+import static source.hanger.metrics.DeepFilterNetCounters.TYPE_CALLBACK_NANOS;
+import static source.hanger.metrics.DeepFilterNetCounters.TYPE_DROPPED_BYTES;
+import static source.hanger.metrics.DeepFilterNetCounters.TYPE_FRAMES_BATCHED;
+import static source.hanger.metrics.DeepFilterNetCounters.TYPE_FRAMES_DEADLINE_BYPASSED;
+import static source.hanger.metrics.DeepFilterNetCounters.TYPE_FRAMES_DELIVERED;
+import static source.hanger.metrics.DeepFilterNetCounters.TYPE_FRAMES_PROCESSED;
+import static source.hanger.metrics.DeepFilterNetCounters.TYPE_FRAMES_PASSED_THROUGH;
+import static source.hanger.metrics.DeepFilterNetCounters.TYPE_FRAME_NANOS;
+import static source.hanger.metrics.DeepFilterNetCounters.TYPE_INPUT_DISCARDED_BYTES;
+import static source.hanger.metrics.DeepFilterNetCounters.TYPE_INPUT_DROPPED_BYTES;
+import static source.hanger.metrics.DeepFilterNetCounters.TYPE_NATIVE_NANOS;
+import static source.hanger.metrics.DeepFilterNetCounters.TYPE_OUTPUT_DROPPED_FRAMES;
+import static source.hanger.metrics.DeepFilterNetCounters.TYPE_OUTPUT_FULL_SPINS;
+import static source.hanger.metrics.DeepFilterNetCounters.TYPE_PRODUCER_FULL_SPINS;
+import static source.hanger.metrics.DeepFilterNetCounters.TYPE_RING_BUFFER_DEPTH;
+
+/**
+ * 单个流处理器的计数器，标签形如 {@code df.processor.frames-processed: <processorId>}。
+ * <p>
+ * 每个计数器只有一个写入线程 (见各字段说明)，因此使用 release 语义的单写者更新即可，热路径上没有原子读改写指令。
+ */
+public final class ProcessorCounters implements AutoCloseable {
+
+    /**
+     * 每个处理器在计数器文件中占用的计数器个数。
+     */
+    public static final int COUNTERS_PER_PROCESSOR = 15;
+
+    /**
+     * 输入 ring buffer 中尚未被处理代理读取的字节数 (处理线程写入)。
+     */
+    private final AtomicCounter ringBufferDepth;
+    /**
+     * 已处理的帧数 (处理线程写入)。
+     */
+    private final AtomicCounter framesProcessed;
+    /**
+     * 处理帧的总耗时，含 PCM 编解码 (处理线程写入)。
+     */
+    private final AtomicCounter frameNanos;
+    /**
+     * df_process_frame 的总耗时 (处理线程写入)。
+     */
+    private final AtomicCounter nativeNanos;
+    /**
+     * processAudioFrame 因 ring buffer 满而让出 CPU 的次数 (生产者线程写入)。
+     */
+    private final AtomicCounter producerFullSpins;
+    /**
+     * 处理代理因监听队列满而让出 CPU 的次数 (处理线程写入)。
+     */
+    private final AtomicCounter outputFullSpins;
+    /**
+     * 因帧累积区空间不足而丢弃的输入字节数 (处理线程写入)。
+     */
+    private final AtomicCounter droppedBytes;
+    /**
+     * 已投递给监听者的帧数 (由该流唯一的消费线程写入)。
+     */
+    private final AtomicCounter framesDelivered;
+    /**
+     * 监听回调的总耗时 (消费线程写入)。
+     */
+    private final AtomicCounter callbackNanos;
+    /**
+     * 输入 ring buffer 满时按过载策略丢弃的新输入字节数 (生产者线程写入)。
+     */
+    private final AtomicCounter inputDroppedBytes;
+    /**
+     * 按 {@code DROP_OLDEST} 策略从输入 ring buffer 中丢弃的积压输入字节数 (处理线程写入)。
+     */
+    private final AtomicCounter inputDiscardedBytes;
+    /**
+     * 按 {@code PASSTHROUGH} 策略跳过推理、输出对齐的原始音频的帧数 (处理线程写入)。
+     */
+    private final AtomicCounter framesPassedThrough;
+    /**
+     * 监听队列满时按过载策略丢弃的输出帧数 (处理线程写入)。
+     */
+    private final AtomicCounter outputDroppedFrames;
+    /**
+     * 预计超出延迟预算而跳过推理的帧数 (处理线程写入)。
+     */
+    private final AtomicCounter framesDeadlineBypassed;
+    /**
+     * 由工作线程的批次 ({@code df_process_frames}) 推理的帧数 (处理线程写入)。
+     */
+    private final AtomicCounter framesBatched;
+
+    public ProcessorCounters(String processorId) {
+        this.ringBufferDepth = newCounter("ring-buffer-depth", processorId, TYPE_RING_BUFFER_DEPTH);
+        this.framesProcessed = newCounter("frames-processed", processorId, TYPE_FRAMES_PROCESSED);
+        this.frameNanos = newCounter("frame-nanos", processorId, TYPE_FRAME_NANOS);
+        this.nativeNanos = newCounter("native-nanos", processorId, TYPE_NATIVE_NANOS);
+        this.producerFullSpins = newCounter("producer-full-spins", processorId, TYPE_PRODUCER_FULL_SPINS);
+        this.outputFullSpins = newCounter("output-full-spins", processorId, TYPE_OUTPUT_FULL_SPINS);
+        this.droppedBytes = newCounter("dropped-bytes", processorId, TYPE_DROPPED_BYTES);
+        this.framesDelivered = newCounter("frames-delivered", processorId, TYPE_FRAMES_DELIVERED);
+        this.callbackNanos = newCounter("callback-nanos", processorId, TYPE_CALLBACK_NANOS);
+        this.inputDroppedBytes = newCounter("input-dropped-bytes", processorId, TYPE_INPUT_DROPPED_BYTES);
+        this.inputDiscardedBytes = newCounter("input-discarded-bytes", processorId, TYPE_INPUT_DISCARDED_BYTES);
+        this.framesPassedThrough = newCounter("frames-passed-through", processorId, TYPE_FRAMES_PASSED_THROUGH);
+        this.outputDroppedFrames = newCounter("output-dropped-frames", processorId, TYPE_OUTPUT_DROPPED_FRAMES);
+        this.framesDeadlineBypassed = newCounter("frames-deadline-bypassed", processorId,
+            TYPE_FRAMES_DEADLINE_BYPASSED);
+        this.framesBatched = newCounter("frames-batched", processorId, TYPE_FRAMES_BATCHED);
+    }
+
+    private static AtomicCounter newCounter(String name, String processorId, int typeId) {
+        return DeepFilterNetCounters.newCounter("df.processor." + name + ": " + processorId, typeId);
+    }
+
+    public AtomicCounter ringBufferDepth() {
+        return ringBufferDepth;
+    }
+
+    public AtomicCounter framesProcessed() {
+        return framesProcessed;
+    }
+
+    public AtomicCounter frameNanos() {
+        return frameNanos;
+    }
+
+    public AtomicCounter nativeNanos() {
+        return nativeNanos;
+    }
+
+    public AtomicCounter producerFullSpins() {
+        return producerFullSpins;
+    }
+
+    public AtomicCounter outputFullSpins() {
+        return outputFullSpins;
+    }
+
+    public AtomicCounter droppedBytes() {
+        return droppedBytes;
+    }
+
+    public AtomicCounter framesDelivered() {
+        return framesDelivered;
+    }
+
+    public AtomicCounter callbackNanos() {
+        return callbackNanos;
+    }
+
+    public AtomicCounter inputDroppedBytes() {
+        return inputDroppedBytes;
+    }
+
+    public AtomicCounter inputDiscardedBytes() {
+        return inputDiscardedBytes;
+    }
+
+    public AtomicCounter framesPassedThrough() {
+        return framesPassedThrough;
+    }
+
+    public AtomicCounter outputDroppedFrames() {
+        return outputDroppedFrames;
+    }
+
+    public AtomicCounter framesDeadlineBypassed() {
+        return framesDeadlineBypassed;
+    }
+
+    public AtomicCounter framesBatched() {
+        return framesBatched;
+    }
+
+    /**
+     * 释放全部计数器。只能在处理代理和监听投递都已停止后调用。
+     */
+    @Override
+    public void close() {
+        DeepFilterNetCounters.free(ringBufferDepth);
+        DeepFilterNetCounters.free(framesProcessed);
+        DeepFilterNetCounters.free(frameNanos);
+        DeepFilterNetCounters.free(nativeNanos);
+        DeepFilterNetCounters.free(producerFullSpins);
+        DeepFilterNetCounters.free(outputFullSpins);
+        DeepFilterNetCounters.free(droppedBytes);
+        DeepFilterNetCounters.free(framesDelivered);
+        DeepFilterNetCounters.free(callbackNanos);
+        DeepFilterNetCounters.free(inputDroppedBytes);
+        DeepFilterNetCounters.free(inputDiscardedBytes);
+        DeepFilterNetCounters.free(framesPassedThrough);
+        DeepFilterNetCounters.free(outputDroppedFrames);
+        DeepFilterNetCounters.free(framesDeadlineBypassed);
+        DeepFilterNetCounters.free(framesBatched);
+    }
+}
@@ -0,0 +1,112 @@
+package source.hanger.model;
+
+import lombok.extern.slf4j.Slf4j;
+import source.hanger.backend.DeepFilterNetBackend;
+import source.hanger.backend.DeepFilterNetModel;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+@Slf4j
+public class DeepFilterNetModelManager {
+
+    private static final String MODEL_RESOURCE_PATH = "models/DeepFilterNet3_onnx.tar.gz"; // JAR 内部模型路径
+    public static final String MODEL_PATH_PROPERTY = "df.model.path"; // 设置后直接使用该模型文件，不再从 JAR 中提取
+    private static File modelTempFile; // 用于存储已提取的临时模型文件的引用
+
+    /**
+     * 获取指定后端的默认模型 ({@link DeepFilterNetModelRegistry#DEFAULT_MODEL})，首次调用时加载。
+     * <p>
+     * 后端支持从内存加载时 (libdf 提供 {@code df_model_load})，模型内容来自 {@link #getModelBytes()}：
+     * 不再提取临时文件，模型压缩包只解析一次，之后每个状态只复制已构建好的运行时。
+     * 否则回退为 {@link DeepFilterNetBackend#fileModel(String)}，每个状态仍从 {@link #getModelPath()} 读取模型文件。
+     *
+     * @throws UncheckedIOException  如果无法读取模型。
+     * @throws IllegalStateException 如果模型无法解析。
+     */
+    public static DeepFilterNetModel getModel(DeepFilterNetBackend backend) {
+        return DeepFilterNetModelRegistry.getModel(DeepFilterNetModelRegistry.DEFAULT_MODEL, backend);
+    }
+
+    /**
+     * 读取模型压缩包的内容。
+     * 若设置了系统属性 {@value #MODEL_PATH_PROPERTY}，以只读方式内存映射该文件，模型可以放在 JAR 之外独立发布；
+     * 否则把 JAR 内的模型资源读入直接缓冲区，不写临时文件。
+     *
+     * @throws UncheckedIOException 如果无法读取模型。
+     */
+    public static ByteBuffer getModelBytes() {
+        String overridePath = System.getProperty(MODEL_PATH_PROPERTY);
+        if (overridePath != null && !overridePath.isBlank()) {
+            return mapModelFile(Path.of(overridePath));
+        }
+        try (InputStream inputStream = DeepFilterNetModelManager.class.getClassLoader().getResourceAsStream(
+                MODEL_RESOURCE_PATH)) {
+            if (inputStream == null) {
+                log.error("DF_ERROR: JAR 资源中未找到模型文件: {}", MODEL_RESOURCE_PATH);
+                throw new FileNotFoundException("JAR 资源中未找到模型文件: " + MODEL_RESOURCE_PATH);
+            }
+            byte[] bytes = inputStream.readAllBytes();
+            return ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+        } catch (IOException e) {
+            log.error("DF_ERROR: 无法读取模型资源: {}", e.getMessage());
+            throw new UncheckedIOException("无法读取模型资源", e);
+        }
+    }
+
+    /**
+     * 以只读方式内存映射模型文件。
+     *
+     * @throws UncheckedIOException 如果无法读取该文件。
+     */
+    static ByteBuffer mapModelFile(Path modelFile) {
+        try (FileChannel channel = FileChannel.open(modelFile, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException e) {
+            log.error("DF_ERROR: 无法映射模型文件 {}: {}", modelFile, e.getMessage());
+            throw new UncheckedIOException("无法映射模型文件: " + modelFile, e);
+        }
+    }
+
+    /**
+     * 获取 DeepFilterNet ONNX 模型文件的绝对路径。
+     * 若设置了系统属性 {@value #MODEL_PATH_PROPERTY}，直接返回该路径；
+     * 否则模型文件将从 JAR 资源中提取到临时位置，并确保在应用程序生命周期中只被提取一次。
+     * 提取的临时文件将在 JVM 退出时自动删除。
+     *
+     * @return DeepFilterNet ONNX 模型文件的绝对路径。
+     * @throws UncheckedIOException 如果无法提取模型资源。
+     */
+    public static synchronized String getModelPath() {
+        String overridePath = System.getProperty(MODEL_PATH_PROPERTY);
+        if (overridePath != null && !overridePath.isBlank()) {
+            return new File(overridePath).getAbsolutePath();
+        }
+        if (modelTempFile == null) {
+            try (InputStream inputStream = DeepFilterNetModelManager.class.getClassLoader().getResourceAsStream(
+                    MODEL_RESOURCE_PATH)) {
+                if (inputStream == null) {
+                    log.error("DF_ERROR: JAR 资源中未找到模型文件: {}", MODEL_RESOURCE_PATH);
+                    throw new FileNotFoundException("JAR 资源中未找到模型文件: " + MODEL_RESOURCE_PATH);
+                }
+                modelTempFile = File.createTempFile("df_model_", ".tar.gz");
+                modelTempFile.deleteOnExit(); // 确保 JVM 退出时删除文件
+                Files.copy(inputStream, modelTempFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                log.info("DF_INFO: 模型已提取到临时文件: {}", modelTempFile.getAbsolutePath());
+            } catch (IOException e) {
+                log.error("DF_ERROR: 无法提取模型资源: {}", e.getMessage());
+                throw new UncheckedIOException("无法提取模型资源", e);
+            }
+        }
+        return modelTempFile.getAbsolutePath();
+    }
+}
@@ -0,0 +1,161 @@
+package source.hanger.model;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import lombok.extern.slf4j.Slf4j;
+import source.hanger.backend.DeepFilterNetBackend;
+import source.hanger.backend.DeepFilterNetBackends;
+import source.hanger.backend.DeepFilterNetModel;
+import source.hanger.backend.DeepFilterNetStatePools;
+
+/**
+ * 按名称管理多个 DeepFilterNet 模型，例如完整的 DeepFilterNet3 与低延迟变体 ({@code DeepFilterNet3_ll})，
+ * 使每个流可以选择自己的模型。
+ * <p>
+ * 名称 {@value #DEFAULT_MODEL} 始终存在，对应 {@link DeepFilterNetModelManager} 的默认模型 (JAR 内资源或
+ * {@value DeepFilterNetModelManager#MODEL_PATH_PROPERTY})。其他模型通过系统属性 {@value #MODELS_PROPERTY}
+ * (例如 {@code ll=/opt/models/DeepFilterNet3_ll_onnx.tar.gz,dfn3-v2=/opt/models/v2.tar.gz}) 或
+ * {@link #register(String, Path)} 注册为模型文件。
+ * <p>
+ * 模型在首次使用时按 (名称, 后端) 加载一次，之后所有状态共享。用同一名称重新注册即发布新版本：
+ * 旧版本的模型和状态池被释放，之后借用的状态来自新版本；已经在运行的流继续使用旧状态，
+ * 直到调用 {@link source.hanger.processor.DeepFilterNetStreamProcessor#switchModel(String)} 在帧边界切换。
+ */
+@Slf4j
+public final class DeepFilterNetModelRegistry {
+
+    public static final String DEFAULT_MODEL = "default";
+    public static final String MODELS_PROPERTY = "df.models";
+
+    private static final Map<String, Path> modelFiles = new HashMap<>();
+    private static final Map<LoadedKey, DeepFilterNetModel> loaded = new HashMap<>();
+    private static final Map<String, Integer> versions = new HashMap<>();
+
+    static {
+        String value = System.getProperty(MODELS_PROPERTY);
+        if (value != null && !value.isBlank()) {
+            for (String item : value.split(",")) {
+                int separator = item.indexOf('=');
+                if (separator <= 0) {
+                    log.warn("DF_WARN: 无法解析 {} 中的 '{}'，应为 名称=模型文件。", MODELS_PROPERTY, item);
+                    continue;
+                }
+                register(item.substring(0, separator).trim(), Path.of(item.substring(separator + 1).trim()));
+            }
+        }
+    }
+
+    private DeepFilterNetModelRegistry() {
+    }
+
+    /**
+     * 注册或替换一个命名模型。替换时旧版本已加载的模型及其状态池被释放，正在使用旧状态的流不受影响。
+     *
+     * @param name      模型名称，不能是 {@value #DEFAULT_MODEL}。
+     * @param modelFile DeepFilterNet tar.gz ONNX 模型文件。
+     * @throws IllegalArgumentException 如果名称为 {@value #DEFAULT_MODEL} 或文件不存在。
+     */
+    public static void register(String name, Path modelFile) {
+        if (DEFAULT_MODEL.equals(name)) {
+            throw new IllegalArgumentException(
+                "DF_ERROR: 默认模型由 " + DeepFilterNetModelManager.MODEL_PATH_PROPERTY + " 配置，不能重新注册");
+        }
+        if (!Files.isRegularFile(modelFile)) {
+            throw new IllegalArgumentException("DF_ERROR: 模型文件不存在: " + modelFile);
+        }
+        final List<DeepFilterNetModel> retired;
+        synchronized (DeepFilterNetModelRegistry.class) {
+            modelFiles.put(name, modelFile.toAbsolutePath());
+            int version = versions.merge(name, 1, Integer::sum);
+            retired = unload(name);
+            log.info("DF_LOG: 模型 {} 已注册为 {} (版本 {})。", name, modelFile.toAbsolutePath(), version);
+        }
+        for (DeepFilterNetModel model : retired) {
+            // 状态不依赖模型，释放模型不影响仍在使用旧状态的流
+            DeepFilterNetStatePools.closeModel(model);
+            model.close();
+        }
+    }
+
+    /**
+     * 已注册的模型名称，包括 {@value #DEFAULT_MODEL}。
+     */
+    public static synchronized Set<String> names() {
+        Set<String> names = new TreeSet<>(modelFiles.keySet());
+        names.add(DEFAULT_MODEL);
+        return names;
+    }
+
+    /**
+     * 模型被注册的次数，默认模型为 0，用于判断流使用的模型是否已有新版本。
+     */
+    public static synchronized int version(String name) {
+        return versions.getOrDefault(name, 0);
+    }
+
+    /**
+     * 获取默认后端上的命名模型。
+     */
+    public static DeepFilterNetModel getModel(String name) {
+        return getModel(name, DeepFilterNetBackends.getDefault());
+    }
+
+    /**
+     * 获取指定后端上的命名模型，首次调用时加载。
+     *
+     * @throws IllegalArgumentException 如果名称未注册。
+     * @throws IllegalStateException    如果模型无法解析。
+     */
+    public static synchronized DeepFilterNetModel getModel(String name, DeepFilterNetBackend backend) {
+        final LoadedKey key = new LoadedKey(name, backend);
+        DeepFilterNetModel model = loaded.get(key);
+        if (model == null) {
+            model = load(name, backend);
+            loaded.put(key, model);
+        }
+        return model;
+    }
+
+    private static DeepFilterNetModel load(String name, DeepFilterNetBackend backend) {
+        final Path modelFile = modelFiles.get(name);
+        if (modelFile == null && !DEFAULT_MODEL.equals(name)) {
+            throw new IllegalArgumentException("DF_ERROR: 未注册的模型: " + name + "，已注册: " + names());
+        }
+        if (!backend.supportsModelLoading()) {
+            log.warn("DF_WARN: 后端 {} 不支持从内存加载模型，模型 {} 的每个状态将从模型文件创建。", backend.name(), name);
+            return backend.fileModel(modelFile != null
+                ? modelFile.toString() : DeepFilterNetModelManager.getModelPath());
+        }
+        final long startNs = System.nanoTime();
+        DeepFilterNetModel model = backend.loadModel(modelFile != null
+            ? DeepFilterNetModelManager.mapModelFile(modelFile) : DeepFilterNetModelManager.getModelBytes());
+        log.info("DF_INFO: 模型 {} 已从内存加载 (后端 {})，耗时 {} ms，所有状态共享这一份模型。", name, backend.name(),
+            (System.nanoTime() - startNs) / 1_000_000);
+        return model;
+    }
+
+    private static List<DeepFilterNetModel> unload(String name) {
+        List<DeepFilterNetModel> removed = new ArrayList<>();
+        Iterator<Map.Entry<LoadedKey, DeepFilterNetModel>> iterator = loaded.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<LoadedKey, DeepFilterNetModel> entry = iterator.next();
+            if (entry.getKey().name().equals(name)) {
+                removed.add(entry.getValue());
+                iterator.remove();
+            }
+        }
+        return removed;
+    }
+
+    // 后端按实例区分 (record 的 equals 对未覆写 equals 的后端即为引用相等)
+    private record LoadedKey(String name, DeepFilterNetBackend backend) {
+    }
+}
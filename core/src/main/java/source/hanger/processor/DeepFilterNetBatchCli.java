@@ -0,0 +1,70 @@
+package source.hanger.processor;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 批量降噪命令行入口。
+ * <p>
+ * 用法：{@code java -cp dfnet-java.jar source.hanger.processor.DeepFilterNetBatchCli [-j 并行度] [-a 衰减限制dB]
+ * <输出目录> <输入>...}。输入可以是 WAV 文件、目录 (递归处理其中的 .wav 文件)，或 {@code @列表文件}
+ * (每行一个路径，忽略空行与 # 开头的行)。有文件失败时以状态码 2 退出。
+ */
+public final class DeepFilterNetBatchCli {
+
+    private static final String USAGE = "用法: DeepFilterNetBatchCli [-j 并行度] [-a 衰减限制dB] <输出目录> <输入文件|目录|@列表文件>...";
+
+    private DeepFilterNetBatchCli() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        float attenLim = 100.0f;
+        int index = 0;
+        try {
+            for (; index < args.length && args[index].startsWith("-"); index += 2) {
+                switch (args[index]) {
+                    case "-j" -> parallelism = Integer.parseInt(args[index + 1]);
+                    case "-a" -> attenLim = Float.parseFloat(args[index + 1]);
+                    default -> throw new IllegalArgumentException("未知选项: " + args[index]);
+                }
+            }
+        } catch (RuntimeException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(1);
+        }
+        if (args.length - index < 2) {
+            System.err.println(USAGE);
+            System.exit(1);
+        }
+
+        final Path outputDir = Path.of(args[index++]);
+        final List<Path> inputs = new ArrayList<>();
+        for (; index < args.length; index++) {
+            if (args[index].startsWith("@")) {
+                for (String line : Files.readAllLines(Path.of(args[index].substring(1)))) {
+                    String trimmed = line.trim();
+                    if (!trimmed.isEmpty() && !trimmed.startsWith("#")) {
+                        inputs.add(Path.of(trimmed));
+                    }
+                }
+            } else {
+                inputs.add(Path.of(args[index]));
+            }
+        }
+
+        final DeepFilterNetBatchProcessor.BatchResult result;
+        try (DeepFilterNetBatchProcessor processor = new DeepFilterNetBatchProcessor(attenLim, parallelism)) {
+            result = processor.denoise(inputs, outputDir);
+        }
+        System.out.println(result);
+        for (String failure : result.failures()) {
+            System.err.println("失败: " + failure);
+        }
+        System.exit(result.failures().isEmpty() ? 0 : 2);
+    }
+}
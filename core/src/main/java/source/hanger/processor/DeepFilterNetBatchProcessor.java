@@ -0,0 +1,254 @@
+package source.hanger.processor;
+
+import java.io.IOException;
+import java.nio.FloatBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+
+import lombok.extern.slf4j.Slf4j;
+import org.agrona.concurrent.UnsafeBuffer;
+import source.hanger.backend.DeepFilterNetBackends;
+import source.hanger.backend.DeepFilterNetState;
+import source.hanger.backend.DeepFilterNetStatePool;
+import source.hanger.codec.Pcm16Codec;
+import source.hanger.codec.Pcm16Codecs;
+import source.hanger.codec.PolyphaseResampler;
+import source.hanger.model.DeepFilterNetModelManager;
+import source.hanger.processor.agent.DeepFilterNetProcessingAgent;
+import source.hanger.util.WavFileWriter;
+
+/**
+ * 批量降噪大量 WAV 文件。
+ * <p>
+ * 文件按提交顺序进入工作队列，由 {@code parallelism} 个工作线程处理；每个线程处理一个文件时从
+ * {@link DeepFilterNetStatePool} 借用原生状态，处理完重置后归还，因此整个批次最多只创建 {@code parallelism} 个状态，
+ * 模型加载不再随文件数增长。文件以流的方式逐帧处理，内存占用与文件长度无关。
+ * 采样率不是 48 kHz 的文件 (须为 100 Hz 的整数倍) 在推理前后重采样，输出保持输入的采样率。
+ */
+@Slf4j
+public class DeepFilterNetBatchProcessor implements AutoCloseable {
+
+    private final int parallelism;
+    private final DeepFilterNetStatePool statePool;
+
+    /**
+     * 使用所有 CPU 核的批量处理器。
+     */
+    public DeepFilterNetBatchProcessor(float attenLim) {
+        this(attenLim, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param attenLim    衰减限制 (dB)。
+     * @param parallelism 并行处理的文件数，同时也是原生状态数的上限。
+     */
+    public DeepFilterNetBatchProcessor(float attenLim, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("DF_ERROR: 并行度必须为正数: " + parallelism);
+        }
+        this.parallelism = parallelism;
+        this.statePool = new DeepFilterNetStatePool(
+            DeepFilterNetModelManager.getModel(DeepFilterNetBackends.getDefault()), attenLim, parallelism);
+    }
+
+    /**
+     * 处理一组输入。输入可以是 WAV 文件 (输出到 {@code outputDir} 下的同名文件)，
+     * 也可以是目录 (递归查找其中的 {@code .wav} 文件，在 {@code outputDir} 下保持相对路径)。
+     * 单个文件失败不影响其余文件，失败记录在返回结果中。
+     *
+     * @throws IOException 如果无法遍历输入目录。
+     */
+    public BatchResult denoise(List<Path> inputs, Path outputDir) throws IOException, InterruptedException {
+        final List<Path[]> jobs = new ArrayList<>();
+        for (Path input : inputs) {
+            if (Files.isDirectory(input)) {
+                try (Stream<Path> files = Files.walk(input)) {
+                    files.filter(path -> Files.isRegularFile(path) && isWav(path))
+                        .sorted()
+                        .forEach(path -> jobs.add(new Path[]{path, outputDir.resolve(input.relativize(path))}));
+                }
+            } else {
+                jobs.add(new Path[]{input, outputDir.resolve(input.getFileName())});
+            }
+        }
+        log.info("DF_LOG: 批量降噪开始: {} 个文件，并行度 {}。", jobs.size(), parallelism);
+
+        final long startNs = System.nanoTime();
+        final AtomicInteger threadIndex = new AtomicInteger();
+        final ExecutorService workers = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "dfnet-batch-worker-" + threadIndex.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        final List<Future<Long>> futures = new ArrayList<>(jobs.size());
+        try {
+            for (Path[] job : jobs) {
+                futures.add(workers.submit(() -> denoiseFile(job[0], job[1])));
+            }
+
+            long totalAudioMicros = 0;
+            int succeeded = 0;
+            List<String> failures = new ArrayList<>();
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    totalAudioMicros += futures.get(i).get();
+                    succeeded++;
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    log.error("DF_LOG_ERROR: 文件 {} 降噪失败: {}", jobs.get(i)[0], cause.getMessage(), cause);
+                    failures.add(jobs.get(i)[0] + ": " + cause.getMessage());
+                }
+            }
+            BatchResult result = new BatchResult(succeeded, failures, totalAudioMicros / 1e6,
+                (System.nanoTime() - startNs) / 1e9);
+            log.info("DF_LOG: 批量降噪完成: {}", result);
+            return result;
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    /**
+     * 流式处理单个文件。
+     *
+     * @return 处理的音频时长 (微秒)。
+     */
+    private long denoiseFile(Path input, Path output) throws IOException, UnsupportedAudioFileException {
+        final long startNs = System.nanoTime();
+        try (AudioInputStream sourceStream = AudioSystem.getAudioInputStream(input.toFile());
+             AudioInputStream audioStream = DeepFilterNetProcessor.toLittleEndian(sourceStream)) {
+            final AudioFormat format = audioStream.getFormat();
+            if (format.getChannels() != 1 || format.getSampleSizeInBits() != 16) {
+                throw new UnsupportedAudioFileException(
+                    "DF_ERROR: 仅支持 16 bit 单声道音频，输入为 " + format.getChannels() + " 声道 "
+                        + format.getSampleSizeInBits() + " bit");
+            }
+            final int sampleRate = (int)format.getSampleRate();
+
+            // 借出的状态已重置为新建时的样子，关闭时重置后归还状态池
+            try (DeepFilterNetState state = statePool.acquire()) {
+                final int frameLength = state.frameLength();
+                // 文件采样率下与一个 DF 帧等长的样本数，48 kHz 时等于 frameLength
+                final int framesPerHop;
+                try {
+                    if (sampleRate != format.getSampleRate()) {
+                        throw new IllegalArgumentException("DF_ERROR: 采样率不是整数");
+                    }
+                    framesPerHop = DeepFilterNetProcessingAgent.framesPerHop(frameLength, sampleRate);
+                } catch (IllegalArgumentException e) {
+                    throw new UnsupportedAudioFileException(
+                        "DF_ERROR: 不支持的采样率 " + format.getSampleRate() + " Hz，采样率须为 100 Hz 的整数倍。");
+                }
+                final boolean resample = sampleRate != DeepFilterNetProcessingAgent.SAMPLE_RATE;
+                final FrameResampler resampler = resample
+                    ? new FrameResampler(sampleRate, framesPerHop, frameLength)
+                    : null;
+                try (WavFileWriter writer = new WavFileWriter(format, output.toString())) {
+                    final int bytesPerFrame = framesPerHop * format.getFrameSize();
+                    final Pcm16Codec codec = Pcm16Codecs.create();
+                    final byte[] frameBytes = new byte[bytesPerFrame];
+                    final UnsafeBuffer framePcm = new UnsafeBuffer(frameBytes);
+                    long frames = 0;
+                    // 与串行处理一致：末尾不足一帧的样本忽略
+                    while (audioStream.readNBytes(frameBytes, 0, bytesPerFrame) == bytesPerFrame) {
+                        processFrame(state, codec, framePcm, writer, frameLength, resampler);
+                        frames++;
+                    }
+                    log.debug("DF_LOG: {} -> {} 完成，{} 帧，耗时 {} ms。", input, output, frames,
+                        (System.nanoTime() - startNs) / 1_000_000);
+                    return (long)(frames * framesPerHop * 1e6 / format.getSampleRate());
+                }
+            }
+        }
+    }
+
+    /**
+     * 处理一帧；{@code resampler} 不为 {@code null} 时 PCM 为文件采样率，推理前后在它与 48 kHz 之间重采样。
+     */
+    private static void processFrame(DeepFilterNetState state, Pcm16Codec codec, UnsafeBuffer framePcm,
+        WavFileWriter writer, int frameLength, FrameResampler resampler) throws IOException {
+        if (resampler == null) {
+            codec.decode(framePcm, 0, state.inputFrame(), 0, frameLength, 1.0f);
+            state.processFrame();
+            codec.encode(state.outputFrame(), 0, framePcm, 0, frameLength, 1.0f);
+        } else {
+            final int framesPerHop = resampler.pcm.capacity();
+            codec.decode(framePcm, 0, resampler.pcm, 0, framesPerHop, 1.0f);
+            resampler.up.process(resampler.pcm, 0, framesPerHop, state.inputFrame(), 0);
+            state.processFrame();
+            resampler.down.process(state.outputFrame(), 0, frameLength, resampler.pcm, 0);
+            codec.encode(resampler.pcm, 0, framePcm, 0, framesPerHop, 1.0f);
+        }
+        writer.write(framePcm.byteArray(), 0, framePcm.capacity());
+    }
+
+    /**
+     * 一个文件的重采样器对 (文件采样率 -> 48 kHz -> 文件采样率) 与文件采样率下一帧的暂存区。
+     */
+    private static final class FrameResampler {
+
+        private final PolyphaseResampler up;
+        private final PolyphaseResampler down;
+        private final FloatBuffer pcm;
+
+        FrameResampler(int sampleRate, int framesPerHop, int frameLength) {
+            this.up = new PolyphaseResampler(sampleRate, DeepFilterNetProcessingAgent.SAMPLE_RATE, framesPerHop);
+            this.down = new PolyphaseResampler(DeepFilterNetProcessingAgent.SAMPLE_RATE, sampleRate, frameLength);
+            this.pcm = FloatBuffer.allocate(framesPerHop);
+        }
+    }
+
+    private static boolean isWav(Path path) {
+        return path.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".wav");
+    }
+
+    public int parallelism() {
+        return parallelism;
+    }
+
+    /**
+     * 释放状态池中的所有原生状态。
+     */
+    @Override
+    public void close() {
+        statePool.close();
+    }
+
+    /**
+     * 批量处理的汇总结果。
+     *
+     * @param filesSucceeded 成功处理的文件数。
+     * @param failures       失败的文件及原因。
+     * @param audioSeconds   成功处理的音频总时长 (秒)。
+     * @param wallSeconds    整个批次的墙钟耗时 (秒)。
+     */
+    public record BatchResult(int filesSucceeded, List<String> failures, double audioSeconds, double wallSeconds) {
+
+        /**
+         * 实时倍数：每秒墙钟时间处理的音频秒数。
+         */
+        public double realtimeFactor() {
+            return wallSeconds > 0 ? audioSeconds / wallSeconds : 0.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "成功 %d 个文件，失败 %d 个，音频 %.1f s，耗时 %.1f s，实时倍数 %.1fx",
+                filesSucceeded, failures.size(), audioSeconds, wallSeconds, realtimeFactor());
+        }
+    }
+}
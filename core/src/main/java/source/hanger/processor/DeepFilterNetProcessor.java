@@ -0,0 +1,251 @@
+package source.hanger.processor;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.FloatBuffer;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+
+import lombok.extern.slf4j.Slf4j;
+import org.agrona.concurrent.UnsafeBuffer;
+import source.hanger.DeepFilterNetServiceInitializer;
+import source.hanger.backend.DeepFilterNetBackends;
+import source.hanger.backend.DeepFilterNetState;
+import source.hanger.backend.DeepFilterNetStatePools;
+import source.hanger.codec.Pcm16Codec;
+import source.hanger.codec.Pcm16Codecs;
+import source.hanger.codec.PolyphaseResampler;
+import source.hanger.model.DeepFilterNetModelManager;
+import source.hanger.model.DeepFilterNetModelRegistry;
+import source.hanger.processor.agent.DeepFilterNetListenerAgent;
+import source.hanger.processor.agent.DeepFilterNetProcessingAgent;
+import source.hanger.processor.agent.ProcessorOutputGroup;
+import source.hanger.util.AudioFrameListener;
+import source.hanger.util.WavFileWriter;
+
+@Slf4j
+public class DeepFilterNetProcessor {
+
+    private static final long AGENT_SHUTDOWN_TIMEOUT_MS = 500;
+
+    private final int frameLength;
+    private final float attenLim;
+    private final DeepFilterNetState dfState;
+    private final String processorId; // 新增：用于唯一标识处理器实例
+
+    /**
+     * DeepFilterNetProcessor 构造函数，初始化模型。
+     *
+     * @param attenLim 衰减限制 (dB)。
+     * // 移除 logLevel 参数
+     * @throws RuntimeException 如果模型无法创建或文件不存在。
+     */
+    public DeepFilterNetProcessor(float attenLim) throws RuntimeException {
+        // 确保 DeepFilterNet 核心服务已初始化 (包括 DeepFilterNetListenerAgent 的 AgentRunner)
+        DeepFilterNetServiceInitializer.initialize();
+
+        this.processorId = java.util.UUID.randomUUID().toString(); // 生成唯一 ID
+        this.attenLim = attenLim;
+
+        // 从预热的状态池借用 (池中状态均禁用原生日志)；创建失败时后端抛出 IllegalStateException
+        dfState = DeepFilterNetStatePools.acquire(attenLim);
+        log.info("DF_LOG: DeepFilterNet 模型创建成功。");
+
+        // 2. 获取 DeepFilterNet 期望的帧长度
+        frameLength = dfState.frameLength();
+        log.info("DF_LOG: DeepFilterNet 期望的帧长度 (样本数): {}", frameLength);
+    }
+
+    /**
+     * 处理 WAV 文件并生成降噪后的文件。多声道 (例如立体声) 文件借用一个对应声道数的状态，所有声道一次推理。
+     * 采样率不是 48 kHz 的文件 (例如 8 / 16 / 24 / 44.1 kHz) 在推理前后重采样，输出保持输入的采样率。
+     *
+     * @param inputWavPath  输入 WAV 文件路径。
+     * @param outputWavPath 输出降噪后的 WAV 文件路径。
+     * @throws IOException 如果文件操作失败。
+     * @throws UnsupportedAudioFileException 如果输入文件不是有效的 WAV 格式，或采样率不能按整帧重采样。
+     * @throws RuntimeException 如果音频处理过程中发生错误。
+     */
+    public void denoiseWavFile(String inputWavPath, String outputWavPath)
+        throws IOException, UnsupportedAudioFileException, RuntimeException {
+        File inputFile = new File(inputWavPath);
+        if (!inputFile.exists()) {
+            throw new IOException("DF_ERROR: 输入WAV文件不存在: " + inputWavPath);
+        }
+
+        try (AudioInputStream sourceStream = AudioSystem.getAudioInputStream(inputFile);
+             AudioInputStream audioInputStream = toLittleEndian(sourceStream)) {
+            AudioFormat audioFormat = audioInputStream.getFormat();
+            log.info("DF_LOG: 输入音频格式: {}", audioFormat.toString());
+
+            if (audioFormat.getSampleSizeInBits() != 16) {
+                log.warn(
+                    "DF_WARNING: 建议使用 16 bit 音频。输入文件是 {} bit。", audioFormat.getSampleSizeInBits());
+            }
+            final int sampleRate = (int)audioFormat.getSampleRate();
+            try {
+                if (sampleRate != audioFormat.getSampleRate()) {
+                    throw new IllegalArgumentException("DF_ERROR: 采样率不是整数");
+                }
+                DeepFilterNetProcessingAgent.framesPerHop(frameLength, sampleRate);
+            } catch (IllegalArgumentException e) {
+                throw new UnsupportedAudioFileException(
+                    "DF_ERROR: 不支持的采样率 " + audioFormat.getSampleRate() + " Hz，采样率须为 100 Hz 的整数倍。");
+            }
+            if (sampleRate != DeepFilterNetProcessingAgent.SAMPLE_RATE) {
+                log.info("DF_LOG: 输入文件是 {} Hz，推理前后重采样。", sampleRate);
+            }
+
+            final int channels = audioFormat.getChannels();
+            if (channels == 1) {
+                denoiseFrames(audioInputStream, audioFormat, dfState, outputWavPath);
+                return;
+            }
+            final DeepFilterNetState channelState;
+            try {
+                channelState = DeepFilterNetStatePools.acquire(DeepFilterNetModelRegistry.DEFAULT_MODEL, attenLim,
+                    channels);
+            } catch (UnsupportedOperationException e) {
+                throw new UnsupportedAudioFileException(
+                    "DF_ERROR: 当前 libdf 仅支持单声道音频。输入文件有 " + channels + " 声道。");
+            }
+            try (channelState) {
+                log.info("DF_LOG: 以 {} 声道状态处理输入。", channels);
+                denoiseFrames(audioInputStream, audioFormat, channelState, outputWavPath);
+            }
+        }
+    }
+
+    private void denoiseFrames(AudioInputStream audioInputStream, AudioFormat audioFormat, DeepFilterNetState state,
+        String outputWavPath) throws IOException {
+        final int channels = state.channels();
+        final int sampleRate = (int)audioFormat.getSampleRate();
+        // 文件采样率下与一个 DF 帧等长的样本数 (每声道)，48 kHz 时等于 frameLength
+        final int framesPerHop = DeepFilterNetProcessingAgent.framesPerHop(frameLength, sampleRate);
+        try (WavFileWriter outputWriter = new WavFileWriter(audioFormat, outputWavPath)) {
+            byte[] audioBytes = new byte[framesPerHop * audioFormat.getFrameSize()];
+            // 输入输出帧位于后端持有的原生内存，解码结果直接写入，df_process_frame 无需数组拷贝
+            FloatBuffer inputFloats = state.inputFrame();
+            FloatBuffer outputFloats = state.outputFrame();
+            UnsafeBuffer pcmBuffer = new UnsafeBuffer(audioBytes);
+            Pcm16Codec codec = Pcm16Codecs.create();
+            // 采样率不是 48 kHz 时，每个声道各一对重采样器，PCM 在暂存区 (按声道平面排列) 与 DF 帧之间转换
+            final boolean resample = sampleRate != DeepFilterNetProcessingAgent.SAMPLE_RATE;
+            final PolyphaseResampler[] upsamplers = new PolyphaseResampler[resample ? channels : 0];
+            final PolyphaseResampler[] downsamplers = new PolyphaseResampler[resample ? channels : 0];
+            for (int c = 0; c < upsamplers.length; c++) {
+                upsamplers[c] = new PolyphaseResampler(sampleRate, DeepFilterNetProcessingAgent.SAMPLE_RATE,
+                    framesPerHop);
+                downsamplers[c] = new PolyphaseResampler(DeepFilterNetProcessingAgent.SAMPLE_RATE, sampleRate,
+                    frameLength);
+            }
+            FloatBuffer pcmFloats = resample ? FloatBuffer.allocate(framesPerHop * channels) : null;
+
+            int bytesRead;
+            int frameCount = 0;
+            log.info("DF_LOG: 开始处理音频帧...");
+
+            while ((bytesRead = audioInputStream.read(audioBytes)) != -1) {
+                if (bytesRead < audioBytes.length) {
+                    log.warn("DF_WARNING: 最后一帧不足 {} 样本，已忽略。", framesPerHop);
+                    break;
+                }
+
+                // 多声道时交错的 PCM 解码为按声道平面排列的 float
+                if (resample) {
+                    codec.decodeInterleaved(pcmBuffer, 0, pcmFloats, 0, framesPerHop, channels, 1.0f);
+                    for (int c = 0; c < channels; c++) {
+                        upsamplers[c].process(pcmFloats, c * framesPerHop, framesPerHop, inputFloats, c * frameLength);
+                    }
+                } else {
+                    codec.decodeInterleaved(pcmBuffer, 0, inputFloats, 0, frameLength, channels, 1.0f);
+                }
+
+                state.processFrame();
+
+                // 原地编码回输入数组，超出 16 bit 范围的样本饱和处理
+                if (resample) {
+                    for (int c = 0; c < channels; c++) {
+                        downsamplers[c].process(outputFloats, c * frameLength, frameLength, pcmFloats, c * framesPerHop);
+                    }
+                    codec.encodeInterleaved(pcmFloats, 0, pcmBuffer, 0, framesPerHop, channels, 1.0f);
+                } else {
+                    codec.encodeInterleaved(outputFloats, 0, pcmBuffer, 0, frameLength, channels, 1.0f);
+                }
+                outputWriter.write(audioBytes, 0, bytesRead);
+
+                frameCount++;
+            }
+            log.info("DF_LOG: 音频处理完成。处理了 {} 帧。", frameCount);
+            log.info("DF_LOG: 降噪后的 WAV 文件已保存到: {}", outputWavPath);
+        }
+    }
+
+    /**
+     * 使用所有 CPU 核并行处理 WAV 文件，见 {@link #denoiseWavFileParallel(String, String, int)}。
+     */
+    public void denoiseWavFileParallel(String inputWavPath, String outputWavPath)
+        throws IOException, UnsupportedAudioFileException, RuntimeException {
+        denoiseWavFileParallel(inputWavPath, outputWavPath, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * 并行处理 WAV 文件，适用于离线批量处理长录音。
+     * <p>
+     * 文件被切分为至多 {@code parallelism} 段 (每段至少 10 秒)，每段在 {@link java.util.concurrent.ForkJoinPool}
+     * 上使用独立创建的 DeepFilterNet 状态处理：从段起点前 1 秒开始预热并丢弃这部分输出，相邻段的交界处交叉淡化，
+     * 结果与 {@link #denoiseWavFile(String, String)} 仅在交界附近有细微差别。
+     * 输入不是 48 kHz 16 bit 小端单声道 PCM WAV 或过短时退回串行处理。
+     *
+     * @param parallelism 并行度，同时也是分段数的上限。
+     * @throws IOException 如果文件操作失败。
+     * @throws UnsupportedAudioFileException 如果输入文件不是有效的 WAV 格式。
+     */
+    public void denoiseWavFileParallel(String inputWavPath, String outputWavPath, int parallelism)
+        throws IOException, UnsupportedAudioFileException, RuntimeException {
+        File inputFile = new File(inputWavPath);
+        if (!inputFile.exists()) {
+            throw new IOException("DF_ERROR: 输入WAV文件不存在: " + inputWavPath);
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("DF_ERROR: 并行度必须为正数: " + parallelism);
+        }
+
+        long startNs = System.nanoTime();
+        SegmentedWavDenoiser denoiser = new SegmentedWavDenoiser(
+            DeepFilterNetModelManager.getModel(DeepFilterNetBackends.getDefault()), attenLim, frameLength);
+        if (!denoiser.denoise(inputFile, new File(outputWavPath), parallelism)) {
+            log.info("DF_LOG: 输入不适合分段并行处理，改用串行处理。");
+            denoiseWavFile(inputWavPath, outputWavPath);
+            return;
+        }
+        log.info("DF_LOG: 并行降噪完成，耗时 {} ms。降噪后的 WAV 文件已保存到: {}",
+            (System.nanoTime() - startNs) / 1_000_000, outputWavPath);
+    }
+
+    /**
+     * PCM 编解码器按小端读取样本；大端输入 (例如 AIFF) 先由 AudioSystem 转换为同规格的小端 PCM。
+     */
+    static AudioInputStream toLittleEndian(AudioInputStream stream) {
+        AudioFormat format = stream.getFormat();
+        if (!format.isBigEndian()) {
+            return stream;
+        }
+        AudioFormat littleEndian = new AudioFormat(format.getSampleRate(), format.getSampleSizeInBits(),
+            format.getChannels(), true, false);
+        log.info("DF_LOG: 输入为大端 PCM，转换为小端后处理。");
+        return AudioSystem.getAudioInputStream(littleEndian, stream);
+    }
+
+    /**
+     * 释放 DeepFilterNet 模型资源：状态重置后归还状态池。
+     */
+    public void release() {
+        dfState.close();
+        log.info("DF_LOG: DeepFilterNet 模型资源已释放。");
+    }
+}
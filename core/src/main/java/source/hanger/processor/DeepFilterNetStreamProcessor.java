@@ -0,0 +1,523 @@
+package source.hanger.processor;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import lombok.extern.slf4j.Slf4j;
+import org.agrona.BitUtil;
+import org.agrona.DirectBuffer;
+import org.agrona.MutableDirectBuffer;
+import org.agrona.concurrent.AtomicBuffer;
+import org.agrona.concurrent.OneToOneConcurrentArrayQueue;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.agrona.concurrent.ringbuffer.OneToOneRingBuffer;
+import org.agrona.concurrent.ringbuffer.RingBufferDescriptor;
+import source.hanger.DeepFilterNetServiceInitializer;
+import source.hanger.backend.DeepFilterNetState;
+import source.hanger.backend.DeepFilterNetStatePools;
+import source.hanger.buffer.AudioFrame;
+import source.hanger.buffer.AudioFramePool;
+import source.hanger.metrics.PipelineLatencyRecorder;
+import source.hanger.metrics.PipelineStage;
+import source.hanger.metrics.ProcessorCounters;
+import source.hanger.model.DeepFilterNetModelRegistry;
+import source.hanger.processor.agent.DeepFilterNetListenerAgent;
+import source.hanger.processor.agent.DeepFilterNetProcessingAgent;
+import source.hanger.processor.agent.DeepFilterNetProcessingAgentPool;
+import source.hanger.processor.agent.IdleProfile;
+import source.hanger.processor.agent.LatencyBudget;
+import source.hanger.processor.agent.OverloadPolicy;
+import source.hanger.processor.agent.ProcessorOutputGroup;
+import source.hanger.util.AudioFrameListener;
+
+@Slf4j
+public class DeepFilterNetStreamProcessor {
+
+    private static final int MSG_TYPE_ID = DeepFilterNetProcessingAgent.MSG_TYPE_ID;
+    private static final int HEADER_LENGTH = DeepFilterNetProcessingAgent.MESSAGE_HEADER_LENGTH;
+    private static final int FRAME_POOL_SLACK = 32; // 为正在回调或被监听者 retain 的帧预留的额外帧数
+    /**
+     * {@link #tryClaimInput(int)}：已发出输入结束信号。
+     */
+    public static final int CLAIM_CLOSED = -1;
+    /**
+     * {@link #tryClaimInput(int)}：输入 ring buffer 已满。
+     */
+    public static final int CLAIM_FULL = -2;
+    private final OneToOneRingBuffer inputRingBuffer; // 用于接收外部输入音频帧，输入直接写入其内存，不经过暂存区
+    @lombok.Getter
+    private final int frameLength;
+    /**
+     * 每帧的声道数；多声道输入输出均为交错排列的 PCM16 (L R L R ...)。
+     */
+    @lombok.Getter
+    private final int channels;
+    /**
+     * 输入/输出 PCM 的采样率；不是 48 kHz 时由处理代理在推理前后重采样。
+     */
+    @lombok.Getter
+    private final int inputSampleRate;
+    @lombok.Getter
+    private final int outputSampleRate;
+    private final DeepFilterNetProcessingAgent processingAgent;
+    private final DeepFilterNetProcessingAgentPool processingAgentPool;
+    private final ProcessorOutputGroup processorOutputGroup;
+    private final AudioFramePool framePool;
+    private final ProcessorCounters counters;
+    private final float attenLim;
+    private volatile String modelName;
+    private final OverloadPolicy overloadPolicy;
+    private final long blockTimeoutNs = OverloadPolicy.blockTimeoutNanos();
+
+    public DeepFilterNetStreamProcessor(
+        float attenLim,
+        AudioFrameListener denoisedFrameListener,
+        int ringBufferCapacity,
+        int listenerQueueCapacity) {
+        this(builder(attenLim, denoisedFrameListener)
+            .ringBufferCapacity(ringBufferCapacity)
+            .listenerQueueCapacity(listenerQueueCapacity));
+    }
+
+    /**
+     * 创建处理器构建器，其余选项均有默认值，见 {@link Builder} 中各方法。
+     *
+     * @param attenLim              降噪衰减上限 (dB)。
+     * @param denoisedFrameListener 降噪后音频帧的监听者。
+     */
+    public static Builder builder(float attenLim, AudioFrameListener denoisedFrameListener) {
+        return new Builder(attenLim, denoisedFrameListener);
+    }
+
+    /**
+     * @throws UnsupportedOperationException 如果 {@code channels > 1} 而当前 libdf 不支持多声道。
+     * @throws IllegalArgumentException      如果采样率在该模型的帧长下不对应整数个样本
+     *                                       (帧长 480 时须为 100 Hz 的整数倍)。
+     */
+    private DeepFilterNetStreamProcessor(Builder builder) {
+        DeepFilterNetServiceInitializer.initialize();
+
+        String processorId = java.util.UUID.randomUUID().toString();
+        this.attenLim = builder.attenLim;
+        this.modelName = builder.modelName;
+        this.overloadPolicy = builder.overloadPolicy;
+
+        // 从预热的状态池借用，建立处理器时不再执行 df_create；release() 时重置后归还
+        final DeepFilterNetState dfState = DeepFilterNetStatePools.acquire(
+            builder.modelName, builder.attenLim, builder.channels);
+        this.frameLength = dfState.frameLength();
+        this.channels = builder.channels;
+        this.inputSampleRate = builder.inputSampleRate;
+        this.outputSampleRate = builder.outputSampleRate;
+        final int outputFramesPerHop;
+        try {
+            DeepFilterNetProcessingAgent.framesPerHop(frameLength, builder.inputSampleRate);
+            outputFramesPerHop = DeepFilterNetProcessingAgent.framesPerHop(frameLength, builder.outputSampleRate);
+        } catch (IllegalArgumentException e) {
+            dfState.close();
+            throw e;
+        }
+
+        final int alignedDataCapacity = BitUtil.findNextPositivePowerOfTwo(builder.ringBufferCapacity);
+        final int totalCapacity = alignedDataCapacity + RingBufferDescriptor.TRAILER_LENGTH;
+        AtomicBuffer ringBufferDirectBuffer = new UnsafeBuffer(ByteBuffer.allocateDirect(totalCapacity));
+        this.inputRingBuffer = new OneToOneRingBuffer(ringBufferDirectBuffer);
+
+        // 创建并注册 ProcessorOutputGroup
+        OneToOneConcurrentArrayQueue<AudioFrame> listenerOutputQueue = new OneToOneConcurrentArrayQueue<>(
+            builder.listenerQueueCapacity);
+        // 帧缓冲池需覆盖监听队列中的帧、正在批量回调中的帧以及被监听者暂时持有的帧
+        this.framePool = new AudioFramePool(
+            outputFramesPerHop * builder.channels * DeepFilterNetProcessingAgent.AUDIO_FORMAT.getFrameSize(),
+            builder.listenerQueueCapacity + DeepFilterNetListenerAgent.batchSize() + FRAME_POOL_SLACK,
+            builder.directFrameBuffers);
+        AtomicBoolean endOfInputSignaled = new AtomicBoolean(false);
+
+        this.counters = new ProcessorCounters(processorId);
+        this.processorOutputGroup = new ProcessorOutputGroup(
+            processorId, builder.denoisedFrameListener, listenerOutputQueue, endOfInputSignaled, inputRingBuffer::size,
+            counters
+        );
+
+        DeepFilterNetListenerAgent.getInstance().registerProcessor(this.processorOutputGroup);
+
+        // 处理代理不再独占线程，而是在 start() 时加入共享的处理线程池
+        this.processingAgentPool = DeepFilterNetServiceInitializer.getProcessingAgentPool(builder.idleProfile);
+        this.processingAgent = DeepFilterNetProcessingAgent.builder(
+                dfState,
+                this.inputRingBuffer, // Processing Agent 读取这个 RingBuffer
+                this.processorOutputGroup.listenerOutputQueue(),
+                this.framePool,
+                this.processorOutputGroup.endOfInputSignaled(),
+                this.counters)
+            .overloadPolicy(builder.overloadPolicy)
+            .latencyBudget(builder.latencyBudget)
+            .inputSampleRate(builder.inputSampleRate)
+            .outputSampleRate(builder.outputSampleRate)
+            .build();
+    }
+
+    public void start() {
+        processorOutputGroup.endOfInputSignaled().set(false);
+        processingAgentPool.add(processingAgent);
+    }
+
+    public void stop() {
+        log.info("DF_LOG: DeepFilterNetStreamProcessor 停止中...");
+        processorOutputGroup.endOfInputSignaled().set(true);
+
+        release();
+    }
+
+    public void signalEndOfInput() {
+        processorOutputGroup.endOfInputSignaled().set(true);
+    }
+
+    public void release() {
+        // remove 返回后处理代理不会再被调用，此时才能安全释放原生状态
+        processingAgentPool.remove(processingAgent);
+        // 注销会等待正在进行的回调结束并释放监听队列中剩余的帧，之后才能关闭计数器
+        DeepFilterNetListenerAgent.getInstance().unregisterProcessor(processorOutputGroup.processorId());
+
+        processingAgent.release(); // 归还状态池，释放尚未入队的输出帧
+        counters.close();
+    }
+
+    /**
+     * 在不中断音频的情况下切换到另一个模型，例如发布新版本模型后让正在进行的流改用新版本。
+     * <p>
+     * 新模型的状态在调用线程上借用 (可能需要创建)，随后交给处理代理在帧边界预热并交叉淡化切入，
+     * 见 {@link DeepFilterNetProcessingAgent#switchState(DeepFilterNetState)}。
+     *
+     * @param modelName 模型名称，见 {@link DeepFilterNetModelRegistry}；传入当前名称即切换到该名称的最新版本。
+     * @throws IllegalArgumentException 如果模型未注册或其帧长度与当前模型不同。
+     */
+    public void switchModel(String modelName) {
+        final DeepFilterNetState newState = DeepFilterNetStatePools.acquire(modelName, attenLim, channels);
+        try {
+            processingAgent.switchState(newState);
+        } catch (IllegalArgumentException e) {
+            newState.close();
+            throw e;
+        }
+        this.modelName = modelName;
+        log.info("DF_LOG: 处理器 {} 切换到模型 {}。", processorOutputGroup.processorId(), modelName);
+    }
+
+    /**
+     * 当前使用 (或正在切换到) 的模型名称。
+     */
+    public String modelName() {
+        return modelName;
+    }
+
+    public boolean isRunning() {
+        return !processorOutputGroup.endOfInputSignaled().get() || processorOutputGroup.inputSizeSupplier().get() > 0
+            || !processorOutputGroup.listenerOutputQueue().isEmpty();
+    }
+
+    /**
+     * 写入一段 PCM16 输入，从 {@code inputBuffer} 的 position 读到 limit，返回时 position 位于 limit。
+     * <p>
+     * 数据直接从 {@code inputBuffer} 复制到 ring buffer 中已申请的消息，不经过中间暂存区。ring buffer 满时按
+     * {@link OverloadPolicy} 处理：最多等待 {@value OverloadPolicy#BLOCK_TIMEOUT_PROPERTY} 后丢弃剩余部分，
+     * {@link OverloadPolicy#DROP_NEWEST} 下不等待直接丢弃；丢弃的字节数记入 {@code input-dropped-bytes} 计数器。
+     * 不能等待的调用方 (例如网络事件循环) 应使用 {@link #tryProcessAudioFrame(ByteBuffer)}。
+     *
+     * @return 输入结束信号已发出时返回 {@code false}，此时未写入的部分被丢弃。
+     */
+    public boolean processAudioFrame(ByteBuffer inputBuffer) {
+        return ingest(inputBuffer, true) != IngestResult.CLOSED;
+    }
+
+    /**
+     * 与 {@link #processAudioFrame(ByteBuffer)} 相同，但从不等待：ring buffer 满时，{@link OverloadPolicy#DROP_NEWEST}
+     * 丢弃剩余部分并返回 {@link IngestResult#DROPPED}，其他策略保留剩余部分 (position 停在未写入处) 并返回
+     * {@link IngestResult#BACKPRESSURED}，{@link OverloadPolicy#DROP_OLDEST}/{@link OverloadPolicy#PASSTHROUGH}
+     * 同时要求处理代理立即追赶。
+     */
+    public IngestResult tryProcessAudioFrame(ByteBuffer inputBuffer) {
+        return ingest(inputBuffer, false);
+    }
+
+    private IngestResult ingest(ByteBuffer inputBuffer, boolean wait) {
+        if (processorOutputGroup.endOfInputSignaled().get()) {
+            log.warn("DF_WARN: processAudioFrame: 输入结束信号=true，拒绝处理新帧。");
+            return IngestResult.CLOSED;
+        }
+
+        final AtomicBuffer ringBuffer = inputRingBuffer.buffer();
+        final int maxPayloadLength = maxInputClaimLength();
+        final long ingestNs = System.nanoTime();
+
+        while (inputBuffer.hasRemaining()) {
+            final int bytesToWrite = Math.min(inputBuffer.remaining(), maxPayloadLength);
+            final int index = claim(bytesToWrite, ingestNs, wait);
+            if (index == CLAIM_CLOSED) {
+                return IngestResult.CLOSED;
+            }
+            if (index == CLAIM_FULL) {
+                if (wait || overloadPolicy == OverloadPolicy.DROP_NEWEST) {
+                    counters.inputDroppedBytes().getAndAddRelease(inputBuffer.remaining());
+                    inputBuffer.position(inputBuffer.limit());
+                    PipelineLatencyRecorder.record(PipelineStage.ENQUEUE, System.nanoTime() - ingestNs);
+                    return IngestResult.DROPPED;
+                }
+                return IngestResult.BACKPRESSURED;
+            }
+            final int position = inputBuffer.position();
+            ringBuffer.putBytes(index, inputBuffer, position, bytesToWrite);
+            inputBuffer.position(position + bytesToWrite);
+            inputRingBuffer.commit(index - HEADER_LENGTH);
+        }
+        PipelineLatencyRecorder.record(PipelineStage.ENQUEUE, System.nanoTime() - ingestNs);
+        return IngestResult.ACCEPTED;
+    }
+
+    /**
+     * 写入 {@code buffer} 中 {@code [offset, offset + length)} 的 PCM16 输入，例如网络层收到的 Agrona 缓冲区。
+     * ring buffer 满时与 {@link #processAudioFrame(ByteBuffer)} 一样按 {@link OverloadPolicy} 等待或丢弃。
+     *
+     * @return 输入结束信号已发出时返回 {@code false}，此时未写入的部分被丢弃。
+     */
+    public boolean processAudioFrame(DirectBuffer buffer, int offset, int length) {
+        if (processorOutputGroup.endOfInputSignaled().get()) {
+            log.warn("DF_WARN: processAudioFrame: 输入结束信号=true，拒绝处理新帧。");
+            return false;
+        }
+
+        final AtomicBuffer ringBuffer = inputRingBuffer.buffer();
+        final int maxPayloadLength = maxInputClaimLength();
+        final long ingestNs = System.nanoTime();
+
+        int written = 0;
+        while (written < length) {
+            final int bytesToWrite = Math.min(length - written, maxPayloadLength);
+            final int index = claim(bytesToWrite, ingestNs, true);
+            if (index == CLAIM_CLOSED) {
+                return false;
+            }
+            if (index == CLAIM_FULL) {
+                counters.inputDroppedBytes().getAndAddRelease(length - written);
+                break;
+            }
+            ringBuffer.putBytes(index, buffer, offset + written, bytesToWrite);
+            inputRingBuffer.commit(index - HEADER_LENGTH);
+            written += bytesToWrite;
+        }
+        PipelineLatencyRecorder.record(PipelineStage.ENQUEUE, System.nanoTime() - ingestNs);
+        return true;
+    }
+
+    /**
+     * 在输入 ring buffer 中申请 {@code length} 字节的 PCM16 空间，供生产者把数据直接解码或接收到 ring buffer 内存中，
+     * 写入 {@link #inputClaimBuffer()} 的 {@code [index, index + length)} 后调用 {@link #commitInput(int)} 提交，
+     * 或调用 {@link #abortInput(int)} 放弃。申请与提交之间处理代理看不到该消息，也不能再申请新的空间。
+     * <p>
+     * 只能由该处理器唯一的生产者线程调用。从不等待：ring buffer 满时返回 {@link #CLAIM_FULL}，
+     * {@link OverloadPolicy#DROP_OLDEST}/{@link OverloadPolicy#PASSTHROUGH} 下同时要求处理代理立即追赶；
+     * 是否丢弃这段输入由调用方决定。
+     *
+     * @param length PCM16 字节数，不超过 {@link #maxInputClaimLength()}。
+     * @return 数据在 {@link #inputClaimBuffer()} 中的起始位置；ring buffer 满时返回 {@link #CLAIM_FULL}，
+     * 输入结束信号已发出时返回 {@link #CLAIM_CLOSED}。
+     * @throws IllegalArgumentException 如果 {@code length} 超过 {@link #maxInputClaimLength()}。
+     */
+    public int tryClaimInput(int length) {
+        if (length > maxInputClaimLength()) {
+            throw new IllegalArgumentException(
+                "DF_ERROR: 申请长度 " + length + " 超过单条消息上限 " + maxInputClaimLength());
+        }
+        if (processorOutputGroup.endOfInputSignaled().get()) {
+            log.warn("DF_WARN: tryClaimInput: 输入结束信号=true，拒绝处理新帧。");
+            return CLAIM_CLOSED;
+        }
+        return claim(length, System.nanoTime(), false);
+    }
+
+    /**
+     * 提交 {@link #tryClaimInput(int)} 申请的空间，使处理代理可以读取。
+     */
+    public void commitInput(int index) {
+        inputRingBuffer.commit(index - HEADER_LENGTH);
+    }
+
+    /**
+     * 放弃 {@link #tryClaimInput(int)} 申请的空间，处理代理会跳过该消息。
+     */
+    public void abortInput(int index) {
+        inputRingBuffer.abort(index - HEADER_LENGTH);
+    }
+
+    /**
+     * {@link #tryClaimInput(int)} 返回的位置所在的缓冲区，即输入 ring buffer 的内存。
+     */
+    public MutableDirectBuffer inputClaimBuffer() {
+        return inputRingBuffer.buffer();
+    }
+
+    /**
+     * 单次 {@link #tryClaimInput(int)} 可申请的最大 PCM16 字节数。
+     */
+    public int maxInputClaimLength() {
+        return inputRingBuffer.maxMsgLength() - HEADER_LENGTH;
+    }
+
+    /**
+     * 申请一条消息并写入消息头 (输入时刻，处理代理据此统计 ring buffer 等待时间和端到端延迟)。
+     * ring buffer 满时先要求处理代理追赶，{@code wait} 为 true 且策略不是 {@link OverloadPolicy#DROP_NEWEST}
+     * 时让出 CPU 等待，最长 {@value OverloadPolicy#BLOCK_TIMEOUT_PROPERTY}。
+     *
+     * @return PCM16 数据的起始位置；空间不足时返回 {@link #CLAIM_FULL}，输入结束信号发出时返回 {@link #CLAIM_CLOSED}。
+     */
+    private int claim(int length, long ingestNs, boolean wait) {
+        long fullSinceNs = 0;
+        boolean full = false;
+        while (!processorOutputGroup.endOfInputSignaled().get()) {
+            final int index = inputRingBuffer.tryClaim(MSG_TYPE_ID, HEADER_LENGTH + length);
+            if (index > 0) {
+                inputRingBuffer.buffer().putLong(index, ingestNs);
+                return index + HEADER_LENGTH;
+            }
+            if (!full) {
+                full = true;
+                fullSinceNs = System.nanoTime();
+                processingAgent.requestCatchUp();
+            }
+            if (!wait || overloadPolicy == OverloadPolicy.DROP_NEWEST
+                || (blockTimeoutNs != 0 && System.nanoTime() - fullSinceNs >= blockTimeoutNs)) {
+                return CLAIM_FULL;
+            }
+            counters.producerFullSpins().incrementRelease();
+            Thread.yield();
+        }
+        return CLAIM_CLOSED;
+    }
+
+    /**
+     * {@link DeepFilterNetStreamProcessor} 的构建器。未设置的选项取默认值，空闲策略、过载策略与延迟预算的默认值
+     * 在创建构建器时从系统属性读取。
+     */
+    public static final class Builder {
+
+        public static final int DEFAULT_RING_BUFFER_CAPACITY = 8192;
+        public static final int DEFAULT_LISTENER_QUEUE_CAPACITY = 500;
+
+        private final float attenLim;
+        private final AudioFrameListener denoisedFrameListener;
+        private int ringBufferCapacity = DEFAULT_RING_BUFFER_CAPACITY;
+        private int listenerQueueCapacity = DEFAULT_LISTENER_QUEUE_CAPACITY;
+        private boolean directFrameBuffers;
+        private IdleProfile idleProfile = IdleProfile.fromSystemProperty(IdleProfile.PROCESSING_PROPERTY);
+        private String modelName = DeepFilterNetModelRegistry.DEFAULT_MODEL;
+        private OverloadPolicy overloadPolicy = OverloadPolicy.fromSystemProperty();
+        private LatencyBudget latencyBudget = LatencyBudget.fromSystemProperties();
+        private int channels = 1;
+        private int inputSampleRate = DeepFilterNetProcessingAgent.SAMPLE_RATE;
+        private int outputSampleRate = DeepFilterNetProcessingAgent.SAMPLE_RATE;
+
+        private Builder(float attenLim, AudioFrameListener denoisedFrameListener) {
+            this.attenLim = attenLim;
+            this.denoisedFrameListener = denoisedFrameListener;
+        }
+
+        /**
+         * 输入 ring buffer 的容量 (字节)，向上取整为 2 的幂，默认 {@value #DEFAULT_RING_BUFFER_CAPACITY}。
+         */
+        public Builder ringBufferCapacity(int ringBufferCapacity) {
+            this.ringBufferCapacity = ringBufferCapacity;
+            return this;
+        }
+
+        /**
+         * 监听队列可容纳的输出帧数，默认 {@value #DEFAULT_LISTENER_QUEUE_CAPACITY}。
+         */
+        public Builder listenerQueueCapacity(int listenerQueueCapacity) {
+            this.listenerQueueCapacity = listenerQueueCapacity;
+            return this;
+        }
+
+        /**
+         * 为 true 时输出帧使用堆外 slab，适合直接写入 NIO 通道的网络发送端；
+         * 此时监听者应实现 {@link AudioFrameListener#onDenoisedAudioFrame(AudioFrame)} 以避免复制。默认 false。
+         */
+        public Builder directFrameBuffers(boolean directFrameBuffers) {
+            this.directFrameBuffers = directFrameBuffers;
+            return this;
+        }
+
+        /**
+         * 处理代理所在线程池的空闲策略；相同配置的处理器共享同一个线程池。
+         * 默认取自系统属性 {@value IdleProfile#PROCESSING_PROPERTY}。
+         */
+        public Builder idleProfile(IdleProfile idleProfile) {
+            this.idleProfile = idleProfile;
+            return this;
+        }
+
+        /**
+         * 使用的模型名称，见 {@link DeepFilterNetModelRegistry}，例如交互式通话使用低延迟模型。
+         */
+        public Builder modelName(String modelName) {
+            this.modelName = modelName;
+            return this;
+        }
+
+        /**
+         * 输入 ring buffer 或监听队列满时的处理方式，见 {@link OverloadPolicy}；
+         * 实时通话通常选择 {@link OverloadPolicy#DROP_OLDEST} 或 {@link OverloadPolicy#PASSTHROUGH}。
+         * 默认见 {@link OverloadPolicy#fromSystemProperty()}。
+         */
+        public Builder overloadPolicy(OverloadPolicy overloadPolicy) {
+            this.overloadPolicy = overloadPolicy;
+            return this;
+        }
+
+        /**
+         * 延迟预算，CPU 饱和时预计超出预算的帧只乘以旁路增益、不做推理，使交互延迟保持有界，
+         * 见 {@link LatencyBudget}；录音等离线场景使用 {@link LatencyBudget#UNLIMITED}。
+         * 默认见 {@link LatencyBudget#fromSystemProperties()}。
+         */
+        public Builder latencyBudget(LatencyBudget latencyBudget) {
+            this.latencyBudget = latencyBudget;
+            return this;
+        }
+
+        /**
+         * 声道数，例如 2 表示立体声；所有声道由同一个原生状态一次推理，输入输出为交错排列的 PCM16。
+         * 大于 1 时需要 libdf 提供 {@code df_create_from_model_ch}。默认 1。
+         */
+        public Builder channels(int channels) {
+            this.channels = channels;
+            return this;
+        }
+
+        /**
+         * 输入 PCM 的采样率，例如 8 / 16 / 24 / 44.1 kHz 的电话或媒体音频；
+         * 处理代理以流式多相重采样器转换为 48 kHz 后推理，重采样状态跨帧保持。默认 48 kHz。
+         */
+        public Builder inputSampleRate(int inputSampleRate) {
+            this.inputSampleRate = inputSampleRate;
+            return this;
+        }
+
+        /**
+         * 输出 PCM 的采样率，通常与输入相同；每个输出帧为一个 DF 帧在该采样率下的长度。默认 48 kHz。
+         */
+        public Builder outputSampleRate(int outputSampleRate) {
+            this.outputSampleRate = outputSampleRate;
+            return this;
+        }
+
+        /**
+         * 输入与输出使用同一采样率。
+         */
+        public Builder sampleRate(int sampleRate) {
+            return inputSampleRate(sampleRate).outputSampleRate(sampleRate);
+        }
+
+        public DeepFilterNetStreamProcessor build() {
+            return new DeepFilterNetStreamProcessor(this);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package source.hanger.processor;
+
+/**
+ * {@link DeepFilterNetStreamProcessor#tryProcessAudioFrame(java.nio.ByteBuffer)} 的结果，调用方据此决定是否重试。
+ */
+public enum IngestResult {
+
+    /**
+     * 输入已全部写入。
+     */
+    ACCEPTED,
+    /**
+     * 输入 ring buffer 已满，未写入的部分仍留在输入缓冲区中 (position 之后)，调用方可稍后重试。
+     * {@link source.hanger.processor.agent.OverloadPolicy#DROP_OLDEST} 与
+     * {@link source.hanger.processor.agent.OverloadPolicy#PASSTHROUGH} 下处理代理已被要求追赶，很快就会有空间。
+     */
+    BACKPRESSURED,
+    /**
+     * 输入 ring buffer 已满，未写入的部分按 {@link source.hanger.processor.agent.OverloadPolicy#DROP_NEWEST} 被丢弃。
+     */
+    DROPPED,
+    /**
+     * 已发出输入结束信号，输入被拒绝。
+     */
+    CLOSED
+}
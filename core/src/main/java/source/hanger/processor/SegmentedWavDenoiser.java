@@ -0,0 +1,280 @@
+package source.hanger.processor;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import javax.sound.sampled.AudioFileFormat;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+
+import lombok.extern.slf4j.Slf4j;
+import org.agrona.concurrent.UnsafeBuffer;
+import source.hanger.backend.DeepFilterNetModel;
+import source.hanger.backend.DeepFilterNetState;
+import source.hanger.backend.DeepFilterNetStatePools;
+import source.hanger.codec.Pcm16Codec;
+import source.hanger.codec.Pcm16Codecs;
+import source.hanger.util.WavFileWriter;
+
+/**
+ * 把一个长 WAV 文件切分为若干段，在 {@link ForkJoinPool} 上并行降噪。
+ * <p>
+ * 每段使用独立的 {@code DFState} (从 {@link DeepFilterNetStatePools} 借用)，并从段起点之前 {@value #WARMUP_MS} ms 开始输入，预热期间的输出丢弃，
+ * 使循环网络状态和模型前瞻在段起点处与串行处理基本一致。输出帧与输入帧一一对应 (与串行处理相同的对齐方式)，
+ * 因此相邻段在交界处各多处理 {@value #CROSSFADE_MS} ms，两者线性交叉淡化后写入，消除残留的不连续。
+ * <p>
+ * 输入输出都通过 {@link FileChannel} 按位置读写，各段互不等待，内存占用与文件长度无关；
+ * 交叉淡化区域先保存在内存中，所有段完成后再混合写入。
+ */
+@Slf4j
+final class SegmentedWavDenoiser {
+
+    private static final int WARMUP_MS = 1000;
+    private static final int CROSSFADE_MS = 50;
+    private static final int MIN_SEGMENT_MS = 10_000;
+    private static final int IO_CHUNK_FRAMES = 100; // 每次按位置读写的帧数
+
+    private final DeepFilterNetModel model;
+    private final float attenLim;
+    private final int frameLength;
+
+    SegmentedWavDenoiser(DeepFilterNetModel model, float attenLim, int frameLength) {
+        this.model = model;
+        this.attenLim = attenLim;
+        this.frameLength = frameLength;
+    }
+
+    /**
+     * 并行处理输入文件。
+     *
+     * @return {@code false} 表示输入不适合分段 (不是 48 kHz 16 bit 小端单声道 PCM WAV，或不足两段)，未写入任何输出，调用方应改用串行处理。
+     */
+    boolean denoise(File inputFile, File outputFile, int parallelism) throws IOException {
+        final AudioFormat format;
+        try {
+            AudioFileFormat fileFormat = AudioSystem.getAudioFileFormat(inputFile);
+            if (fileFormat.getType() != AudioFileFormat.Type.WAVE) {
+                return false;
+            }
+            format = fileFormat.getFormat();
+        } catch (UnsupportedAudioFileException e) {
+            return false;
+        }
+        if (format.getEncoding() != AudioFormat.Encoding.PCM_SIGNED || format.getSampleSizeInBits() != 16
+            || format.getChannels() != 1 || format.isBigEndian() || format.getSampleRate() != 48000.0f) {
+            return false;
+        }
+
+        final int bytesPerFrame = frameLength * format.getFrameSize();
+        final float framesPerMs = format.getSampleRate() / 1000.0f / frameLength;
+        final long warmupFrames = (long)Math.ceil(WARMUP_MS * framesPerMs);
+        final int crossfadeFrames = Math.max(1, Math.round(CROSSFADE_MS * framesPerMs));
+        final long minSegmentFrames = (long)Math.ceil(MIN_SEGMENT_MS * framesPerMs);
+
+        try (FileChannel input = FileChannel.open(inputFile.toPath(), StandardOpenOption.READ)) {
+            final long[] dataChunk = findDataChunk(input);
+            final long dataOffset = dataChunk[0];
+            // 与串行处理一致：末尾不足一帧的样本忽略
+            final long totalFrames = dataChunk[1] / bytesPerFrame;
+            final int segmentCount = (int)Math.min(parallelism, totalFrames / minSegmentFrames);
+            if (segmentCount < 2) {
+                return false;
+            }
+
+            final long[] bounds = new long[segmentCount + 1];
+            for (int k = 0; k <= segmentCount; k++) {
+                bounds[k] = totalFrames * k / segmentCount;
+            }
+            log.info("DF_LOG: 并行降噪: {} 帧分为 {} 段，预热 {} 帧，交叉淡化 {} 帧。", totalFrames, segmentCount,
+                warmupFrames, crossfadeFrames);
+
+            File outputDir = outputFile.getAbsoluteFile().getParentFile();
+            if (outputDir != null && !outputDir.exists()) {
+                outputDir.mkdirs();
+            }
+            try (FileChannel output = FileChannel.open(outputFile.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                final long outputDataOffset = WavFileWriter.WAV_HEADER_LENGTH;
+                writeFully(output, ByteBuffer.wrap(WavFileWriter.createWavHeader(format, totalFrames * bytesPerFrame)),
+                    0);
+
+                List<Callable<Segment>> tasks = new ArrayList<>(segmentCount);
+                for (int k = 0; k < segmentCount; k++) {
+                    final Segment segment = new Segment(bounds[k], bounds[k + 1], k > 0 ? crossfadeFrames : 0,
+                        k < segmentCount - 1 ? crossfadeFrames : 0);
+                    tasks.add(() -> process(segment, input, dataOffset, output, outputDataOffset, bytesPerFrame,
+                        warmupFrames));
+                }
+                List<Segment> segments = runAll(tasks, parallelism);
+
+                // 所有段完成后混合交界处的重叠部分
+                final Pcm16Codec codec = Pcm16Codecs.create();
+                final UnsafeBuffer mixedPcm = new UnsafeBuffer(new byte[crossfadeFrames * bytesPerFrame]);
+                final float[] mixed = new float[crossfadeFrames * frameLength];
+                for (int k = 1; k < segmentCount; k++) {
+                    crossfade(segments.get(k - 1).tail, segments.get(k).head, mixed);
+                    codec.encode(FloatBuffer.wrap(mixed), 0, mixedPcm, 0, mixed.length, 1.0f);
+                    writeFully(output, ByteBuffer.wrap(mixedPcm.byteArray()), outputDataOffset + bounds[k] * bytesPerFrame);
+                }
+            }
+        }
+        return true;
+    }
+
+    private Segment process(Segment segment, FileChannel input, long inputDataOffset, FileChannel output,
+        long outputDataOffset, int bytesPerFrame, long warmupFrames) throws IOException {
+        final long firstInput = Math.max(0, segment.start - warmupFrames);
+        final long lastInput = segment.end + segment.tailFrames;
+        final long directStart = segment.start + segment.headFrames;
+
+        final Pcm16Codec codec = Pcm16Codecs.create();
+        final byte[] inBytes = new byte[IO_CHUNK_FRAMES * bytesPerFrame];
+        final UnsafeBuffer inPcm = new UnsafeBuffer(inBytes);
+        final UnsafeBuffer outPcm = new UnsafeBuffer(new byte[IO_CHUNK_FRAMES * bytesPerFrame]);
+        int pendingFrames = 0;
+        long pendingStart = directStart;
+
+        // 从状态池借用，处理结束后重置归还，重复处理文件时不再为每段加载模型
+        try (DeepFilterNetState state = DeepFilterNetStatePools.acquire(model, attenLim)) {
+            final FloatBuffer inputFrame = state.inputFrame();
+            final FloatBuffer outputFrame = state.outputFrame();
+            long frame = firstInput;
+            while (frame < lastInput) {
+                final int chunkFrames = (int)Math.min(IO_CHUNK_FRAMES, lastInput - frame);
+                readFully(input, ByteBuffer.wrap(inBytes, 0, chunkFrames * bytesPerFrame),
+                    inputDataOffset + frame * bytesPerFrame);
+                for (int i = 0; i < chunkFrames; i++, frame++) {
+                    codec.decode(inPcm, i * bytesPerFrame, inputFrame, 0, frameLength, 1.0f);
+                    state.processFrame();
+
+                    if (frame < segment.start) {
+                        continue; // 预热，丢弃输出
+                    }
+                    if (frame < directStart) {
+                        outputFrame.get(0, segment.head, (int)(frame - segment.start) * frameLength, frameLength);
+                    } else if (frame >= segment.end) {
+                        outputFrame.get(0, segment.tail, (int)(frame - segment.end) * frameLength, frameLength);
+                    } else {
+                        codec.encode(outputFrame, 0, outPcm, pendingFrames * bytesPerFrame, frameLength, 1.0f);
+                        if (++pendingFrames == IO_CHUNK_FRAMES) {
+                            writeFully(output, ByteBuffer.wrap(outPcm.byteArray(), 0, pendingFrames * bytesPerFrame),
+                                outputDataOffset + pendingStart * bytesPerFrame);
+                            pendingStart += pendingFrames;
+                            pendingFrames = 0;
+                        }
+                    }
+                }
+            }
+        }
+        if (pendingFrames > 0) {
+            writeFully(output, ByteBuffer.wrap(outPcm.byteArray(), 0, pendingFrames * bytesPerFrame),
+                outputDataOffset + pendingStart * bytesPerFrame);
+        }
+        return segment;
+    }
+
+    private static List<Segment> runAll(List<Callable<Segment>> tasks, int parallelism) throws IOException {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            List<Segment> segments = new ArrayList<>(tasks.size());
+            for (Future<Segment> future : pool.invokeAll(tasks)) {
+                segments.add(future.get());
+            }
+            return segments;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("DF_ERROR: 并行降噪被中断", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("DF_ERROR: 分段降噪失败", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * 线性交叉淡化：同一段音频的两份结果高度相关，线性权重保持幅度不变。
+     */
+    private static void crossfade(float[] fadeOut, float[] fadeIn, float[] mixed) {
+        final float step = 1.0f / mixed.length;
+        for (int i = 0; i < mixed.length; i++) {
+            final float weight = (i + 0.5f) * step;
+            mixed[i] = fadeOut[i] * (1.0f - weight) + fadeIn[i] * weight;
+        }
+    }
+
+    /**
+     * 遍历 RIFF 块，返回 {@code data} 块的数据起始偏移与长度 (字节)。
+     */
+    private static long[] findDataChunk(FileChannel channel) throws IOException {
+        final ByteBuffer chunkHeader = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+        long position = 12; // 跳过 "RIFF" <size> "WAVE"
+        while (position + 8 <= channel.size()) {
+            chunkHeader.clear();
+            readFully(channel, chunkHeader, position);
+            final int id = chunkHeader.getInt(0);
+            final long size = Integer.toUnsignedLong(chunkHeader.getInt(4));
+            if (id == 0x61746164) { // "data"
+                return new long[]{position + 8, Math.min(size, channel.size() - position - 8)};
+            }
+            position += 8 + size + (size & 1); // 块按偶数字节对齐
+        }
+        throw new EOFException("DF_ERROR: WAV 文件中没有 data 块");
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new EOFException("DF_ERROR: 读取 WAV 数据时遇到文件末尾");
+            }
+            position += read;
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    /**
+     * 一段的输出范围 {@code [start, end)}，以及需要与相邻段交叉淡化的首尾 float 样本。
+     */
+    private final class Segment {
+
+        final long start;
+        final long end;
+        final int headFrames;
+        final int tailFrames;
+        final float[] head;
+        final float[] tail;
+
+        Segment(long start, long end, int headFrames, int tailFrames) {
+            this.start = start;
+            this.end = end;
+            this.headFrames = headFrames;
+            this.tailFrames = tailFrames;
+            this.head = new float[headFrames * frameLength];
+            this.tail = new float[tailFrames * frameLength];
+        }
+    }
+}
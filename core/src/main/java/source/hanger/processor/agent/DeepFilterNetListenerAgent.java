@@ -0,0 +1,341 @@
+package source.hanger.processor.agent;
+
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+import lombok.extern.slf4j.Slf4j;
+import org.agrona.ErrorHandler;
+import org.agrona.concurrent.Agent;
+import org.agrona.concurrent.AgentRunner;
+import org.agrona.concurrent.IdleStrategy;
+import org.agrona.concurrent.status.AtomicCounter;
+import source.hanger.buffer.AudioFrame;
+import source.hanger.metrics.DeepFilterNetCounters;
+import source.hanger.metrics.PipelineLatencyRecorder;
+import source.hanger.metrics.PipelineStage;
+import source.hanger.util.AudioFrameBatchListener;
+import source.hanger.util.AudioFrameListener;
+
+@Slf4j
+public class DeepFilterNetListenerAgent implements Agent {
+
+    private static final long AGENT_SHUTDOWN_TIMEOUT_MS = 500L;
+    public static final String BATCH_SIZE_PROPERTY = "df.listener.batch.size";
+    // 消费线程一次最多从监听队列取出的帧数
+    private static final int BATCH_SIZE = Math.max(1, Integer.getInteger(BATCH_SIZE_PROPERTY, 32));
+    private static final DeepFilterNetListenerAgent INSTANCE = new DeepFilterNetListenerAgent();
+
+    private final ConcurrentHashMap<String, StreamDelivery> deliveries = new ConcurrentHashMap<>();
+
+    private DeepFilterNetListenerAgent() {
+        // 私有构造函数，实现单例
+    }
+
+    public static DeepFilterNetListenerAgent getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 每个流的消费线程一次最多从监听队列取出的帧数，这些帧在回调结束前都不会回到缓冲池。
+     */
+    public static int batchSize() {
+        return BATCH_SIZE;
+    }
+
+    // 静态方法来启动 AgentRunner
+    public static AgentRunner startAgentRunner() {
+        return startAgentRunner(IdleProfile.POWER_SAVING);
+    }
+
+    /**
+     * 以指定的空闲策略启动监听代理。监听代理空闲时的最长等待时间会叠加到每一帧的回调延迟上。
+     */
+    public static AgentRunner startAgentRunner(IdleProfile idleProfile) {
+        final IdleStrategy idleStrategy = idleProfile.newIdleStrategy();
+
+        // 实现 ErrorHandler 接口
+        final ErrorHandler errorHandler = (throwable) -> {
+            log.error("DF_LOG_ERROR: Agrona AgentRunner Error: {}", throwable.getMessage(), throwable);
+        };
+
+        // 错误计数器位于共享计数器文件中，外部工具可直接读取
+        final AtomicCounter errorCounter = DeepFilterNetCounters.newCounter("df.listener.errors",
+            DeepFilterNetCounters.TYPE_LISTENER_ERRORS);
+
+        // AgentRunner 的构造函数是 AgentRunner(IdleStrategy idleStrategy, ErrorHandler errorHandler, AtomicCounter
+        // errorCounter, Agent agent)
+        final AgentRunner agentRunner = new AgentRunner(
+            idleStrategy,
+            errorHandler,
+            errorCounter,
+            DeepFilterNetListenerAgent.getInstance()
+        );
+        AgentRunner.startOnThread(agentRunner);
+        log.info("DF_LOG: DeepFilterNetListenerAgent started on a dedicated thread with idle profile {}.",
+            idleProfile.configName());
+        return agentRunner;
+    }
+
+    public void registerProcessor(ProcessorOutputGroup group) {
+        final StreamDelivery delivery = new StreamDelivery(group);
+        if (deliveries.putIfAbsent(group.processorId(), delivery) == null) {
+            delivery.start();
+            log.info("DF_LOG: Processor {} registered with DeepFilterNetListenerAgent.", group.processorId());
+        } else {
+            log.warn("DF_LOG: Processor {} already registered with DeepFilterNetListenerAgent. Ignoring.",
+                group.processorId());
+        }
+    }
+
+    /**
+     * 注销处理器并停止其消费线程。返回时正在进行的回调已经结束，该流的计数器不会再被写入，
+     * 监听队列中尚未投递的帧已释放回缓冲池；在该处理器自己的回调中调用时不等待，由消费线程退出时完成清理。
+     */
+    public void unregisterProcessor(String processorId) {
+        final StreamDelivery delivery = deliveries.remove(processorId);
+        if (delivery != null) {
+            delivery.stop();
+            delivery.awaitTermination();
+            log.info("DF_LOG: Processor {} unregistered from DeepFilterNetListenerAgent.", processorId);
+        } else {
+            log.warn("DF_LOG: Attempted to unregister unknown processor {}. Ignoring.", processorId);
+        }
+    }
+
+    @Override
+    public String roleName() {
+        return "dfnet-listener-agent";
+    }
+
+    @Override
+    public int doWork() {
+        int workDone = 0;
+        for (StreamDelivery delivery : deliveries.values()) {
+            // 只唤醒已挂起的消费线程；消费线程运行期间到达的帧由它自己继续投递
+            if (!delivery.group.listenerOutputQueue().isEmpty() && delivery.wakeIfParked()) {
+                workDone = 1; // 至少完成了一项工作
+            }
+        }
+        return workDone;
+    }
+
+    @Override
+    public void onClose() {
+        log.info("DF_LOG: Shutting down DeepFilterNetListenerAgent and its consumer threads.");
+        for (StreamDelivery delivery : deliveries.values()) {
+            delivery.stop();
+        }
+        final long deadlineNs = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(AGENT_SHUTDOWN_TIMEOUT_MS);
+        try {
+            for (StreamDelivery delivery : deliveries.values()) {
+                final long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadlineNs - System.nanoTime());
+                if (remainingMs > 0) {
+                    delivery.consumer.join(remainingMs);
+                }
+                if (delivery.consumer.isAlive()) {
+                    log.warn("DF_LOG: Consumer thread of processor {} did not terminate in time.",
+                        delivery.group.processorId());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("DF_LOG: Interrupted while waiting for listener consumer threads.", e);
+        }
+        log.info("DF_LOG: DeepFilterNetListenerAgent onClose completed.");
+    }
+
+    /**
+     * 监听器是否沿用 {@link AudioFrameListener#onDenoisedAudioFrame(AudioFrame)} 的默认桥接实现。
+     */
+    private static boolean usesDefaultFrameCallback(AudioFrameListener listener) {
+        try {
+            return listener.getClass().getMethod("onDenoisedAudioFrame", AudioFrame.class).isDefault();
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 单个流的消费者：每个流有一个长期存在的虚拟线程，它是监听队列唯一的消费者，因此回调严格按帧顺序执行，
+     * 也满足 {@link org.agrona.concurrent.OneToOneConcurrentArrayQueue} 单消费者的要求。
+     * <p>
+     * 队列为空时消费线程挂起，由监听代理在队列出现新帧时唤醒；唤醒只在消费线程已挂起时发生，
+     * 所以每帧既不创建线程也不提交任务。每轮用 {@code drainTo} 一次取出最多 {@value #BATCH_SIZE_PROPERTY} 帧，
+     * 积压时的吞吐随批大小增长，而不是受限于监听代理的轮询周期。
+     * {@link AudioFrameBatchListener} 收到整批拼接后的数据，其余监听器逐帧回调。
+     */
+    private final class StreamDelivery implements Runnable {
+
+        private final ProcessorOutputGroup group;
+        private final Thread consumer;
+        private final AtomicBoolean parked = new AtomicBoolean(false);
+        private volatile boolean running = true;
+        private boolean detached; // 在自己的回调中被停止，调用方不会等待本线程，之后不能再写计数器
+        private final ArrayList<AudioFrame> batch = new ArrayList<>(BATCH_SIZE);
+        private byte[] batchBytes; // 批量监听器的拼接暂存区，按需分配后复用
+        // 监听器未覆盖 onDenoisedAudioFrame(AudioFrame) 时由这里桥接到字节数组回调，堆外帧经 frameBytes 复制
+        private final boolean bridgeToBytes;
+        private byte[] frameBytes;
+
+        StreamDelivery(ProcessorOutputGroup group) {
+            this.group = group;
+            this.bridgeToBytes = usesDefaultFrameCallback(group.denoisedFrameListener());
+            this.consumer = Thread.ofVirtual().name("dfnet-listener-" + group.processorId()).unstarted(this);
+        }
+
+        void start() {
+            consumer.start();
+        }
+
+        /**
+         * 消费线程已挂起时唤醒它。由监听代理在队列非空时调用；消费线程正在运行时返回 false。
+         */
+        boolean wakeIfParked() {
+            if (parked.compareAndSet(true, false)) {
+                LockSupport.unpark(consumer);
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * 请求消费线程在当前一批回调结束后退出。
+         */
+        void stop() {
+            running = false;
+            if (Thread.currentThread() == consumer) {
+                detached = true;
+                return;
+            }
+            LockSupport.unpark(consumer);
+        }
+
+        /**
+         * 等待消费线程退出。回调可能阻塞，超过 {@value #AGENT_SHUTDOWN_TIMEOUT_MS} ms 后记录警告并继续等待：
+         * 调用方随后会关闭计数器，消费线程仍在运行时不能返回。
+         */
+        void awaitTermination() {
+            if (Thread.currentThread() == consumer) {
+                return;
+            }
+            boolean interrupted = false;
+            boolean warned = false;
+            while (consumer.isAlive()) {
+                try {
+                    consumer.join(AGENT_SHUTDOWN_TIMEOUT_MS);
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+                if (consumer.isAlive() && !warned) {
+                    warned = true;
+                    log.warn("DF_LOG: Listener callback of processor {} has not returned after {} ms. Still waiting.",
+                        group.processorId(), AGENT_SHUTDOWN_TIMEOUT_MS);
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                if (drainOnce() > 0) {
+                    continue;
+                }
+                parked.set(true);
+                // 设置标志与监听代理检查队列之间可能有新帧到达，挂起前再检查一次，避免帧滞留到下一帧到达
+                if (running && group.listenerOutputQueue().isEmpty()) {
+                    LockSupport.park(this);
+                }
+                parked.set(false);
+            }
+            // 停止后不再投递，队列中剩余的帧直接释放回缓冲池
+            AudioFrame frame;
+            while ((frame = group.listenerOutputQueue().poll()) != null) {
+                frame.release();
+            }
+        }
+
+        private int drainOnce() {
+            final int drained = group.listenerOutputQueue().drainTo(batch, BATCH_SIZE);
+            if (drained > 0) {
+                final long startNs = System.nanoTime();
+                recordLatencies(startNs, drained);
+                try {
+                    if (group.denoisedFrameListener() instanceof AudioFrameBatchListener batchListener) {
+                        deliverBatch(batchListener);
+                    } else {
+                        for (int i = 0; i < drained; i++) {
+                            deliver(batch.get(i));
+                        }
+                    }
+                } finally {
+                    for (int i = 0; i < drained; i++) {
+                        // 释放管线持有的引用；监听者若 retain 过该帧，则在其 release 后才回到缓冲池
+                        batch.get(i).release();
+                    }
+                    batch.clear();
+                    if (!detached) {
+                        group.counters().callbackNanos().getAndAddRelease(System.nanoTime() - startNs);
+                        group.counters().framesDelivered().getAndAddRelease(drained);
+                    }
+                }
+            }
+            return drained;
+        }
+
+        private void recordLatencies(long callbackStartNs, int drained) {
+            for (int i = 0; i < drained; i++) {
+                AudioFrame frame = batch.get(i);
+                PipelineLatencyRecorder.record(PipelineStage.LISTENER_DISPATCH, callbackStartNs - frame.enqueueNanos());
+                PipelineLatencyRecorder.record(PipelineStage.END_TO_END, callbackStartNs - frame.ingestNanos());
+            }
+        }
+
+        private void deliver(AudioFrame denoisedFrame) {
+            try {
+                if (!bridgeToBytes) {
+                    group.denoisedFrameListener().onDenoisedAudioFrame(denoisedFrame);
+                } else if (denoisedFrame.hasArray()) {
+                    group.denoisedFrameListener().onDenoisedAudioFrame(denoisedFrame.array(),
+                        denoisedFrame.arrayOffset(), denoisedFrame.length());
+                } else {
+                    if (frameBytes == null || frameBytes.length < denoisedFrame.length()) {
+                        frameBytes = new byte[denoisedFrame.capacity()];
+                    }
+                    denoisedFrame.buffer().getBytes(0, frameBytes, 0, denoisedFrame.length());
+                    group.denoisedFrameListener().onDenoisedAudioFrame(frameBytes, 0, denoisedFrame.length());
+                }
+            } catch (Throwable e) {
+                log.error("DF_LOG: Error in denoisedFrameListener callback for processor {}: {}",
+                    group.processorId(), e.getMessage(), e);
+            }
+        }
+
+        private void deliverBatch(AudioFrameBatchListener batchListener) {
+            int totalLength = 0;
+            for (int i = 0; i < batch.size(); i++) {
+                totalLength += batch.get(i).length();
+            }
+            if (batchBytes == null || batchBytes.length < totalLength) {
+                batchBytes = new byte[Math.max(totalLength, BATCH_SIZE * batch.get(0).capacity())];
+            }
+            int offset = 0;
+            for (int i = 0; i < batch.size(); i++) {
+                AudioFrame frame = batch.get(i);
+                frame.buffer().getBytes(0, batchBytes, offset, frame.length());
+                offset += frame.length();
+            }
+            try {
+                batchListener.onDenoisedAudioFrames(batchBytes, 0, totalLength, batch.size());
+            } catch (Throwable e) {
+                log.error("DF_LOG: Error in denoisedFrameListener batch callback for processor {}: {}",
+                    group.processorId(), e.getMessage(), e);
+            }
+        }
+    }
+}
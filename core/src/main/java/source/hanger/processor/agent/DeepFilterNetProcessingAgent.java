@@ -0,0 +1,816 @@
+package source.hanger.processor.agent;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.sound.sampled.AudioFormat;
+
+import lombok.extern.slf4j.Slf4j;
+import org.agrona.BitUtil;
+import org.agrona.MutableDirectBuffer;
+import org.agrona.concurrent.MessageHandler;
+import org.agrona.concurrent.OneToOneConcurrentArrayQueue;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.agrona.concurrent.ringbuffer.OneToOneRingBuffer;
+import source.hanger.backend.DeepFilterNetState;
+import source.hanger.buffer.AudioFrame;
+import source.hanger.buffer.AudioFramePool;
+import source.hanger.codec.Pcm16Codec;
+import source.hanger.codec.Pcm16Codecs;
+import source.hanger.codec.PolyphaseResampler;
+import source.hanger.metrics.PipelineLatencyRecorder;
+import source.hanger.metrics.PipelineStage;
+import source.hanger.metrics.ProcessorCounters;
+
+@Slf4j
+public class DeepFilterNetProcessingAgent implements LoadReportingAgent {
+    // 修改：将 AudioFormat 字段的访问修饰符改为 public
+    public static final AudioFormat AUDIO_FORMAT = new AudioFormat(48000.0f, 16, 1, true, false);
+    /**
+     * DeepFilterNet 模型的采样率，其他采样率的流由处理代理重采样。
+     */
+    public static final int SAMPLE_RATE = 48000;
+    public static final int MSG_TYPE_ID = 1; // 新增：消息类型ID
+    /**
+     * Ring buffer 消息头：写入方 {@link System#nanoTime()} 时间戳 (long)，其后为 PCM16 数据。
+     */
+    public static final int MESSAGE_HEADER_LENGTH = Long.BYTES;
+    /**
+     * 切换状态时新状态与旧状态并行处理的帧数，用于建立新状态的循环网络状态。
+     */
+    public static final int SWAP_WARMUP_FRAMES = 10;
+    /**
+     * DeepFilterNet 的算法延迟 (帧)：STFT 重叠 (fft_size - hop_size，即 1 帧) 加上 2 帧 lookahead，共 30 ms。
+     * 跳过推理时输出的原始音频经过同样长度的延迟线，与降噪输出在时间上对齐。
+     */
+    public static final int BYPASS_DELAY_FRAMES = 3;
+    /**
+     * 旁路结束后恢复推理时，状态先以实时输入处理的帧数：期间仍输出延迟后的原始音频，使旁路前残留在 lookahead
+     * 缓冲区中的陈旧音频被冲掉、循环网络状态重新收敛，最后一帧交叉淡化到降噪输出。
+     */
+    public static final int BYPASS_RECOVERY_FRAMES = SWAP_WARMUP_FRAMES;
+    // 48kHz, 16-bit, mono, signed, little-endian
+    private DeepFilterNetState dfState;
+    private final int frameLength;
+    // 每帧的声道数，多声道时 PCM 交错排列、原生缓冲区按声道平面排列
+    private final int channels;
+    private final int samplesPerFrame;
+    // 流的 PCM 采样率不是 48 kHz 时，每个 DF 帧对应的输入/输出 PCM 帧数 (每声道样本数)，以及每帧的输入/输出字节数
+    private final int inputFramesPerHop;
+    private final int outputFramesPerHop;
+    private final int bytesPerFullFrame;
+    private final int outputBytesPerFrame;
+    // 每个声道各一个有状态的重采样器，采样率为 48 kHz 时为 null；暂存区按声道平面排列
+    private final PolyphaseResampler[] inputResamplers;
+    private final PolyphaseResampler[] outputResamplers;
+    private final FloatBuffer inputScratch;
+    private final FloatBuffer outputScratch;
+    private final OneToOneRingBuffer ringBuffer;
+    private final OneToOneConcurrentArrayQueue<AudioFrame> listenerOutputQueue;
+    private final AudioFramePool framePool;
+    private final AtomicBoolean endOfInputSignaled;
+    private final OverloadPolicy overloadPolicy;
+    private final long blockTimeoutNs;
+    private final LatencyBudget latencyBudget;
+
+    private final ByteBuffer frameAccumulator;
+    // frameAccumulator 的 Agrona 视图，供编解码器按绝对下标批量读取
+    private final UnsafeBuffer accumulatorView;
+    private final Pcm16Codec codec = Pcm16Codecs.create();
+    // 输入输出帧是后端持有的原生内存视图，PCM16 解码结果直接写入其中，df_process_frame 只传递地址，无数组拷贝
+    private FloatBuffer inputFrame;
+    private FloatBuffer outputFrame;
+    // 其他线程请求切换到的状态，由处理线程在帧边界取走
+    private final AtomicReference<DeepFilterNetState> pendingState = new AtomicReference<>();
+    // 正在预热、即将替换 dfState 的状态及其已处理的帧数，只由处理线程访问
+    private DeepFilterNetState nextState;
+    private int nextStateFrames;
+    // 计数器由当前所在的工作线程单写者更新，负载均衡线程和外部工具只读；迁移时由 DynamicCompositeAgent 的交接保证可见性
+    private final ProcessorCounters counters;
+    // 预先创建的消息处理器，避免每次 read() 时捕获 this 的 lambda 产生分配
+    private final MessageHandler accumulateHandler = this::onRingBufferMessage;
+    private final MessageHandler discardHandler = this::onDiscardedMessage;
+    private final FrameBatcher.Participant batchParticipant = this::onBatchProcessed;
+    // 所在工作线程的批量推理协调者 (onStart 时取得，未启用批处理时为 null) 以及已交给它、尚未处理完的帧，
+    // 只由处理线程访问
+    private FrameBatcher batcher;
+    private boolean batchedFramePending;
+    private long batchedDecodeNs;
+    private long batchedIngestNs;
+    // 监听队列满时暂存的输出帧及其开始等待的时刻，只由处理线程访问
+    private AudioFrame pendingFrame;
+    private long pendingSinceNs;
+    // 生产者因输入 ring buffer 满请求追赶 (DROP_OLDEST 丢弃积压、PASSTHROUGH 跳过推理)，由处理线程清除
+    private volatile boolean catchUpRequested;
+    // PASSTHROUGH 追赶中：跳过推理直到积压降到一半以下，只由处理线程访问
+    private boolean passingThrough;
+    // 超出延迟预算而旁路推理中，以及近期推理耗时的指数移动平均 (ns)，只由处理线程访问
+    private boolean bypassing;
+    private long expectedInferenceNs;
+    // 跳过推理 (PASSTHROUGH 追赶或超出延迟预算) 时的输出路径，只由处理线程访问：
+    // 延迟线保存最近 BYPASS_DELAY_FRAMES 帧输入，delayedInput 为其中最旧的一帧乘以旁路增益，与降噪输出对齐；
+    // rawOutput 表示当前输出延迟后的原始音频，recoveryFrames 为恢复推理后已重新送入状态的帧数
+    private final FloatBuffer delayLine;
+    private int delayLineSlot;
+    private final FloatBuffer delayedInput;
+    private final FloatBuffer transitionFrame;
+    private boolean rawOutput;
+    private int recoveryFrames;
+    // 当前帧是否执行了推理，由 nextFrameOutput 设置
+    private boolean frameInferred;
+    // 帧累积区中各帧第一个样本所在输入消息的写入时刻，按帧在累积区中的顺序环形排列；
+    // frameIngestNs 为当前帧的输入时刻 (其最旧样本到达的时刻)
+    private final long[] frameStartIngestNs;
+    private int frameStartHead;
+    private long frameIngestNs;
+
+    public DeepFilterNetProcessingAgent(
+        DeepFilterNetState dfState,
+        OneToOneRingBuffer ringBuffer,
+        OneToOneConcurrentArrayQueue<AudioFrame> listenerOutputQueue,
+        AudioFramePool framePool,
+        AtomicBoolean endOfInputSignaled,
+        ProcessorCounters counters) {
+        this(builder(dfState, ringBuffer, listenerOutputQueue, framePool, endOfInputSignaled, counters));
+    }
+
+    /**
+     * 创建处理代理构建器；过载策略默认 {@link OverloadPolicy#BLOCK}，不设延迟预算，输入输出均为 48 kHz。
+     */
+    public static Builder builder(
+        DeepFilterNetState dfState,
+        OneToOneRingBuffer ringBuffer,
+        OneToOneConcurrentArrayQueue<AudioFrame> listenerOutputQueue,
+        AudioFramePool framePool,
+        AtomicBoolean endOfInputSignaled,
+        ProcessorCounters counters) {
+        return new Builder(dfState, ringBuffer, listenerOutputQueue, framePool, endOfInputSignaled, counters);
+    }
+
+    /**
+     * @throws IllegalArgumentException 如果采样率不能使每帧对应整数个 PCM 样本，见 {@link #framesPerHop(int, int)}。
+     */
+    private DeepFilterNetProcessingAgent(Builder builder) {
+        final DeepFilterNetState dfState = builder.dfState;
+        final OneToOneRingBuffer ringBuffer = builder.ringBuffer;
+        final int inputSampleRate = builder.inputSampleRate;
+        final int outputSampleRate = builder.outputSampleRate;
+        this.dfState = dfState;
+        this.frameLength = dfState.frameLength();
+        this.channels = dfState.channels();
+        this.samplesPerFrame = frameLength * channels;
+        this.ringBuffer = ringBuffer;
+        this.listenerOutputQueue = builder.listenerOutputQueue;
+        this.framePool = builder.framePool;
+        this.endOfInputSignaled = builder.endOfInputSignaled;
+        this.counters = builder.counters;
+        this.overloadPolicy = builder.overloadPolicy;
+        this.blockTimeoutNs = OverloadPolicy.blockTimeoutNanos();
+        this.latencyBudget = builder.latencyBudget;
+
+        this.inputFramesPerHop = framesPerHop(frameLength, inputSampleRate);
+        this.outputFramesPerHop = framesPerHop(frameLength, outputSampleRate);
+        this.inputResamplers = newResamplers(inputSampleRate, SAMPLE_RATE, inputFramesPerHop);
+        this.outputResamplers = newResamplers(SAMPLE_RATE, outputSampleRate, frameLength);
+        this.inputScratch = inputResamplers == null ? null : FloatBuffer.allocate(inputFramesPerHop * channels);
+        this.outputScratch = outputResamplers == null ? null : FloatBuffer.allocate(outputFramesPerHop * channels);
+
+        // 使用固定的 AUDIO_FORMAT 的样本格式 (16 bit 小端)，采样率可以不同
+        this.bytesPerFullFrame = inputFramesPerHop * channels * AUDIO_FORMAT.getFrameSize();
+        this.outputBytesPerFrame = outputFramesPerHop * channels * AUDIO_FORMAT.getFrameSize();
+        final int frameAccumulatorCapacity = BitUtil.findNextPositivePowerOfTwo(
+            bytesPerFullFrame + ringBuffer.maxMsgLength());
+        log.info(
+            "DF_ACCUM_DIAG: ProcessingAgent 构造: bytesPerFullFrame={}, ringBuffer.maxMsgLength()={}, "
+                + "frameAccumulatorCapacity={}",
+            bytesPerFullFrame, ringBuffer.maxMsgLength(), frameAccumulatorCapacity);
+        this.frameAccumulator = ByteBuffer.allocateDirect(frameAccumulatorCapacity);
+        this.frameAccumulator.order(AUDIO_FORMAT.isBigEndian() ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN);
+        this.accumulatorView = new UnsafeBuffer(frameAccumulator);
+        this.frameStartIngestNs = new long[frameAccumulatorCapacity / bytesPerFullFrame + 2];
+        this.delayLine = FloatBuffer.allocate(BYPASS_DELAY_FRAMES * samplesPerFrame);
+        this.delayedInput = FloatBuffer.allocate(samplesPerFrame);
+        this.transitionFrame = FloatBuffer.allocate(samplesPerFrame);
+        this.inputFrame = dfState.inputFrame();
+        this.outputFrame = dfState.outputFrame();
+    }
+
+    /**
+     * 由线程池在 {@link #doWork()} 抛出异常并把代理移出后调用：发出输入结束信号，使生产者的写入被拒绝，并释放状态。
+     * 处理器之后再调用 {@link #release()} 不会重复释放。
+     */
+    void quarantine() {
+        endOfInputSignaled.set(true);
+        release();
+    }
+
+    /**
+     * 采样率为 {@code sampleRate} 的 PCM 中与一个 48 kHz DF 帧 (每声道 {@code frameLength} 个样本) 等长的样本数，
+     * 例如 480 样本的帧在 8 / 16 / 24 / 44.1 kHz 下分别为 80 / 160 / 240 / 441。
+     *
+     * @throws IllegalArgumentException 如果结果不是整数 (帧长 480 时采样率须为 100 Hz 的整数倍)。
+     */
+    public static int framesPerHop(int frameLength, int sampleRate) {
+        final long scaled = (long)frameLength * sampleRate;
+        if (sampleRate <= 0 || scaled % SAMPLE_RATE != 0) {
+            throw new IllegalArgumentException(
+                "DF_ERROR: 不支持的采样率 " + sampleRate + " Hz：帧长 " + frameLength + " 在该采样率下不是整数个样本");
+        }
+        return (int)(scaled / SAMPLE_RATE);
+    }
+
+    private PolyphaseResampler[] newResamplers(int fromRate, int toRate, int maxInputLength) {
+        if (fromRate == toRate) {
+            return null;
+        }
+        final PolyphaseResampler[] resamplers = new PolyphaseResampler[channels];
+        for (int c = 0; c < channels; c++) {
+            resamplers[c] = new PolyphaseResampler(fromRate, toRate, maxInputLength);
+        }
+        log.info("DF_LOG: ProcessingAgent 启用重采样 {} Hz -> {} Hz ({} 声道)。", fromRate, toRate, channels);
+        return resamplers;
+    }
+
+    /**
+     * 把帧累积区开头的一帧 PCM 解码到 {@link #inputFrame}，采样率不是 48 kHz 时经重采样器转换为 48 kHz。
+     */
+    private void decodeFrame() {
+        frameIngestNs = frameStartIngestNs[frameStartHead];
+        frameStartHead = (frameStartHead + 1) % frameStartIngestNs.length;
+        if (inputResamplers == null) {
+            codec.decodeInterleaved(accumulatorView, 0, inputFrame, 0, frameLength, channels, 1.0f);
+        } else {
+            codec.decodeInterleaved(accumulatorView, 0, inputScratch, 0, inputFramesPerHop, channels, 1.0f);
+            for (int c = 0; c < channels; c++) {
+                inputResamplers[c].process(inputScratch, c * inputFramesPerHop, inputFramesPerHop, inputFrame,
+                    c * frameLength);
+            }
+        }
+        advanceDelayLine();
+    }
+
+    /**
+     * 取出延迟线中最旧的一帧 (乘以旁路增益) 放入 {@link #delayedInput}，再把当前输入帧写入它的位置。
+     * 每帧都要执行，旁路开始时延迟线中已是与降噪输出对齐的输入。
+     */
+    private void advanceDelayLine() {
+        final int slotOffset = delayLineSlot * samplesPerFrame;
+        final float gain = latencyBudget.bypassGain();
+        for (int i = 0; i < samplesPerFrame; i++) {
+            delayedInput.put(i, delayLine.get(slotOffset + i) * gain);
+        }
+        delayLine.put(slotOffset, inputFrame, 0, samplesPerFrame);
+        delayLineSlot = (delayLineSlot + 1) % BYPASS_DELAY_FRAMES;
+    }
+
+    @Override
+    public String roleName() {
+        return "dfnet-processing-agent";
+    }
+
+    @Override
+    public void onStart() {
+        // 加入线程池以及每次迁移后都在新的工作线程上调用
+        batcher = FrameBatcher.current();
+    }
+
+    @Override
+    public void onClose() {
+        batcher = null;
+    }
+
+    @Override
+    public int doWork() {
+        int workDone = 0;
+
+        // 上一帧还在等待进入监听队列 (BLOCK)：不处理新帧也不读取输入，让输入侧按策略形成背压；
+        // 返回 0 交给空闲策略等待，而不是在共享工作线程上自旋阻塞其他流
+        if (!flushPendingFrame()) {
+            return 0;
+        }
+        if (catchUpRequested) {
+            catchUp();
+            workDone = 1;
+        }
+
+        // 优先处理已积累的完整帧
+        if (frameAccumulator.position() >= bytesPerFullFrame) {
+            final long startNs = System.nanoTime();
+            frameAccumulator.flip();
+
+            decodeFrame();
+            frameAccumulator.position(bytesPerFullFrame);
+
+            int remainingBytes = frameAccumulator.remaining();
+            if (remainingBytes > 0) {
+                frameAccumulator.compact();
+            } else {
+                frameAccumulator.clear();
+            }
+
+            final long nativeStartNs = System.nanoTime();
+            PipelineLatencyRecorder.record(PipelineStage.RING_BUFFER_WAIT, startNs - frameIngestNs);
+            final boolean infer = shouldInfer(nativeStartNs);
+            if (infer && !rawOutput && deferToBatch(startNs, nativeStartNs)) {
+                // 推理、编码与输出在本 duty cycle 末尾由 onBatchProcessed 完成
+                workDone = 1;
+            } else {
+                final FloatBuffer frameOutput = nextFrameOutput(infer);
+                final long nativeEndNs = System.nanoTime();
+
+                AudioFrame processedFrame = encodeFrame(frameOutput, 0, frameIngestNs);
+                recordFrame(System.nanoTime() - startNs, nativeEndNs - nativeStartNs, frameInferred);
+
+                // 将降噪后的数据放入监听队列，由 listenerThread 异步处理；队列满时按过载策略处理，不在此等待
+                emitFrame(processedFrame);
+                workDone = 1; // 至少完成了一项工作
+            }
+        }
+
+        // 如果没有完整帧可处理，则尝试从 Ring Buffer 读取数据
+        int messagesRead = ringBuffer.read(accumulateHandler, 1); // 每次只尝试读取一个消息
+
+        if (messagesRead > 0) {
+            counters.ringBufferDepth().setRelease(ringBuffer.size());
+            workDone = 1; // 至少完成了一项工作
+        }
+
+        // 优雅退出条件：收到输入结束信号，ringBuffer已空，且frameAccumulator已清空；
+        // 批次中还有本流的帧时先等它完成，保证剩余数据在其后输出
+        if (!batchedFramePending && endOfInputSignaled.get() && ringBuffer.size() == 0 && frameAccumulator.position() == 0) {
+            // 确保在 agent 退出前，所有剩余数据都被 flush
+            flushRemainingRingBufferData(frameAccumulator);
+            if (frameAccumulator.position() == 0) {
+                return 0; // 表示已完成所有工作，AgentRunner 可以停止此 Agent
+            } else {
+                // 如果刷新后依然有数据，可能是逻辑错误，或者需要更多轮询来清空
+                return 1; // 尝试再做一轮工作
+            }
+        }
+
+        return workDone; // 返回完成的工作量
+    }
+
+    private void flushRemainingRingBufferData(ByteBuffer frameAccumulator) {
+        ringBuffer.read(accumulateHandler, Integer.MAX_VALUE);
+
+        if (frameAccumulator.position() > 0) {
+            frameAccumulator.flip();
+            int currentBufferedBytes = frameAccumulator.remaining();
+
+            if (currentBufferedBytes < bytesPerFullFrame) {
+                frameAccumulator.position(currentBufferedBytes);
+                frameAccumulator.limit(bytesPerFullFrame);
+                for (int i = currentBufferedBytes; i < bytesPerFullFrame; i++) {
+                    frameAccumulator.put((byte)0);
+                }
+                frameAccumulator.rewind();
+            } else {
+                frameAccumulator.rewind();
+                // log.info(
+                //    "DF_ACCUM_DIAG: flushRemainingRingBufferData: 发现 frameAccumulator 包含完整或超长帧。实际字节: {}",
+                //    currentBufferedBytes);
+            }
+
+            decodeFrame();
+
+            final long nativeStartNs = System.nanoTime();
+            final FloatBuffer frameOutput = nextFrameOutput(shouldInfer(nativeStartNs));
+            final long nativeElapsedNs = System.nanoTime() - nativeStartNs;
+
+            AudioFrame processedFrame = encodeFrame(frameOutput, 0, frameIngestNs);
+            recordFrame(nativeElapsedNs, nativeElapsedNs, frameInferred);
+            PipelineLatencyRecorder.record(PipelineStage.RING_BUFFER_WAIT, nativeStartNs - frameIngestNs);
+
+            // 将降噪后的数据放入监听队列，由 listenerThread 异步处理
+            emitFrame(processedFrame);
+
+            frameAccumulator.clear(); // 确保 frameAccumulator 在处理完所有剩余数据后被完全清空
+        }
+    }
+
+    /**
+     * 请求在帧边界切换到另一个状态 (例如另一个模型的状态)，可以从任意线程调用。
+     * <p>
+     * 新状态先与当前状态并行处理 {@value #SWAP_WARMUP_FRAMES} 帧相同的输入以建立循环网络状态，期间仍输出当前状态的结果；
+     * 最后一帧在两者的输出之间线性交叉淡化，之后只使用新状态，旧状态在后台关闭 (借自状态池时即归还)。
+     * 切换过程中输入输出帧一一对应，不丢失也不重复音频。
+     *
+     * @throws IllegalArgumentException 如果新状态的帧长度或声道数与当前状态不同。
+     */
+    public void switchState(DeepFilterNetState newState) {
+        if (newState.frameLength() != frameLength) {
+            throw new IllegalArgumentException(
+                "DF_ERROR: 新状态的帧长度 " + newState.frameLength() + " 与当前帧长度 " + frameLength + " 不同");
+        }
+        if (newState.channels() != channels) {
+            throw new IllegalArgumentException(
+                "DF_ERROR: 新状态的声道数 " + newState.channels() + " 与当前声道数 " + channels + " 不同");
+        }
+        final DeepFilterNetState superseded = pendingState.getAndSet(newState);
+        if (superseded != null) {
+            superseded.close(); // 上一次请求的状态还没被处理线程取走，直接以新的请求代替
+        }
+    }
+
+    /**
+     * 请求处理代理尽快消除输入积压，由生产者在输入 ring buffer 满时调用，可以从任意线程调用。
+     * {@link OverloadPolicy#DROP_OLDEST} 下丢弃较旧的积压输入，{@link OverloadPolicy#PASSTHROUGH} 下跳过推理、输出对齐的原始音频，
+     * 其他策略下忽略。
+     */
+    public void requestCatchUp() {
+        if (overloadPolicy == OverloadPolicy.DROP_OLDEST || overloadPolicy == OverloadPolicy.PASSTHROUGH) {
+            catchUpRequested = true;
+        }
+    }
+
+    /**
+     * 释放当前状态、尚未完成切换的状态以及尚未进入监听队列的输出帧。只能在代理已从线程池移除、不会再被调用之后调用；
+     * 可重复调用，被隔离的代理可能由隔离线程与处理器同时释放。
+     */
+    public synchronized void release() {
+        if (pendingFrame != null) {
+            pendingFrame.release();
+            pendingFrame = null;
+        }
+        dfState.close();
+        if (nextState != null) {
+            nextState.close();
+            nextState = null;
+        }
+        final DeepFilterNetState pending = pendingState.getAndSet(null);
+        if (pending != null) {
+            pending.close();
+        }
+    }
+
+    /**
+     * 用当前状态处理 {@link #inputFrame} 中的一帧；有待切换的状态时同时预热它，预热结束时完成切换，
+     * 此时 {@link #outputFrame} 已指向新状态的 (交叉淡化后的) 输出。
+     */
+    private void inferFrame() {
+        dfState.processFrame();
+        if (nextState == null && pendingState.get() != null) {
+            nextState = pendingState.getAndSet(null);
+            nextStateFrames = 0;
+        }
+        if (nextState != null) {
+            warmUpNextState();
+        }
+    }
+
+    /**
+     * 处理 {@link #inputFrame} 中的一帧并返回输出所在的缓冲区，{@code infer} 为 {@link #shouldInfer(long)} 的决定。
+     * <p>
+     * 跳过推理的帧输出延迟线中与降噪输出对齐的原始音频 ({@link #delayedInput})，降噪与原始音频之间的切换都在一帧内
+     * 交叉淡化：进入旁路的那一帧仍执行推理，从降噪输出淡化到原始音频；恢复推理时状态先以实时输入处理
+     * {@value #BYPASS_RECOVERY_FRAMES} 帧 (期间仍输出原始音频)，最后一帧从原始音频淡化到降噪输出。
+     * 是否执行了推理记录在 {@link #frameInferred}。
+     */
+    private FloatBuffer nextFrameOutput(boolean infer) {
+        if (!rawOutput) {
+            frameInferred = true;
+            final FloatBuffer enhanced = inferFrameOutput();
+            if (infer) {
+                return enhanced;
+            }
+            rawOutput = true;
+            recoveryFrames = 0;
+            return crossfade(enhanced, delayedInput, transitionFrame);
+        }
+        frameInferred = infer;
+        if (!infer) {
+            recoveryFrames = 0;
+            return delayedInput;
+        }
+        final FloatBuffer enhanced = inferFrameOutput();
+        if (++recoveryFrames < BYPASS_RECOVERY_FRAMES) {
+            return delayedInput;
+        }
+        rawOutput = false;
+        return crossfade(delayedInput, enhanced, transitionFrame);
+    }
+
+    /**
+     * 在一帧内从 {@code from} 线性淡化到 {@code to}，结果写入 {@code dst} (可以是 {@code to})；按声道平面排列，
+     * 每个声道各自淡化。
+     */
+    private FloatBuffer crossfade(FloatBuffer from, FloatBuffer to, FloatBuffer dst) {
+        final float step = 1.0f / frameLength;
+        for (int i = 0; i < samplesPerFrame; i++) {
+            final float weight = (i % frameLength + 1) * step;
+            dst.put(i, from.get(i) * (1.0f - weight) + to.get(i) * weight);
+        }
+        return dst;
+    }
+
+    private FloatBuffer inferFrameOutput() {
+        inferFrame();
+        return outputFrame;
+    }
+
+    /**
+     * 当前帧是否需要推理；{@code PASSTHROUGH} 追赶期间或预计超出延迟预算时返回 {@code false} 并计数。
+     */
+    private boolean shouldInfer(long nowNs) {
+        if (passingThrough) {
+            if (ringBuffer.size() > ringBuffer.capacity() / 2) {
+                counters.framesPassedThrough().incrementRelease();
+                return false;
+            }
+            passingThrough = false;
+        }
+        if (latencyBudget.isLimited() && missesDeadline(nowNs)) {
+            counters.framesDeadlineBypassed().incrementRelease();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 把 {@link #inputFrame} 中的帧交给所在工作线程的批次。正在切换状态时不交给批次，由本线程逐帧完成预热与交叉淡化。
+     *
+     * @return {@code false} 如果未启用批处理或批次已满，调用方应自行推理该帧。
+     */
+    private boolean deferToBatch(long startNs, long decodedNs) {
+        if (batcher == null || nextState != null || pendingState.get() != null) {
+            return false;
+        }
+        try {
+            if (!batcher.offer(dfState, inputFrame, batchParticipant)) {
+                return false;
+            }
+        } catch (IllegalArgumentException e) {
+            log.warn("DF_WARN: 状态不能加入批次，该流改为逐帧推理: {}", e.getMessage());
+            batcher = null;
+            return false;
+        }
+        batchedFramePending = true;
+        batchedDecodeNs = decodedNs - startNs;
+        batchedIngestNs = frameIngestNs;
+        return true;
+    }
+
+    /**
+     * 批次处理完成：编码并输出交给批次的帧。{@code output} 为 {@code null} (批量推理失败) 时输出延迟线中对齐的原始音频，
+     * 并按旁路处理，之后经 {@value #BYPASS_RECOVERY_FRAMES} 帧重新送入状态后再淡化回降噪输出。
+     */
+    private void onBatchProcessed(FloatBuffer output, int offset, long nativeNanos) {
+        batchedFramePending = false;
+        final long encodeStartNs = System.nanoTime();
+        final boolean inferred = output != null;
+        if (!inferred) {
+            rawOutput = true;
+            recoveryFrames = 0;
+        }
+        final AudioFrame processedFrame = inferred
+            ? encodeFrame(output, offset, batchedIngestNs)
+            : encodeFrame(delayedInput, 0, batchedIngestNs);
+        // 只计入本流自己的解码、均摊的推理与编码耗时，不含同一 duty cycle 中其他流的处理时间
+        recordFrame(batchedDecodeNs + nativeNanos + (System.nanoTime() - encodeStartNs), nativeNanos, inferred);
+        if (inferred) {
+            counters.framesBatched().incrementRelease();
+        }
+        emitFrame(processedFrame);
+    }
+
+    /**
+     * 预测当前帧的完成延迟 (其最旧样本已等待的时间加上近期推理耗时)，超出预算时进入旁路，旁路中降到恢复阈值以下才退出。
+     */
+    private boolean missesDeadline(long nowNs) {
+        final long predictedNs = nowNs - frameIngestNs + expectedInferenceNs;
+        if (bypassing) {
+            bypassing = predictedNs >= latencyBudget.recoveryNanos();
+        } else {
+            bypassing = predictedNs > latencyBudget.budgetNanos();
+        }
+        return bypassing;
+    }
+
+    /**
+     * 响应生产者的追赶请求：{@code DROP_OLDEST} 丢弃最旧的输入消息直到积压降到一半以下，
+     * {@code PASSTHROUGH} 进入跳过推理的模式，由 {@link #shouldInfer(long)} 在积压降到一半以下时退出；
+     * 期间的输出与延迟预算的旁路相同，经 {@link #nextFrameOutput(boolean)} 对齐并交叉淡化。
+     */
+    private void catchUp() {
+        catchUpRequested = false;
+        if (overloadPolicy == OverloadPolicy.PASSTHROUGH) {
+            passingThrough = true;
+            return;
+        }
+        final int target = ringBuffer.capacity() / 2;
+        while (ringBuffer.size() > target && ringBuffer.read(discardHandler, 1) > 0) {
+            // 逐条丢弃，直到腾出一半空间
+        }
+        counters.ringBufferDepth().setRelease(ringBuffer.size());
+    }
+
+    /**
+     * 将帧放入监听队列；队列满时按过载策略丢弃该帧或暂存到 {@link #pendingFrame} 等待下一个 duty cycle 重试。
+     */
+    private void emitFrame(AudioFrame frame) {
+        frame.enqueueNanos(System.nanoTime());
+        if (listenerOutputQueue.offer(frame)) {
+            return;
+        }
+        counters.outputFullSpins().incrementRelease();
+        switch (overloadPolicy) {
+            case BLOCK -> {
+                pendingFrame = frame;
+                pendingSinceNs = System.nanoTime();
+            }
+            case DROP_OLDEST -> {
+                if (pendingFrame != null) {
+                    dropFrame(pendingFrame);
+                }
+                pendingFrame = frame;
+            }
+            default -> dropFrame(frame);
+        }
+    }
+
+    /**
+     * 重试暂存的输出帧。
+     *
+     * @return {@code false} 表示 {@link OverloadPolicy#BLOCK} 下该帧仍在等待且未超时，本轮不应处理新帧。
+     */
+    private boolean flushPendingFrame() {
+        if (pendingFrame == null) {
+            return true;
+        }
+        if (listenerOutputQueue.offer(pendingFrame)) {
+            pendingFrame = null;
+            return true;
+        }
+        if (overloadPolicy != OverloadPolicy.BLOCK) {
+            return true; // DROP_OLDEST：保留该帧，由下一个新帧替换
+        }
+        if (blockTimeoutNs == 0 || System.nanoTime() - pendingSinceNs < blockTimeoutNs) {
+            counters.outputFullSpins().incrementRelease();
+            return false;
+        }
+        dropFrame(pendingFrame);
+        pendingFrame = null;
+        return true;
+    }
+
+    private void dropFrame(AudioFrame frame) {
+        frame.release();
+        counters.outputDroppedFrames().incrementRelease();
+    }
+
+    private void warmUpNextState() {
+        final FloatBuffer nextOutput = nextState.outputFrame();
+        nextState.inputFrame().put(0, inputFrame, 0, samplesPerFrame);
+        nextState.processFrame();
+        if (++nextStateFrames < SWAP_WARMUP_FRAMES) {
+            return;
+        }
+        crossfade(outputFrame, nextOutput, nextOutput);
+        final DeepFilterNetState retired = dfState;
+        dfState = nextState;
+        inputFrame = dfState.inputFrame();
+        outputFrame = nextOutput;
+        nextState = null;
+        // 归还状态池需要执行 df_reset，放到虚拟线程上，不占用处理线程
+        Thread.startVirtualThread(retired::close);
+        log.info("DF_LOG: ProcessingAgent 已在帧边界切换到新状态。");
+    }
+
+    @Override
+    public long busyNanos() {
+        return counters.frameNanos().get();
+    }
+
+    @Override
+    public long framesProcessed() {
+        return counters.framesProcessed().get();
+    }
+
+    private void recordFrame(long frameNs, long nativeNs, boolean inferred) {
+        counters.frameNanos().getAndAddRelease(frameNs);
+        counters.framesProcessed().incrementRelease();
+        if (inferred) {
+            counters.nativeNanos().getAndAddRelease(nativeNs);
+            PipelineLatencyRecorder.record(PipelineStage.NATIVE_INFERENCE, nativeNs);
+            // 1/8 权重的指数移动平均，用于预测下一帧的推理耗时
+            expectedInferenceNs += (nativeNs - expectedInferenceNs) >> 3;
+        }
+    }
+
+    private void onRingBufferMessage(int msgTypeId, MutableDirectBuffer buffer, int index, int length) {
+        if (msgTypeId == MSG_TYPE_ID) {
+            final int pcmLength = length - MESSAGE_HEADER_LENGTH;
+            if (frameAccumulator.remaining() >= pcmLength) {
+                final long ingestNs = buffer.getLong(index);
+                final int position = frameAccumulator.position();
+                // 本消息包含的每个帧起点 (bytesPerFullFrame 的整数倍) 都以它的写入时刻作为该帧的输入时刻
+                for (int start = (position + bytesPerFullFrame - 1) / bytesPerFullFrame * bytesPerFullFrame;
+                    start < position + pcmLength; start += bytesPerFullFrame) {
+                    frameStartIngestNs[(frameStartHead + start / bytesPerFullFrame) % frameStartIngestNs.length] =
+                        ingestNs;
+                }
+                buffer.getBytes(index + MESSAGE_HEADER_LENGTH, frameAccumulator, pcmLength);
+            } else {
+                counters.droppedBytes().getAndAddRelease(pcmLength);
+            }
+        }
+    }
+
+    private void onDiscardedMessage(int msgTypeId, MutableDirectBuffer buffer, int index, int length) {
+        if (msgTypeId == MSG_TYPE_ID) {
+            counters.inputDiscardedBytes().getAndAddRelease(length - MESSAGE_HEADER_LENGTH);
+        }
+    }
+
+    /**
+     * 将输出浮点样本饱和编码为 PCM16 字节，写入从帧缓冲池取出的 {@link AudioFrame}。旁路增益已在延迟线中施加。
+     * 稳态下该路径不产生任何分配。
+     */
+    private AudioFrame encodeFrame(FloatBuffer outputFloats, int offset, long ingestNs) {
+        AudioFrame frame = framePool.acquire();
+        if (outputResamplers == null) {
+            codec.encodeInterleaved(outputFloats, offset, frame.buffer(), 0, frameLength, channels, 1.0f);
+        } else {
+            for (int c = 0; c < channels; c++) {
+                outputResamplers[c].process(outputFloats, offset + c * frameLength, frameLength, outputScratch,
+                    c * outputFramesPerHop);
+            }
+            codec.encodeInterleaved(outputScratch, 0, frame.buffer(), 0, outputFramesPerHop, channels, 1.0f);
+        }
+        frame.length(outputBytesPerFrame);
+        frame.ingestNanos(ingestNs);
+        return frame;
+    }
+
+    /**
+     * {@link DeepFilterNetProcessingAgent} 的构建器，必需的管线组件由 {@link #builder} 传入，其余选项有默认值。
+     */
+    public static final class Builder {
+
+        private final DeepFilterNetState dfState;
+        private final OneToOneRingBuffer ringBuffer;
+        private final OneToOneConcurrentArrayQueue<AudioFrame> listenerOutputQueue;
+        private final AudioFramePool framePool;
+        private final AtomicBoolean endOfInputSignaled;
+        private final ProcessorCounters counters;
+        private OverloadPolicy overloadPolicy = OverloadPolicy.BLOCK;
+        private LatencyBudget latencyBudget = LatencyBudget.UNLIMITED;
+        private int inputSampleRate = SAMPLE_RATE;
+        private int outputSampleRate = SAMPLE_RATE;
+
+        private Builder(
+            DeepFilterNetState dfState,
+            OneToOneRingBuffer ringBuffer,
+            OneToOneConcurrentArrayQueue<AudioFrame> listenerOutputQueue,
+            AudioFramePool framePool,
+            AtomicBoolean endOfInputSignaled,
+            ProcessorCounters counters) {
+            this.dfState = dfState;
+            this.ringBuffer = ringBuffer;
+            this.listenerOutputQueue = listenerOutputQueue;
+            this.framePool = framePool;
+            this.endOfInputSignaled = endOfInputSignaled;
+            this.counters = counters;
+        }
+
+        /**
+         * 监听队列满以及生产者请求追赶时的处理方式，见 {@link OverloadPolicy}。
+         */
+        public Builder overloadPolicy(OverloadPolicy overloadPolicy) {
+            this.overloadPolicy = overloadPolicy;
+            return this;
+        }
+
+        /**
+         * 延迟预算，预计超出预算的帧跳过推理直接输出，见 {@link LatencyBudget}。
+         */
+        public Builder latencyBudget(LatencyBudget latencyBudget) {
+            this.latencyBudget = latencyBudget;
+            return this;
+        }
+
+        /**
+         * 输入 PCM 的采样率，不是 48 kHz 时在解码后重采样到 48 kHz 再推理。
+         */
+        public Builder inputSampleRate(int inputSampleRate) {
+            this.inputSampleRate = inputSampleRate;
+            return this;
+        }
+
+        /**
+         * 输出 PCM 的采样率，不是 48 kHz 时在编码前从 48 kHz 重采样。
+         */
+        public Builder outputSampleRate(int outputSampleRate) {
+            this.outputSampleRate = outputSampleRate;
+            return this;
+        }
+
+        public DeepFilterNetProcessingAgent build() {
+            return new DeepFilterNetProcessingAgent(this);
+        }
+    }
+}
@@ -0,0 +1,550 @@
+package source.hanger.processor.agent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import lombok.extern.slf4j.Slf4j;
+import org.agrona.concurrent.Agent;
+import org.agrona.concurrent.AgentRunner;
+import org.agrona.concurrent.AgentTerminationException;
+import org.agrona.concurrent.DynamicCompositeAgent;
+
+/**
+ * 共享的处理代理工作线程池：把任意数量的 {@link DeepFilterNetProcessingAgent} 复用到固定数量的工作线程上。
+ * <p>
+ * 每个工作线程运行一个 {@link DynamicCompositeAgent}，流的加入与移除通过其 {@code tryAdd}/{@code tryRemove}
+ * 在工作线程的下一个 duty cycle 中完成。{@link #add(Agent)} 与 {@link #remove(Agent)} 会等待操作真正生效后才返回，
+ * 因此 {@link #remove(Agent)} 返回后该代理不会再被调用，调用方可以安全释放其原生状态。
+ * <p>
+ * 放置与负载均衡：实现 {@link LoadReportingAgent} 的代理会报告实测的处理耗时，负载均衡线程每隔
+ * {@value #REBALANCE_INTERVAL_PROPERTY} 毫秒 (默认 {@value #DEFAULT_REBALANCE_INTERVAL_MS}，0 表示关闭) 采样一次，
+ * 得到每个流占用的 CPU 比例 (ns/frame × 帧率)。新流放到估计负载最低的工作线程；当最忙与最闲的工作线程负载差超过
+ * {@value #REBALANCE_THRESHOLD} 个核时，把一个合适的流从前者迁移到后者。静音流在 libdf 中会走捷径，
+ * 因此仅按流数量均分并不能让各核负载均衡。
+ * <p>
+ * 迁移通过先 remove 再 add 完成，两次操作之间代理不会被任何线程调用，所以迁移总发生在两帧之间，
+ * 代理的原生状态在任一时刻只被一个线程访问；DynamicCompositeAgent 的交接保证了前后两个线程之间的可见性。
+ * 迁移会依次触发代理的 {@code onClose} 与 {@code onStart}，加入线程池的代理需要允许它们被重复调用。
+ * <p>
+ * 故障隔离：每个代理的 {@code doWork} 单独捕获异常。抛出异常的代理被隔离，此后不再被调用，并由隔离线程
+ * 从工作线程移除；处理代理同时发出输入结束信号并释放原生状态。同一工作线程上的其他流不受影响。
+ * <p>
+ * 批量推理：{@value #BATCH_SIZE_PROPERTY} 大于 0 时，每个工作线程在一个 duty cycle 内收集其上各流需要推理的帧
+ * (至多该数量)，所有代理的 {@code doWork} 结束后以一次 {@code df_process_frames} 调用处理，见 {@link FrameBatcher}。
+ * 几百路流共用一台机器时可以摊薄每帧一次的 FFI 调用开销；代价是帧在同一 duty cycle 内等待其他流解码完成。
+ * <p>
+ * 工作线程数默认等于可用处理器数，可通过系统属性 {@value #WORKERS_PROPERTY} 覆盖。每个线程池使用一种
+ * {@link IdleProfile}，不同配置的处理器运行在各自的线程池中 (见 {@code DeepFilterNetServiceInitializer})。
+ */
+@Slf4j
+public final class DeepFilterNetProcessingAgentPool implements AutoCloseable {
+
+    public static final String WORKERS_PROPERTY = "df.processing.workers";
+    public static final String REBALANCE_INTERVAL_PROPERTY = "df.processing.rebalance.interval.ms";
+    public static final String BATCH_SIZE_PROPERTY = "df.processing.batch.size";
+    private static final long DEFAULT_REBALANCE_INTERVAL_MS = 1000L;
+    private static final double REBALANCE_THRESHOLD = 0.1; // 负载差 (以核为单位) 超过该值才迁移，避免来回抖动
+    private static final long AGENT_OPERATION_TIMEOUT_MS = 1000L; // 等待工作线程完成 add/remove 的超时时间
+    private static final int BATCH_SIZE = Math.max(0, Integer.getInteger(BATCH_SIZE_PROPERTY, 0));
+
+    private final Worker[] workers;
+    private final Map<Agent, Placement> placements = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService rebalancer;
+    // 隔离出错的代理：移除需要等待工作线程完成，不能在工作线程上执行
+    private final ExecutorService quarantiner;
+
+    private final IdleProfile idleProfile;
+
+    public DeepFilterNetProcessingAgentPool(int workerCount) {
+        this(workerCount, IdleProfile.POWER_SAVING);
+    }
+
+    public DeepFilterNetProcessingAgentPool(int workerCount, IdleProfile idleProfile) {
+        this(workerCount, idleProfile, Long.getLong(REBALANCE_INTERVAL_PROPERTY, DEFAULT_REBALANCE_INTERVAL_MS));
+    }
+
+    /**
+     * @param idleProfile         工作线程空闲时的等待策略。
+     * @param rebalanceIntervalMs 负载采样与均衡的周期 (毫秒)，小于等于 0 时关闭负载均衡，新流按流数量放置。
+     */
+    public DeepFilterNetProcessingAgentPool(int workerCount, IdleProfile idleProfile, long rebalanceIntervalMs) {
+        if (workerCount <= 0) {
+            throw new IllegalArgumentException("workerCount 必须大于 0: " + workerCount);
+        }
+        this.idleProfile = idleProfile;
+        this.workers = new Worker[workerCount];
+        for (int i = 0; i < workerCount; i++) {
+            workers[i] = new Worker(i, "dfnet-processing-" + idleProfile.configName() + "-worker-" + i,
+                idleProfile, BATCH_SIZE);
+        }
+        if (rebalanceIntervalMs > 0 && workerCount > 1) {
+            this.rebalancer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "dfnet-processing-" + idleProfile.configName() + "-rebalancer");
+                thread.setDaemon(true);
+                return thread;
+            });
+            rebalancer.scheduleWithFixedDelay(this::rebalanceSafely, rebalanceIntervalMs, rebalanceIntervalMs,
+                TimeUnit.MILLISECONDS);
+        } else {
+            this.rebalancer = null;
+        }
+        this.quarantiner = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "dfnet-processing-" + idleProfile.configName() + "-quarantine");
+            thread.setDaemon(true);
+            return thread;
+        });
+        log.info("DF_LOG: DeepFilterNetProcessingAgentPool started with {} {} worker threads, rebalance interval {} ms, "
+                + "batch size {}.",
+            workerCount, idleProfile.configName(), rebalancer != null ? rebalanceIntervalMs : 0, BATCH_SIZE);
+    }
+
+    /**
+     * 工作线程数：系统属性 {@value #WORKERS_PROPERTY}，未设置时为可用处理器数。
+     */
+    public static int defaultWorkerCount() {
+        return Integer.getInteger(WORKERS_PROPERTY, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * 将代理加入估计负载最低的工作线程，返回时代理的 {@code onStart} 已在工作线程上执行。
+     *
+     * @throws IllegalStateException 如果代理已在池中，或工作线程未能接收该代理；此时代理没有在任何线程上运行。
+     */
+    public void add(Agent agent) {
+        Placement placement = new Placement(agent);
+        if (placements.putIfAbsent(agent, placement) != null) {
+            throw new IllegalStateException("DF_ERROR: 代理已在处理线程池中: " + agent.roleName());
+        }
+        synchronized (placement) {
+            Worker worker = leastLoadedWorker(placement);
+            try {
+                worker.add(placement.guard);
+            } catch (RuntimeException e) {
+                placements.remove(agent);
+                synchronized (this) {
+                    worker.estimatedLoad = Math.max(0, worker.estimatedLoad - placement.load);
+                    worker.agentCount--;
+                }
+                throw e;
+            }
+            placement.worker = worker;
+        }
+    }
+
+    /**
+     * 将代理从其工作线程移除，返回时代理的 {@code onClose} 已执行，之后不会再被调用。未在池中的代理会被忽略。
+     */
+    public void remove(Agent agent) {
+        Placement placement = placements.remove(agent);
+        if (placement != null) {
+            // 与迁移互斥：若迁移正在进行，等待其完成后从新的工作线程移除
+            synchronized (placement) {
+                Worker worker = placement.worker;
+                if (worker != null) {
+                    worker.remove(placement.guard);
+                    placement.worker = null;
+                    synchronized (this) {
+                        worker.estimatedLoad = Math.max(0, worker.estimatedLoad - placement.load);
+                        worker.agentCount--;
+                    }
+                }
+            }
+        }
+    }
+
+    public int workerCount() {
+        return workers.length;
+    }
+
+    public IdleProfile idleProfile() {
+        return idleProfile;
+    }
+
+    /**
+     * 当前池中的代理数量。
+     */
+    public int agentCount() {
+        return placements.size();
+    }
+
+    @Override
+    public void close() {
+        log.info("DF_LOG: Shutting down DeepFilterNetProcessingAgentPool.");
+        if (rebalancer != null) {
+            rebalancer.shutdownNow();
+        }
+        quarantiner.shutdownNow();
+        for (Worker worker : workers) {
+            worker.runner.close();
+        }
+        placements.clear();
+    }
+
+    /**
+     * 选择估计负载最低的工作线程，负载相同时选择流数量最少的。新流在被采样前没有实测开销，
+     * 按当前每个流的平均负载计入所选工作线程，避免同一采样周期内的新流全部落在同一个线程上；
+     * 这部分负载同时记为该流的初始负载，加入失败或移除时从工作线程扣回。
+     */
+    private synchronized Worker leastLoadedWorker(Placement placement) {
+        Worker best = workers[0];
+        for (Worker worker : workers) {
+            if (worker.estimatedLoad < best.estimatedLoad
+                || (worker.estimatedLoad == best.estimatedLoad && worker.agentCount < best.agentCount)) {
+                best = worker;
+            }
+        }
+        placement.load = averageAgentLoad();
+        best.estimatedLoad += placement.load;
+        best.agentCount++;
+        return best;
+    }
+
+    private double averageAgentLoad() {
+        double total = 0;
+        int count = 0;
+        for (Worker worker : workers) {
+            total += worker.estimatedLoad;
+            count += worker.agentCount;
+        }
+        return count == 0 ? 0 : total / count;
+    }
+
+    private void rebalanceSafely() {
+        try {
+            rebalance();
+        } catch (Throwable e) {
+            log.error("DF_LOG_ERROR: 处理线程池负载均衡出现异常: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 采样每个流自上次采样以来的开销，重新估计各工作线程负载，并在必要时迁移流。
+     */
+    private void rebalance() {
+        final long nowNs = System.nanoTime();
+        double[] workerLoads = new double[workers.length];
+        int[] workerAgentCounts = new int[workers.length];
+        List<Placement> snapshot = new ArrayList<>(placements.values());
+        for (Placement placement : snapshot) {
+            Worker worker = placement.worker;
+            if (worker == null) {
+                continue;
+            }
+            placement.sample(nowNs);
+            workerLoads[worker.index] += placement.load;
+            workerAgentCounts[worker.index]++;
+        }
+        synchronized (this) {
+            for (Worker worker : workers) {
+                worker.estimatedLoad = workerLoads[worker.index];
+                worker.agentCount = workerAgentCounts[worker.index];
+            }
+        }
+
+        // 每轮最多迁移 workers/2 个流，每次都把最忙线程上最合适的流移到最闲线程
+        for (int moves = 0; moves < Math.max(1, workers.length / 2); moves++) {
+            int busiest = 0;
+            int idlest = 0;
+            for (int i = 1; i < workers.length; i++) {
+                if (workerLoads[i] > workerLoads[busiest]) {
+                    busiest = i;
+                }
+                if (workerLoads[i] < workerLoads[idlest]) {
+                    idlest = i;
+                }
+            }
+            final double gap = workerLoads[busiest] - workerLoads[idlest];
+            if (gap <= REBALANCE_THRESHOLD) {
+                return;
+            }
+            // 选择负载最接近 gap/2 的流：迁移后两个线程的负载差缩小得最多
+            Placement candidate = null;
+            for (Placement placement : snapshot) {
+                if (placement.worker == workers[busiest] && placement.load > 0 && placement.load < gap
+                    && (candidate == null
+                    || Math.abs(placement.load - gap / 2) < Math.abs(candidate.load - gap / 2))) {
+                    candidate = placement;
+                }
+            }
+            if (candidate == null || !migrate(candidate, workers[idlest])) {
+                return;
+            }
+            workerLoads[busiest] -= candidate.load;
+            workerLoads[idlest] += candidate.load;
+        }
+    }
+
+    private boolean migrate(Placement placement, Worker target) {
+        final Worker source;
+        synchronized (placement) {
+            source = placement.worker;
+            if (source == null || source == target || placements.get(placement.agent) != placement) {
+                return false; // 迁移前已被移除
+            }
+            source.remove(placement.guard);
+            try {
+                target.add(placement.guard);
+            } catch (RuntimeException e) {
+                // 目标线程没有接收或已关闭 (已接受的 add 会等到完成，不会走到这里)，代理不在任何线程上运行，放回原线程
+                source.add(placement.guard);
+                throw e;
+            }
+            placement.worker = target;
+            synchronized (this) {
+                source.estimatedLoad -= placement.load;
+                source.agentCount--;
+                target.estimatedLoad += placement.load;
+                target.agentCount++;
+            }
+        }
+        log.info("DF_LOG: 迁移处理代理 {}: {} -> {}, load={} core, {} ns/frame.", placement.agent.roleName(),
+            source.compositeAgent.roleName(), target.compositeAgent.roleName(),
+            String.format("%.3f", placement.load), placement.nanosPerFrame);
+        return true;
+    }
+
+    /**
+     * 在隔离线程上把出错的代理移出线程池；处理代理随后发出输入结束信号并释放状态。
+     */
+    private void quarantine(Agent agent) {
+        try {
+            quarantiner.execute(() -> {
+                try {
+                    remove(agent);
+                } catch (RuntimeException e) {
+                    log.error("DF_LOG_ERROR: 移除出错的处理代理 {} 失败: {}", agent.roleName(), e.getMessage(), e);
+                }
+                if (agent instanceof DeepFilterNetProcessingAgent processingAgent) {
+                    processingAgent.quarantine();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // 线程池正在关闭，工作线程关闭时会关闭其中所有代理
+        }
+    }
+
+    /**
+     * 代理在池中的位置以及最近一次采样得到的负载。
+     */
+    private final class Placement {
+
+        private final Agent agent;
+        private final GuardedAgent guard;
+        private volatile Worker worker;
+        private long lastBusyNanos;
+        private long lastFrames;
+        private long lastSampleNs;
+        private volatile double load; // 最近一个采样周期内占用的核数
+        private long nanosPerFrame;
+
+        Placement(Agent agent) {
+            this.agent = agent;
+            this.guard = new GuardedAgent(agent);
+            if (agent instanceof LoadReportingAgent reporting) {
+                this.lastBusyNanos = reporting.busyNanos();
+                this.lastFrames = reporting.framesProcessed();
+            }
+            this.lastSampleNs = System.nanoTime();
+        }
+
+        void sample(long nowNs) {
+            if (!(agent instanceof LoadReportingAgent reporting)) {
+                return;
+            }
+            final long busy = reporting.busyNanos();
+            final long frames = reporting.framesProcessed();
+            final long elapsedNs = nowNs - lastSampleNs;
+            if (elapsedNs > 0) {
+                load = (double)(busy - lastBusyNanos) / elapsedNs;
+            }
+            if (frames > lastFrames) {
+                nanosPerFrame = (busy - lastBusyNanos) / (frames - lastFrames);
+            }
+            lastBusyNanos = busy;
+            lastFrames = frames;
+            lastSampleNs = nowNs;
+        }
+    }
+
+    /**
+     * 工作线程上实际运行的代理：捕获被包装代理的异常，出错后不再调用它并请求隔离，
+     * 使同一组合代理中排在它后面的流照常运行。
+     */
+    private final class GuardedAgent implements Agent {
+
+        private final Agent agent;
+        private boolean faulted; // 只由工作线程访问；迁移时的交接由 DynamicCompositeAgent 保证可见性
+
+        GuardedAgent(Agent agent) {
+            this.agent = agent;
+        }
+
+        @Override
+        public void onStart() {
+            if (faulted) {
+                return;
+            }
+            try {
+                agent.onStart();
+            } catch (RuntimeException e) {
+                fault(e);
+            }
+        }
+
+        @Override
+        public int doWork() {
+            if (faulted) {
+                return 0;
+            }
+            try {
+                return agent.doWork();
+            } catch (AgentTerminationException e) {
+                throw e;
+            } catch (Exception e) {
+                fault(e);
+                return 0;
+            }
+        }
+
+        @Override
+        public void onClose() {
+            try {
+                agent.onClose();
+            } catch (RuntimeException e) {
+                log.error("DF_LOG_ERROR: 处理代理 {} 关闭时出现异常: {}", agent.roleName(), e.getMessage(), e);
+            }
+        }
+
+        @Override
+        public String roleName() {
+            return agent.roleName();
+        }
+
+        private void fault(Exception e) {
+            faulted = true;
+            log.error("DF_LOG_ERROR: 处理代理 {} 出现异常，已隔离: {}", agent.roleName(), e.getMessage(), e);
+            quarantine(agent);
+        }
+    }
+
+    private static final class Worker {
+
+        private final int index;
+        private final DynamicCompositeAgent compositeAgent;
+        private final AgentRunner runner;
+        // 以下两项由线程池在 synchronized (pool) 下维护，仅用于放置决策
+        private double estimatedLoad;
+        private int agentCount;
+
+        Worker(int index, String roleName, IdleProfile idleProfile, int batchSize) {
+            this.index = index;
+            this.compositeAgent = new DynamicCompositeAgent(roleName);
+            final Agent workerAgent = batchSize > 0
+                ? new BatchingAgent(compositeAgent, new FrameBatcher(batchSize))
+                : compositeAgent;
+            this.runner = new AgentRunner(idleProfile.newIdleStrategy(),
+                exception -> log.error("DF_LOG_ERROR: 处理线程 {} 出现异常: {}", roleName, exception.getMessage(),
+                    exception), null, workerAgent);
+            AgentRunner.startOnThread(runner);
+            // 组合代理的 onStart 在工作线程上执行，在此之前不接受 add/remove
+            awaitCompletion(() -> compositeAgent.status() != DynamicCompositeAgent.Status.INIT, "start", true);
+        }
+
+        // DynamicCompositeAgent 同一时刻只接受一个未完成的 add/remove，因此同一工作线程上的操作串行执行。
+        // 操作一旦被 tryAdd/tryRemove 接受就一定会在工作线程的某个 duty cycle 中生效，超时并不意味着没有生效，
+        // 所以之后一直等到它完成：否则回滚或释放状态时，代理可能同时在两个线程上运行，或在运行中被释放原生状态。
+        // 只有工作线程已关闭时才放弃等待，此时组合代理的 onClose 已关闭其中所有代理，不会再调用它们。
+        synchronized void add(Agent agent) {
+            awaitCompletion(() -> compositeAgent.tryAdd(agent), "add", true);
+            awaitCompletion(compositeAgent::hasAddAgentCompleted, "add", false);
+        }
+
+        synchronized void remove(Agent agent) {
+            if (compositeAgent.status() != DynamicCompositeAgent.Status.ACTIVE) {
+                return; // 工作线程已关闭，组合代理的 onClose 已关闭其中所有代理
+            }
+            awaitCompletion(() -> compositeAgent.tryRemove(agent), "remove", true);
+            awaitCompletion(compositeAgent::hasRemoveAgentCompleted, "remove", false);
+        }
+
+        /**
+         * @param timeout 为 {@code true} 时超时后抛出异常 (操作尚未被接受，放弃是安全的)；
+         *                为 {@code false} 时超时后只记录警告并继续等待，直到完成或工作线程关闭。
+         */
+        private void awaitCompletion(BooleanSupplier condition, String operation, boolean timeout) {
+            final long deadlineNs = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(AGENT_OPERATION_TIMEOUT_MS);
+            boolean warned = false;
+            while (!condition.getAsBoolean()) {
+                if (runner.isClosed()) {
+                    throw new IllegalStateException(
+                        "DF_ERROR: 处理线程 " + compositeAgent.roleName() + " 已关闭，未能完成 " + operation + " 操作。");
+                }
+                if (!warned && System.nanoTime() - deadlineNs > 0) {
+                    if (timeout) {
+                        throw new IllegalStateException(
+                            "DF_ERROR: 处理线程 " + compositeAgent.roleName() + " 未能完成 " + operation + " 操作。");
+                    }
+                    log.warn("DF_WARN: 处理线程 {} 超过 {} ms 仍未完成 {} 操作，继续等待。", compositeAgent.roleName(),
+                        AGENT_OPERATION_TIMEOUT_MS, operation);
+                    warned = true;
+                }
+                Thread.yield();
+            }
+        }
+    }
+
+    /**
+     * 启用批量推理的工作线程代理：先运行组合代理中的所有处理代理，再处理它们在本 duty cycle 中交给批次的帧。
+     */
+    private static final class BatchingAgent implements Agent {
+
+        private final DynamicCompositeAgent compositeAgent;
+        private final FrameBatcher batcher;
+
+        BatchingAgent(DynamicCompositeAgent compositeAgent, FrameBatcher batcher) {
+            this.compositeAgent = compositeAgent;
+            this.batcher = batcher;
+        }
+
+        @Override
+        public void onStart() {
+            // 先登记协调者，之后加入的处理代理在本线程上执行 onStart 时即可取得
+            batcher.bindToCurrentThread();
+            compositeAgent.onStart();
+        }
+
+        @Override
+        public int doWork() throws Exception {
+            int workDone = 0;
+            try {
+                workDone = compositeAgent.doWork();
+            } finally {
+                // 某个代理抛出异常时也要处理已交给批次的帧，保证两个 duty cycle 之间批次为空
+                workDone += batcher.flush();
+            }
+            return workDone;
+        }
+
+        @Override
+        public void onClose() {
+            try {
+                compositeAgent.onClose();
+            } finally {
+                batcher.close();
+            }
+        }
+
+        @Override
+        public String roleName() {
+            return compositeAgent.roleName();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package source.hanger.processor.agent;
+
+import java.nio.FloatBuffer;
+
+import lombok.extern.slf4j.Slf4j;
+import source.hanger.backend.DeepFilterNetBackend;
+import source.hanger.backend.DeepFilterNetBackends;
+import source.hanger.backend.DeepFilterNetFrameBatch;
+import source.hanger.backend.DeepFilterNetState;
+
+/**
+ * 一个工作线程上的批量推理协调者：同一工作线程上的处理代理在一个 duty cycle 内把需要推理的帧交给
+ * {@link #offer}，所有代理的 {@code doWork} 结束后由工作线程调用 {@link #flush()}，以一次
+ * {@code df_process_frames} 处理全部帧，再依次回调各代理完成编码与输出。
+ * <p>
+ * 只由所属的工作线程访问。{@link #flush()} 总在同一个 duty cycle 内执行，因此两个 duty cycle 之间批次总是空的，
+ * 代理在下一个 duty cycle 开始时被移除或迁移不会留下未处理的帧。
+ */
+@Slf4j
+final class FrameBatcher implements AutoCloseable {
+
+    // 工作线程在 onStart 时登记自己的协调者，代理在 onStart 时 (同一线程) 取得它
+    private static final ThreadLocal<FrameBatcher> CURRENT = new ThreadLocal<>();
+    // 批次的样本容量按每个状态两个声道预留，单声道流可以用满 maxStates
+    private static final int RESERVED_CHANNELS = 2;
+
+    /**
+     * 批次处理完成后的回调。{@code output} 为 {@code null} 表示批量推理失败，代理应直接输出未降噪的输入。
+     */
+    @FunctionalInterface
+    interface Participant {
+
+        void onBatchProcessed(FloatBuffer output, int offset, long nativeNanos);
+    }
+
+    private final int maxStates;
+    private final Participant[] participants;
+    private final int[] offsets;
+    private DeepFilterNetFrameBatch batch;
+    private boolean disabled;
+
+    FrameBatcher(int maxStates) {
+        this.maxStates = maxStates;
+        this.participants = new Participant[maxStates];
+        this.offsets = new int[maxStates];
+    }
+
+    /**
+     * 当前工作线程的协调者，不在启用批处理的工作线程上时为 {@code null}。
+     */
+    static FrameBatcher current() {
+        return CURRENT.get();
+    }
+
+    void bindToCurrentThread() {
+        CURRENT.set(this);
+    }
+
+    /**
+     * 把状态的一帧加入本 duty cycle 的批次，{@code input} 中的样本被复制到批次的输入块。
+     *
+     * @return {@code false} 如果批次已满或后端不支持批处理，调用方应自行推理该帧。
+     * @throws IllegalArgumentException 如果状态不是由默认后端创建的。
+     */
+    boolean offer(DeepFilterNetState state, FloatBuffer input, Participant participant) {
+        if (disabled) {
+            return false;
+        }
+        if (batch == null) {
+            final DeepFilterNetBackend backend = DeepFilterNetBackends.getDefault();
+            if (!backend.supportsBatchProcessing()) {
+                log.warn("DF_WARN: 后端 {} 不支持 df_process_frames，批量推理已关闭。", backend.name());
+                disabled = true;
+                return false;
+            }
+            batch = backend.newFrameBatch(maxStates, maxStates * state.frameLength() * RESERVED_CHANNELS);
+        }
+        final int offset = batch.add(state);
+        if (offset < 0) {
+            return false;
+        }
+        final int index = batch.size() - 1;
+        batch.inputFrames().put(offset, input, 0, state.channels() * state.frameLength());
+        participants[index] = participant;
+        offsets[index] = offset;
+        return true;
+    }
+
+    /**
+     * 处理本 duty cycle 中加入的所有帧并回调各代理。
+     *
+     * @return 处理的帧数。
+     */
+    int flush() {
+        final int count = batch == null ? 0 : batch.size();
+        if (count == 0) {
+            return 0;
+        }
+        FloatBuffer output = batch.outputFrames();
+        final long startNs = System.nanoTime();
+        try {
+            batch.process();
+        } catch (RuntimeException e) {
+            log.error("DF_ERROR: 批量推理失败，本批 {} 帧直接输出: {}", count, e.getMessage(), e);
+            output = null;
+        }
+        // 原生侧逐个推理，按帧数均摊耗时，计入各流的负载与推理耗时
+        final long nativeNanosPerFrame = (System.nanoTime() - startNs) / count;
+        try {
+            for (int i = 0; i < count; i++) {
+                participants[i].onBatchProcessed(output, offsets[i], nativeNanosPerFrame);
+            }
+        } finally {
+            for (int i = 0; i < count; i++) {
+                participants[i] = null;
+            }
+            batch.clear();
+        }
+        return count;
+    }
+
+    @Override
+    public void close() {
+        if (batch != null) {
+            batch.close();
+            batch = null;
+        }
+        if (CURRENT.get() == this) {
+            CURRENT.remove();
+        }
+    }
+}
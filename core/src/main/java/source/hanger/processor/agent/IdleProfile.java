@@ -0,0 +1,82 @@
+package source.hanger.processor.agent;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.agrona.concurrent.BackoffIdleStrategy;
+import org.agrona.concurrent.BusySpinIdleStrategy;
+import org.agrona.concurrent.IdleStrategy;
+import org.agrona.concurrent.SleepingIdleStrategy;
+
+/**
+ * 处理线程与监听线程在没有工作时的等待策略，在延迟与 CPU 占用之间取舍。
+ * <p>
+ * 每一级 (处理、监听) 空闲时的最长等待时间都会直接叠加到端到端延迟上：
+ * <ul>
+ *     <li>{@link #BUSY_SPIN}：忙等，延迟最低，每个线程独占一个核，只适合独占 CPU 的部署；</li>
+ *     <li>{@link #LOW_LATENCY}：自旋、让出后以最长 50 µs 的 park 退避，空闲时仍有一定 CPU 占用；</li>
+ *     <li>{@link #BALANCED}：同样退避，但最长 park 250 µs；</li>
+ *     <li>{@link #POWER_SAVING}：每次空闲睡眠 1 ms，CPU 占用最低，每一级最多引入约 1 ms 的抖动 (默认，与早期版本行为一致)。</li>
+ * </ul>
+ * 配置名为小写连字符形式，例如 {@code -Ddf.processing.idle.profile=low-latency}。
+ */
+public enum IdleProfile {
+
+    BUSY_SPIN(BusySpinIdleStrategy::new),
+    LOW_LATENCY(() -> new BackoffIdleStrategy(100, 10, TimeUnit.MICROSECONDS.toNanos(1),
+        TimeUnit.MICROSECONDS.toNanos(50))),
+    BALANCED(() -> new BackoffIdleStrategy(10, 10, TimeUnit.MICROSECONDS.toNanos(1),
+        TimeUnit.MICROSECONDS.toNanos(250))),
+    POWER_SAVING(() -> new SleepingIdleStrategy(TimeUnit.MILLISECONDS.toNanos(1)));
+
+    /**
+     * 共享处理线程池的默认空闲策略。
+     */
+    public static final String PROCESSING_PROPERTY = "df.processing.idle.profile";
+    /**
+     * 共享监听线程的空闲策略。
+     */
+    public static final String LISTENER_PROPERTY = "df.listener.idle.profile";
+
+    private final Supplier<IdleStrategy> factory;
+
+    IdleProfile(Supplier<IdleStrategy> factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * 创建一个新的空闲策略实例。空闲策略是有状态的，每个线程需要独立的实例。
+     */
+    public IdleStrategy newIdleStrategy() {
+        return factory.get();
+    }
+
+    /**
+     * 配置名，例如 {@code low-latency}。
+     */
+    public String configName() {
+        return name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+
+    /**
+     * 按配置名解析，大小写与 {@code -}/{@code _} 均可。
+     *
+     * @throws IllegalArgumentException 如果名称未知。
+     */
+    public static IdleProfile fromName(String name) {
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("未知的空闲策略配置: " + name, e);
+        }
+    }
+
+    /**
+     * 读取系统属性，未设置时返回 {@link #POWER_SAVING}。
+     */
+    public static IdleProfile fromSystemProperty(String property) {
+        String value = System.getProperty(property);
+        return value == null || value.isBlank() ? POWER_SAVING : fromName(value);
+    }
+}
@@ -0,0 +1,67 @@
+package source.hanger.processor.agent;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 流处理器的延迟预算：一帧从进入 {@code processAudioFrame} 到处理完成的时间上限。
+ * <p>
+ * 处理代理在推理前用该帧最旧样本的输入时刻加上近期推理耗时 (指数移动平均) 预测完成时刻，预测超出 {@code budgetNanos}
+ * 的帧不做推理，输出经过与模型算法延迟等长的延迟线、乘以 {@code bypassGain} 的原始音频，与降噪输出之间的切换在一帧内
+ * 交叉淡化，使积压迅速消除、交互延迟保持有界。进入旁路后，
+ * 只有预测延迟降到 {@code recoveryNanos} 以下才恢复推理，两条阈值之间的滞回区避免在临界负载下逐帧来回切换。
+ * <p>
+ * 配置：{@value #BUDGET_PROPERTY} (ms，0 表示不限制)、{@value #RECOVERY_PROPERTY} (ms，默认为预算的一半)
+ * 与 {@value #BYPASS_GAIN_PROPERTY} (默认 1.0)。
+ *
+ * @param budgetNanos   延迟预算，0 表示不限制 (从不旁路)。
+ * @param recoveryNanos 旁路期间恢复推理的阈值，不大于 {@code budgetNanos}。
+ * @param bypassGain    旁路帧的线性增益，例如略小于 1 以减小未降噪音频与降噪音频之间的响度跳变。
+ */
+public record LatencyBudget(long budgetNanos, long recoveryNanos, float bypassGain) {
+
+    public static final String BUDGET_PROPERTY = "df.latency.budget.ms";
+    public static final String RECOVERY_PROPERTY = "df.latency.recovery.ms";
+    public static final String BYPASS_GAIN_PROPERTY = "df.latency.bypass.gain";
+
+    /**
+     * 不限制延迟，所有帧都做推理 (默认，与早期版本行为一致)。
+     */
+    public static final LatencyBudget UNLIMITED = new LatencyBudget(0L, 0L, 1.0f);
+
+    public LatencyBudget {
+        if (budgetNanos < 0 || recoveryNanos < 0 || recoveryNanos > budgetNanos) {
+            throw new IllegalArgumentException(
+                "DF_ERROR: 无效的延迟预算: budget=" + budgetNanos + "ns, recovery=" + recoveryNanos + "ns");
+        }
+    }
+
+    /**
+     * 以毫秒为单位的预算，恢复阈值为预算的一半，旁路增益为 1。
+     */
+    public static LatencyBudget ofMillis(long budgetMs) {
+        final long budgetNs = TimeUnit.MILLISECONDS.toNanos(budgetMs);
+        return new LatencyBudget(budgetNs, budgetNs / 2, 1.0f);
+    }
+
+    /**
+     * 读取系统属性，未设置 {@value #BUDGET_PROPERTY} 时返回 {@link #UNLIMITED}。
+     */
+    public static LatencyBudget fromSystemProperties() {
+        final long budgetMs = Long.getLong(BUDGET_PROPERTY, 0L);
+        if (budgetMs <= 0) {
+            return UNLIMITED;
+        }
+        final long recoveryMs = Long.getLong(RECOVERY_PROPERTY, -1L);
+        final float gain = Float.parseFloat(System.getProperty(BYPASS_GAIN_PROPERTY, "1.0"));
+        return new LatencyBudget(TimeUnit.MILLISECONDS.toNanos(budgetMs),
+            recoveryMs < 0 ? TimeUnit.MILLISECONDS.toNanos(budgetMs) / 2 : TimeUnit.MILLISECONDS.toNanos(recoveryMs),
+            gain);
+    }
+
+    /**
+     * 是否限制延迟。
+     */
+    public boolean isLimited() {
+        return budgetNanos > 0;
+    }
+}
@@ -0,0 +1,21 @@
+package source.hanger.processor.agent;
+
+import org.agrona.concurrent.Agent;
+
+/**
+ * 向 {@link DeepFilterNetProcessingAgentPool} 报告自身开销的代理，用于按实测负载放置和迁移。
+ * <p>
+ * 两个计数器都是单调递增的累计值，由代理所在的工作线程写入，负载均衡线程周期性读取并计算增量。
+ */
+public interface LoadReportingAgent extends Agent {
+
+    /**
+     * 累计用于处理帧的时间 (纳秒)。
+     */
+    long busyNanos();
+
+    /**
+     * 累计处理的帧数。
+     */
+    long framesProcessed();
+}
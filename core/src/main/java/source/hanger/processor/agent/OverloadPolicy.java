@@ -0,0 +1,75 @@
+package source.hanger.processor.agent;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 流处理器过载时的处理方式，分别作用于输入侧 (输入 ring buffer 满，生产者线程) 和输出侧 (监听队列满，处理线程)。
+ * <ul>
+ *     <li>{@link #BLOCK}：输入侧等待空间，输出侧暂存该帧并停止读取输入，最长等待 {@value #BLOCK_TIMEOUT_PROPERTY}，
+ *     超时后丢弃 (默认，超时为 0 表示无限等待，与早期版本行为一致)；</li>
+ *     <li>{@link #DROP_OLDEST}：输入侧请求处理代理丢弃积压的较旧输入，输出侧用新帧替换尚未入队的较旧帧
+ *     (监听队列只能由监听侧消费，已入队的帧不会被丢弃)；</li>
+ *     <li>{@link #DROP_NEWEST}：输入侧直接丢弃写不下的新输入，输出侧直接丢弃新帧，从不等待；</li>
+ *     <li>{@link #PASSTHROUGH}：输入侧请求处理代理跳过推理、输出未降噪的音频直到积压消除，
+ *     输出侧与 {@link #DROP_NEWEST} 相同 (监听者跟不上时未降噪的音频同样无处可去)。未降噪的音频与延迟预算的旁路
+ *     走同一条路径：经过与模型算法延迟等长的延迟线与降噪输出对齐，切换时在一帧内交叉淡化，恢复推理前先重新送入状态，
+ *     见 {@link LatencyBudget}。</li>
+ * </ul>
+ * 实时通话应选择 {@link #DROP_OLDEST} 或 {@link #PASSTHROUGH}，以音质下降代替网络线程被阻塞。
+ * 配置名为小写连字符形式，例如 {@code -Ddf.overload.policy=drop-oldest}。
+ */
+public enum OverloadPolicy {
+
+    BLOCK,
+    DROP_OLDEST,
+    DROP_NEWEST,
+    PASSTHROUGH;
+
+    /**
+     * 未在构造参数中指定时使用的策略。
+     */
+    public static final String PROPERTY = "df.overload.policy";
+    /**
+     * {@link #BLOCK} 以及 {@link #DROP_OLDEST}/{@link #PASSTHROUGH} 等待处理代理腾出空间的最长时间 (ms)，0 表示无限等待。
+     */
+    public static final String BLOCK_TIMEOUT_PROPERTY = "df.overload.block.timeout.ms";
+
+    private static final long BLOCK_TIMEOUT_NS = TimeUnit.MILLISECONDS.toNanos(
+        Math.max(0L, Long.getLong(BLOCK_TIMEOUT_PROPERTY, 0L)));
+
+    /**
+     * 最长等待时间 (ns)，0 表示无限等待。
+     */
+    public static long blockTimeoutNanos() {
+        return BLOCK_TIMEOUT_NS;
+    }
+
+    /**
+     * 配置名，例如 {@code drop-oldest}。
+     */
+    public String configName() {
+        return name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+
+    /**
+     * 按配置名解析，大小写与 {@code -}/{@code _} 均可。
+     *
+     * @throws IllegalArgumentException 如果名称未知。
+     */
+    public static OverloadPolicy fromName(String name) {
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("未知的过载策略: " + name, e);
+        }
+    }
+
+    /**
+     * 读取 {@value #PROPERTY}，未设置时返回 {@link #BLOCK}。
+     */
+    public static OverloadPolicy fromSystemProperty() {
+        String value = System.getProperty(PROPERTY);
+        return value == null || value.isBlank() ? BLOCK : fromName(value);
+    }
+}
@@ -0,0 +1,26 @@
+package source.hanger.processor.agent;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import org.agrona.concurrent.OneToOneConcurrentArrayQueue;
+import source.hanger.buffer.AudioFrame;
+import source.hanger.metrics.ProcessorCounters;
+import source.hanger.util.AudioFrameListener;
+
+/**
+ * 单个处理器在监听侧的输出分组。
+ *
+ * @param listenerOutputQueue 降噪后的帧队列。队列中的每个 {@link AudioFrame} 持有一次引用，
+ *                            监听回调结束后由监听代理释放，帧随即回到处理器的 {@link source.hanger.buffer.AudioFramePool}。
+ * @param counters            该处理器的计数器，监听代理在此记录投递帧数与回调耗时。
+ */
+public record ProcessorOutputGroup(
+    String processorId,
+    AudioFrameListener denoisedFrameListener,
+    OneToOneConcurrentArrayQueue<AudioFrame> listenerOutputQueue,
+    AtomicBoolean endOfInputSignaled,
+    Supplier<Integer> inputSizeSupplier,
+    ProcessorCounters counters
+) {
+}
@@ -0,0 +1,23 @@
+package source.hanger.util;
+
+/**
+ * 按批接收降噪音频的监听器。监听队列积压时，监听代理一次取出最多 {@code df.listener.batch.size} 帧，
+ * 把它们按顺序拼接为一段连续的 PCM 数据后只回调一次 {@link #onDenoisedAudioFrames(byte[], int, int, int)}，
+ * 便于文件、网络等下游以一次较大的写入代替多次小写入。
+ * <p>
+ * 实现此接口后监听代理只调用批量方法；单帧方法仍需实现，供直接按帧使用该监听器的代码调用。
+ */
+public interface AudioFrameBatchListener extends AudioFrameListener {
+
+    /**
+     * 当一批降噪后的音频帧可用时调用此方法。
+     * <p>
+     * 注意：{@code audioBytes} 是监听代理为该处理器复用的暂存区，仅在本次回调期间有效。
+     *
+     * @param audioBytes 拼接后的 PCM 字节数组。
+     * @param offset     字节数组中数据的起始偏移量。
+     * @param length     字节数组中数据的总长度。
+     * @param frameCount 本批包含的帧数，至少为 1。
+     */
+    void onDenoisedAudioFrames(byte[] audioBytes, int offset, int length, int frameCount);
+}
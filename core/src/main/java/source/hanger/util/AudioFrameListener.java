@@ -0,0 +1,44 @@
+package source.hanger.util;
+
+import source.hanger.buffer.AudioFrame;
+
+/**
+ * `AudioFrameListener` 接口定义了在音频流处理过程中，用于监听原始和处理后音频帧的回调方法。
+ * 实现此接口的类可以接收并处理这些音频帧，例如将它们写入文件或进行可视化。
+ * <p>
+ * 同一处理器的回调严格按帧顺序串行执行，不会并发调用，但不保证始终在同一个线程上；不同处理器的回调可以并行。
+ */
+public interface AudioFrameListener {
+
+    /**
+     * 当生成降噪后的音频帧时调用此方法。
+     * <p>
+     * 注意：{@code audioBytes} 来自处理器内部的帧缓冲池，仅在本次回调期间有效。回调返回后该区域会被回收并用于后续帧，
+     * 如需在回调之后继续使用数据，请实现 {@link #onDenoisedAudioFrame(AudioFrame)} 并 retain 该帧，或自行复制。
+     *
+     * @param audioBytes 降噪后音频帧的字节数组。
+     * @param offset     字节数组中数据的起始偏移量。
+     * @param length     字节数组中数据的长度。
+     */
+    void onDenoisedAudioFrame(byte[] audioBytes, int offset, int length);
+
+    /**
+     * 以引用计数帧的形式接收降噪后的音频。默认实现桥接到 {@link #onDenoisedAudioFrame(byte[], int, int)}：
+     * 堆内帧直接传递其底层数组区域，堆外帧则复制到临时数组。监听代理投递时不调用此默认实现，
+     * 而是自行桥接并把堆外帧复制到每个流复用的暂存数组，因此只在直接调用本方法时才会分配。
+     * <p>
+     * 需要在回调之后继续持有数据的消费者（例如异步写入或网络发送）可覆盖此方法，在回调内调用
+     * {@link AudioFrame#retain()}，使用完毕后调用 {@link AudioFrame#release()}，从而避免复制。
+     *
+     * @param frame 降噪后的音频帧，仅在回调期间保证有效，除非调用方 retain。
+     */
+    default void onDenoisedAudioFrame(AudioFrame frame) {
+        if (frame.hasArray()) {
+            onDenoisedAudioFrame(frame.array(), frame.arrayOffset(), frame.length());
+        } else {
+            byte[] copy = new byte[frame.length()];
+            frame.buffer().getBytes(0, copy);
+            onDenoisedAudioFrame(copy, 0, copy.length);
+        }
+    }
+}
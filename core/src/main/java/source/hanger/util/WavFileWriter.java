@@ -8,15 +8,20 @@ import java.nio.ByteBuffer;
 import javax.sound.sampled.AudioFormat;
 
 import lombok.extern.slf4j.Slf4j;
+import source.hanger.buffer.AudioFrame;
 
 /*
  * `WavFileWriter` 是一个包级私有（package-private）的工具类，用于处理 WAV 文件的写入。
  * 它封装了 WAV 文件头生成和更新的逻辑，以及音频数据的写入。
  */
 @Slf4j
-public class WavFileWriter implements AutoCloseable, java.io.Flushable, AudioFrameListener {
+public class WavFileWriter implements AutoCloseable, java.io.Flushable, AudioFrameBatchListener {
+    public static final int WAV_HEADER_LENGTH = 44;
+    // 堆外缓冲区经由该暂存区分块写入 OutputStream，写入路径不产生分配
+    private static final int SCRATCH_LENGTH = 8192;
     private final File outputFile;
     private final OutputStream os;
+    private final byte[] scratch = new byte[SCRATCH_LENGTH];
     private long bytesWritten = 0;
 
     public WavFileWriter(AudioFormat format, String filePath) throws IOException {
@@ -30,7 +35,7 @@ public class WavFileWriter implements AutoCloseable, java.io.Flushable, AudioFra
 
         this.os = new java.io.BufferedOutputStream(new java.io.FileOutputStream(outputFile)); // 将 FileOutputStream 包装在 BufferedOutputStream 中
         // 写入 WAV 文件头，稍后会更新数据大小
-        writeWavHeader(os, format, 0); // 暂时写入0，后续需要更新
+        os.write(createWavHeader(format, 0)); // 暂时写入0，后续需要更新
     }
 
     @Override
@@ -38,10 +43,10 @@ public class WavFileWriter implements AutoCloseable, java.io.Flushable, AudioFra
         os.flush();
         // 在关闭时更新 WAV 文件头
         long totalAudioDataLength = bytesWritten;
-        long totalFileSize = 36 + totalAudioDataLength; // 36 bytes for header + data
+        long totalFileSize = 36 + totalAudioDataLength; // 44 字节文件头中除 "RIFF" 与大小字段外的 36 字节 + 数据
         try (java.io.RandomAccessFile raf = new java.io.RandomAccessFile(outputFile, "rw")) {
             raf.seek(4); // 跳到 RIFF 文件大小字段
-            raf.writeInt(Integer.reverseBytes((int)(totalFileSize - 8))); // RIFF Chunk Size
+            raf.writeInt(Integer.reverseBytes((int)totalFileSize)); // RIFF Chunk Size (文件总长度 - 8)
             raf.seek(40); // 跳到 data sub-chunk size 字段
             raf.writeInt(Integer.reverseBytes((int)totalAudioDataLength)); // Data Chunk Size
         } catch (Exception e) {
@@ -61,22 +66,24 @@ public class WavFileWriter implements AutoCloseable, java.io.Flushable, AudioFra
     }
 
     /**
-     * 将 ByteBuffer 的内容写入 WAV 文件。
+     * 将 ByteBuffer 的内容 (position 到 limit) 写入 WAV 文件，返回时 position 位于 limit。
+     * 堆内缓冲区直接写入其底层数组，堆外缓冲区 (例如帧缓冲池的 slab) 分块复制到复用的暂存区后写入，不产生分配。
      *
      * @param buffer 包含音频数据的 ByteBuffer
      * @throws IOException 如果写入失败
      */
     public void write(ByteBuffer buffer) throws IOException {
         int len = buffer.remaining();
-        // 直接从 ByteBuffer 写入 OutputStream
-        // 注意：这里需要确保 buffer 的 position 和 limit 是正确的
-        // 如果是 DirectByteBuffer，可以直接包装成 InputStream 或使用 Channel
-        // 但为了简化，这里直接将其内容复制到 byte[] 中再写入，可能会有一次复制
-        // 更优的做法是使用 FileChannel.write(ByteBuffer) 如果 OutputStream 支持
-        // 但 OutputStream 默认不支持 ByteBuffer，所以这里做一次复制是常见的妥协
-        byte[] tempBytes = new byte[len];
-        buffer.get(tempBytes);
-        os.write(tempBytes, 0, len);
+        if (buffer.hasArray()) {
+            os.write(buffer.array(), buffer.arrayOffset() + buffer.position(), len);
+            buffer.position(buffer.limit());
+        } else {
+            while (buffer.hasRemaining()) {
+                int chunk = Math.min(buffer.remaining(), scratch.length);
+                buffer.get(scratch, 0, chunk);
+                os.write(scratch, 0, chunk);
+            }
+        }
         bytesWritten += len;
     }
 
@@ -89,8 +96,37 @@ public class WavFileWriter implements AutoCloseable, java.io.Flushable, AudioFra
         }
     }
 
-    // 写入 WAV 文件头，数据长度暂时为0
-    private void writeWavHeader(OutputStream out, AudioFormat format, long totalAudioLen) throws IOException {
+    @Override
+    public void onDenoisedAudioFrame(AudioFrame frame) {
+        try {
+            if (frame.hasArray()) {
+                write(frame.array(), frame.arrayOffset(), frame.length());
+            } else {
+                write(frame.byteBuffer());
+            }
+        } catch (IOException e) {
+            log.error("写入降噪音频帧失败: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 批量写入：监听代理把积压的多帧拼接后一次交给写入器，只产生一次写调用。
+     */
+    @Override
+    public void onDenoisedAudioFrames(byte[] audioBytes, int offset, int length, int frameCount) {
+        try {
+            write(audioBytes, offset, length);
+        } catch (IOException e) {
+            log.error("写入降噪音频帧失败: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 生成 44 字节的 PCM WAV 文件头。数据长度事先已知时 (例如按位置并行写入输出文件) 可直接写入最终长度，无需事后回填。
+     *
+     * @param totalAudioLen data 块的字节数
+     */
+    public static byte[] createWavHeader(AudioFormat format, long totalAudioLen) {
         int channels = format.getChannels();
         int sampleRate = (int)format.getSampleRate();
         int bitsPerSample = format.getSampleSizeInBits();
@@ -99,7 +135,7 @@ public class WavFileWriter implements AutoCloseable, java.io.Flushable, AudioFra
         long totalDataLen = totalAudioLen;
         long totalFileSize = 36 + totalDataLen; // 36 bytes for header + data
 
-        byte[] header = new byte[44];
+        byte[] header = new byte[WAV_HEADER_LENGTH];
 
         header[0] = 'R'; // RIFF/WAVE header
         header[1] = 'I';
@@ -158,7 +194,7 @@ public class WavFileWriter implements AutoCloseable, java.io.Flushable, AudioFra
         header[42] = (byte)((totalAudioLen >> 16) & 0xff);
         header[43] = (byte)((totalAudioLen >> 24) & 0xff);
 
-        out.write(header, 0, 44);
+        return header;
     }
 
 }
@@ -1,7 +1,9 @@
 use std::boxed::Box;
+use std::collections::HashMap;
 use std::ffi::{c_char, c_float, c_uint, CStr, CString};
 use std::path::PathBuf;
 use std::str::FromStr;
+use std::sync::Mutex;
 
 use crossbeam_channel::TryRecvError;
 use ndarray::prelude::*;
@@ -11,32 +13,28 @@ use crate::tract::*;
 
 pub struct DFState {
     m: crate::tract::DfTract,
+    // Settings right after initialization, restored by df_reset()
+    atten_lim: Option<f32>,
+    post_filter_beta: f32,
     logger: Option<DfLogReceiver>,
 }
 
 impl DFState {
     fn new(model_path: &str, channels: usize, atten_lim: f32, log_level: Option<&str>) -> Self {
-        let logger = if let Some(level) = log_level {
-            let (logger, log_receiver) =
-                DfLogger::build(log::Level::from_str(level).expect("Could not parse log level"));
-            init_logger(logger);
-            Some(log_receiver)
-        } else {
-            None
-        };
-        let mut r_params = RuntimeParams::default_with_ch(channels); //channel
-        r_params = r_params.with_atten_lim(atten_lim).with_thresholds(
-            -15.0f32,  //min_db_thresh
-            35.0f32,   //max_db_erb_thresh
-            35.0f32,   //max_db_df_thresh
-        );
-        r_params = r_params.with_post_filter(0.0f32);  //post_filter_beta
-        r_params = r_params.with_mask_reduce(ReduceMask::MAX);  //reduce_mask
+        let logger = build_logger(log_level);
         let df_params =
             DfParams::new(PathBuf::from(model_path)).expect("Could not load model from path");
-        let m =
-            DfTract::new(df_params, &r_params).expect("Could not initialize DeepFilter runtime.");
-        DFState { m, logger }
+        let m = DfTract::new(df_params, &runtime_params(channels, atten_lim))
+            .expect("Could not initialize DeepFilter runtime.");
+        DFState::from_runtime(m, logger)
+    }
+    fn from_runtime(m: DfTract, logger: Option<DfLogReceiver>) -> Self {
+        DFState {
+            atten_lim: m.atten_lim,
+            post_filter_beta: m.post_filter_beta,
+            m,
+            logger,
+        }
     }
     /// Returns the next log message as String
     fn get_next_log_message(&mut self) -> Option<String> {
@@ -71,6 +69,81 @@ impl DFState {
     }
 }
 
+fn build_logger(log_level: Option<&str>) -> Option<DfLogReceiver> {
+    if let Some(level) = log_level {
+        let (logger, log_receiver) =
+            DfLogger::build(log::Level::from_str(level).expect("Could not parse log level"));
+        init_logger(logger);
+        Some(log_receiver)
+    } else {
+        None
+    }
+}
+
+fn runtime_params(channels: usize, atten_lim: f32) -> RuntimeParams {
+    let mut r_params = RuntimeParams::default_with_ch(channels); //channel
+    r_params = r_params.with_atten_lim(atten_lim).with_thresholds(
+        -15.0f32,  //min_db_thresh
+        35.0f32,   //max_db_erb_thresh
+        35.0f32,   //max_db_df_thresh
+    );
+    r_params = r_params.with_post_filter(0.0f32);  //post_filter_beta
+    r_params.with_mask_reduce(ReduceMask::MAX)  //reduce_mask
+}
+
+unsafe fn parse_log_level<'a>(log_level: *const c_char) -> Option<&'a str> {
+    if log_level.is_null() {
+        None
+    } else {
+        match CStr::from_ptr(log_level).to_str() {
+            Ok(a) => Some(a),
+            Err(e) => {
+                eprintln!("Could not parse log_level {}", e);
+                None
+            }
+        }
+    }
+}
+
+/// A loaded DeepFilterNet model that can be shared by any number of states.
+///
+/// Holds a runtime built once from the model archive; states are created by deep-cloning it, so the
+/// tar.gz archive is only decompressed and the onnx graphs are only optimized once. The onnx graphs
+/// are built for a fixed number of channels, so runtimes for other channel counts are built on first
+/// use from the retained parameters and cached as well.
+///
+/// States share no reference counted buffers with the cached runtimes (see `DfTract::deep_clone`)
+/// and may run on any thread. The cached runtimes are only touched with the lock held, since
+/// cloning them updates their non-atomic reference counts.
+pub struct DFModel {
+    params: DfParams,
+    runtimes: Mutex<HashMap<usize, crate::tract::DfTract>>,
+}
+
+impl DFModel {
+    fn runtime(&self, channels: usize) -> Option<crate::tract::DfTract> {
+        let mut cache = self.runtimes.lock().expect("Model cache poisoned");
+        if !cache.contains_key(&channels) {
+            match DfTract::new(self.params.clone(), &runtime_params(channels, 100.)) {
+                Ok(m) => {
+                    cache.insert(channels, m);
+                }
+                Err(e) => {
+                    eprintln!("Could not initialize {}-channel DeepFilter runtime: {:?}", channels, e);
+                    return None;
+                }
+            }
+        }
+        match cache[&channels].deep_clone() {
+            Ok(m) => Some(m),
+            Err(e) => {
+                eprintln!("Could not clone {}-channel DeepFilter runtime: {:?}", channels, e);
+                None
+            }
+        }
+    }
+}
+
 /// Create a DeepFilterNet Model
 ///
 /// Args:
@@ -88,21 +161,126 @@ pub unsafe extern "C" fn df_create(
 ) -> *mut DFState {
     let c_str = CStr::from_ptr(path);
     let path = c_str.to_str().unwrap();
-    let log_level = if log_level.is_null() {
-        None
-    } else {
-        match CStr::from_ptr(log_level).to_str() {
-            Ok(a) => Some(a),
-            Err(e) => {
-                eprintln!("Could not parse log_level {}", e);
-                None
-            }
-        }
-    };
+    let log_level = parse_log_level(log_level);
     let df = DFState::new(path, 1, atten_lim, log_level);
     Box::into_raw(df.boxed())
 }
 
+/// Create a DeepFilterNet state processing `channels` channels at once.
+///
+/// Args:
+///     - path: File path to a DeepFilterNet tar.gz onnx model
+///     - channels: Number of channels, at least 1.
+///     - atten_lim: Attenuation limit in dB.
+///
+/// Returns:
+///     - DF state whose df_process_frame() input and output buffers hold
+///         `channels * df_get_frame_length()` samples, one channel after the other (planar).
+#[no_mangle]
+pub unsafe extern "C" fn df_create_ch(
+    path: *const c_char,
+    channels: usize,
+    atten_lim: f32,
+    log_level: *const c_char,
+) -> *mut DFState {
+    let c_str = CStr::from_ptr(path);
+    let path = c_str.to_str().unwrap();
+    let log_level = parse_log_level(log_level);
+    let df = DFState::new(path, channels.max(1), atten_lim, log_level);
+    Box::into_raw(df.boxed())
+}
+
+/// Load a DeepFilterNet model from memory.
+///
+/// Args:
+///     - data: Pointer to the content of a DeepFilterNet tar.gz onnx model, e.g. a memory mapped
+///         file. The buffer is only read during this call.
+///     - len: Length of the buffer in bytes.
+///
+/// Returns:
+///     - Model to be passed to df_create_from_model() and freed via df_model_free(), or NULL if
+///         the model could not be loaded.
+#[no_mangle]
+pub unsafe extern "C" fn df_model_load(data: *const u8, len: usize) -> *mut DFModel {
+    if data.is_null() {
+        return std::ptr::null_mut();
+    }
+    let buf = std::slice::from_raw_parts(data, len);
+    let df_params = match DfParams::from_bytes(buf) {
+        Ok(p) => p,
+        Err(e) => {
+            eprintln!("Could not load model from buffer: {:?}", e);
+            return std::ptr::null_mut();
+        }
+    };
+    match DfTract::new(df_params.clone(), &runtime_params(1, 100.)) {
+        Ok(template) => Box::into_raw(Box::new(DFModel {
+            params: df_params,
+            runtimes: Mutex::new(HashMap::from([(1, template)])),
+        })),
+        Err(e) => {
+            eprintln!("Could not initialize DeepFilter runtime: {:?}", e);
+            std::ptr::null_mut()
+        }
+    }
+}
+
+/// Create a DeepFilterNet state from a model loaded via df_model_load().
+///
+/// The state is independent of the model and stays valid after df_model_free().
+///
+/// Args:
+///     - model: Model created via df_model_load()
+///     - atten_lim: Attenuation limit in dB.
+///
+/// Returns:
+///     - DF state doing the full processing: stft, DNN noise reduction, istft.
+#[no_mangle]
+pub unsafe extern "C" fn df_create_from_model(
+    model: *const DFModel,
+    atten_lim: f32,
+    log_level: *const c_char,
+) -> *mut DFState {
+    df_create_from_model_ch(model, 1, atten_lim, log_level)
+}
+
+/// Create a DeepFilterNet state processing `channels` channels at once from a model loaded via
+/// df_model_load().
+///
+/// The runtime for a channel count other than 1 is built on the first call and cached in the model.
+///
+/// Args:
+///     - model: Model created via df_model_load()
+///     - channels: Number of channels, at least 1.
+///     - atten_lim: Attenuation limit in dB.
+///
+/// Returns:
+///     - DF state as in df_create_ch(), or NULL if the runtime could not be built.
+#[no_mangle]
+pub unsafe extern "C" fn df_create_from_model_ch(
+    model: *const DFModel,
+    channels: usize,
+    atten_lim: f32,
+    log_level: *const c_char,
+) -> *mut DFState {
+    let model = model.as_ref().expect("Invalid pointer");
+    let mut m = match model.runtime(channels.max(1)) {
+        Some(m) => m,
+        None => return std::ptr::null_mut(),
+    };
+    let logger = build_logger(parse_log_level(log_level));
+    m.set_atten_lim(atten_lim);
+    Box::into_raw(DFState::from_runtime(m, logger).boxed())
+}
+
+/// Free a model created via df_model_load().
+#[no_mangle]
+pub unsafe extern "C" fn df_model_free(model: *mut DFModel) {
+    if !model.is_null() {
+        let _ = Box::from_raw(model);
+    }
+}
+
 /// Get DeepFilterNet frame size in samples.
 #[no_mangle]
 pub unsafe extern "C" fn df_get_frame_length(st: *mut DFState) -> usize {
@@ -110,6 +288,13 @@ pub unsafe extern "C" fn df_get_frame_length(st: *mut DFState) -> usize {
     state.m.hop_size
 }
 
+/// Get the number of channels a DeepFilterNet state processes.
+#[no_mangle]
+pub unsafe extern "C" fn df_get_channels(st: *mut DFState) -> usize {
+    let state = st.as_mut().expect("Invalid pointer");
+    state.m.ch
+}
+
 /// Get the next log message. Must be freed via `df_free_log_msg(ptr)`
 #[no_mangle]
 pub unsafe extern "C" fn df_next_log_msg(st: *mut DFState) -> *mut c_char {
@@ -128,6 +313,19 @@ pub unsafe extern "C" fn df_free_log_msg(ptr: *mut c_char) {
     let _ = CString::from_raw(ptr);
 }
 
+/// Reset a DeepFilterNet state to the state right after df_create().
+///
+/// Clears all recurrent network states and rolling spectrum buffers and restores the attenuation
+/// limit and post filter beta passed to df_create(), without reloading the model. This allows a
+/// state to be reused for an unrelated stream.
+#[no_mangle]
+pub unsafe extern "C" fn df_reset(st: *mut DFState) {
+    let state = st.as_mut().expect("Invalid pointer");
+    state.m.reset().expect("Could not reset DeepFilter runtime.");
+    state.m.atten_lim = state.atten_lim;
+    state.m.set_pf_beta(state.post_filter_beta);
+}
+
 /// Set DeepFilterNet attenuation limit.
 ///
 /// Args:
@@ -152,8 +350,8 @@ pub unsafe extern "C" fn df_set_post_filter_beta(st: *mut DFState, beta: f32) {
 ///
 /// Args:
 ///     - df_state: Created via df_create()
-///     - input: Input buffer of length df_get_frame_length()
-///     - output: Output buffer of length df_get_frame_length()
+///     - input: Input buffer of length df_get_channels() * df_get_frame_length(), planar
+///     - output: Output buffer of length df_get_channels() * df_get_frame_length(), planar
 ///
 /// Returns:
 ///     - Local SNR of the current frame.
@@ -164,12 +362,54 @@ pub unsafe extern "C" fn df_process_frame(
     output: *mut c_float,
 ) -> c_float {
     let state = st.as_mut().expect("Invalid pointer");
-    let input = ArrayView2::from_shape_ptr((1, state.m.hop_size), input);
-    let output = ArrayViewMut2::from_shape_ptr((1, state.m.hop_size), output);
+    let input = ArrayView2::from_shape_ptr((state.m.ch, state.m.hop_size), input);
+    let output = ArrayViewMut2::from_shape_ptr((state.m.ch, state.m.hop_size), output);
 
     state.m.process(input, output).expect("Failed to process DF frame")
 }
 
+/// Processes one frame for each of `count` independent states in a single call.
+///
+/// The states keep their own recurrent network state, so the frames are still run one after the
+/// other; the call amortizes the per-call FFI overhead and keeps the frames of many streams in one
+/// contiguous block.
+///
+/// Args:
+///     - states: Array of `count` states created via df_create() or df_create_from_model(). A
+///         state must not appear twice.
+///     - count: Number of states.
+///     - input: Input block. State `i` reads `df_get_channels() * df_get_frame_length()` planar
+///         samples directly after the samples of state `i - 1`.
+///     - output: Output block with the same layout as `input`.
+///     - lsnr: Optional output buffer of length `count` receiving the local SNR of each frame, may
+///         be NULL.
+///
+/// Returns:
+///     - Total number of samples read from `input`.
+#[no_mangle]
+pub unsafe extern "C" fn df_process_frames(
+    states: *const *mut DFState,
+    count: usize,
+    input: *const c_float,
+    output: *mut c_float,
+    lsnr: *mut c_float,
+) -> usize {
+    let states = std::slice::from_raw_parts(states, count);
+    let mut offset = 0;
+    for (i, st) in states.iter().enumerate() {
+        let state = st.as_mut().expect("Invalid pointer");
+        let (ch, hop) = (state.m.ch, state.m.hop_size);
+        let frame_in = ArrayView2::from_shape_ptr((ch, hop), input.add(offset));
+        let frame_out = ArrayViewMut2::from_shape_ptr((ch, hop), output.add(offset));
+        let snr = state.m.process(frame_in, frame_out).expect("Failed to process DF frame");
+        if !lsnr.is_null() {
+            *lsnr.add(i) = snr;
+        }
+        offset += ch * hop;
+    }
+    offset
+}
+
 /// Processes a filter bank sample and return raw gains and DF coefs.
 ///
 /// Args:
@@ -423,12 +423,53 @@ impl DfTract {
             }
         }
         self.spec_buf = Tensor::zero::<f32>(&spec_shape)?;
-        self.erb_buf = TValue::from(Tensor::zero::<f32>(&[ch, 1, 1, self.nb_erb])?);
-        self.cplx_buf = TValue::from(Tensor::zero::<f32>(&[ch, 1, self.nb_df, 2])?);
+        self.alloc_feature_bufs()
+    }
 
+    /// Allocate fresh ERB and complex feature buffers.
+    ///
+    /// The buffers are reference counted (`Rc`) and written in place by `process_raw`, so a runtime
+    /// must never share them with another runtime.
+    fn alloc_feature_bufs(&mut self) -> Result<()> {
+        self.erb_buf = TValue::from(Tensor::zero::<f32>(&[self.ch, 1, 1, self.nb_erb])?);
+        self.cplx_buf = TValue::from(Tensor::zero::<f32>(&[self.ch, 1, self.nb_df, 2])?);
         Ok(())
     }
 
+    /// Clone the runtime into an independent one that may be used on another thread.
+    ///
+    /// The derived `Clone` only copies the `Rc` handles of the feature buffers and of the values the
+    /// models retained from their last run, so the clone and the original would write the same
+    /// tensors and update the same non-atomic reference counts. This reallocates the feature buffers
+    /// and drops the retained values. Callers must make sure `self` is not used concurrently.
+    pub fn deep_clone(&self) -> Result<Self> {
+        let mut m = self.clone();
+        for model in [&mut m.enc, &mut m.erb_dec, &mut m.df_dec] {
+            model.reset_turn()?;
+        }
+        m.alloc_feature_bufs()?;
+        Ok(m)
+    }
+
+    /// Reset the streaming state to the state right after `new`, keeping the optimized models.
+    ///
+    /// Clears the recurrent network states, the analysis/synthesis memory, the feature normalization
+    /// states and the rolling spectrum buffers, and reallocates the feature buffers. The attenuation
+    /// limit and post filter settings are kept.
+    pub fn reset(&mut self) -> Result<()> {
+        for model in [&mut self.enc, &mut self.erb_dec, &mut self.df_dec] {
+            model.reset_turn()?;
+            model.reset_op_states()?;
+        }
+        for state in self.df_states.iter_mut() {
+            state.reset();
+            state.init_norm_states(self.nb_df);
+        }
+        self.rolling_spec_buf_x.clear();
+        self.skip_counter = 0;
+        self.init()
+    }
+
     /// Process a FD sample and return the raw gains and DF coefs.
     ///
     /// Warning: